@@ -1,12 +1,16 @@
 package com.sakury.admin;
 
+import com.sakury.startup.StartupReporter;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication(scanBasePackages = "com.sakury",exclude = {DataSourceAutoConfiguration.class})
+@SpringBootApplication
+@EnableScheduling
 public class VidoraAdminRunApplication {
     public static void main(String[] args) {
-        SpringApplication.run(VidoraAdminRunApplication.class, args);
+        SpringApplication application = new SpringApplication(VidoraAdminRunApplication.class);
+        StartupReporter.attach(application);
+        application.run(args);
     }
 }
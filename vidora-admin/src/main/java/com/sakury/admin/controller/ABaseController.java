@@ -0,0 +1,66 @@
+package com.sakury.admin.controller;
+
+import com.sakury.entity.enums.ResponseCodeEnum;
+import com.sakury.entity.vo.ResponseVO;
+import com.sakury.exception.BusinessException;
+
+public class ABaseController {
+
+    protected static final String STATUC_SUCCESS = "success";
+
+    protected static final String STATUC_ERROR = "error";
+
+    /**
+     * 获取成功ResponseVO
+     *
+     * @param t
+     * @param <T>
+     * @return
+     */
+    protected <T> ResponseVO getSuccessResponseVO(T t) {
+        ResponseVO<T> responseVO = new ResponseVO<>();
+        responseVO.setStatus(STATUC_SUCCESS);
+        responseVO.setCode(ResponseCodeEnum.CODE_200.getCode());
+        responseVO.setInfo(ResponseCodeEnum.CODE_200.getMsg());
+        responseVO.setData(t);
+        return responseVO;
+    }
+
+    /**
+     * 获取业务错误ResponseVO
+     *
+     * @param e
+     * @param t
+     * @param <T>
+     * @return
+     */
+    protected <T> ResponseVO getBusinessErrorResponseVO(BusinessException e, T t) {
+        ResponseVO vo = new ResponseVO();
+        vo.setStatus(STATUC_ERROR);
+        if (e.getCode() == null) {
+            vo.setCode(ResponseCodeEnum.CODE_600.getCode());
+        } else {
+            vo.setCode(e.getCode());
+        }
+        vo.setInfo(e.getMessage());
+        vo.setData(t);
+        return vo;
+    }
+
+    /**
+     * 获取服务错误ResponseVO
+     *
+     * @param t
+     * @param <T>
+     * @return
+     */
+    protected <T> ResponseVO getServerErrorResponseVO(T t) {
+        ResponseVO vo = new ResponseVO();
+        vo.setStatus(STATUC_ERROR);
+        vo.setCode(ResponseCodeEnum.CODE_500.getCode());
+        vo.setInfo(ResponseCodeEnum.CODE_500.getMsg());
+        vo.setData(t);
+        return vo;
+    }
+
+}
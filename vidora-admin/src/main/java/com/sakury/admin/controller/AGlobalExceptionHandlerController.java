@@ -0,0 +1,80 @@
+package com.sakury.admin.controller;
+
+import com.sakury.entity.enums.ResponseCodeEnum;
+import com.sakury.entity.vo.ResponseVO;
+import com.sakury.exception.BusinessException;
+import com.sakury.metrics.EndpointMetricsFilter;
+import com.sakury.metrics.ExceptionMetrics;
+import com.sakury.utils.SampledLogger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.validation.BindException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.servlet.NoHandlerFoundException;
+
+import javax.annotation.Resource;
+import javax.servlet.http.HttpServletRequest;
+import javax.validation.ConstraintViolationException;
+
+@RestControllerAdvice
+public class AGlobalExceptionHandlerController extends ABaseController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AGlobalExceptionHandlerController.class);
+
+    /**
+     * 未知异常输出完整堆栈，故障时每秒最多输出10条，避免日志写满队列
+     */
+    private static final SampledLogger errorLogger = SampledLogger.of(logger, 10, 1000);
+
+    @Resource
+    private ExceptionMetrics exceptionMetrics;
+
+    @ExceptionHandler(value = Exception.class)
+    Object handleException(Exception e, HttpServletRequest request) {
+        ResponseVO ajaxResponse = new ResponseVO();
+        //404
+        if (e instanceof NoHandlerFoundException) {
+            ajaxResponse.setCode(ResponseCodeEnum.CODE_404.getCode());
+            ajaxResponse.setInfo(ResponseCodeEnum.CODE_404.getMsg());
+            ajaxResponse.setStatus(STATUC_ERROR);
+        } else if (e instanceof BusinessException) {
+            //业务错误
+            BusinessException biz = (BusinessException) e;
+            ajaxResponse.setCode(biz.getCode() == null ? ResponseCodeEnum.CODE_600.getCode() : biz.getCode());
+            ajaxResponse.setInfo(biz.getMessage());
+            ajaxResponse.setStatus(STATUC_ERROR);
+        } else if (e instanceof BindException || e instanceof MethodArgumentTypeMismatchException) {
+            //参数类型错误
+            ajaxResponse.setCode(ResponseCodeEnum.CODE_600.getCode());
+            ajaxResponse.setInfo(ResponseCodeEnum.CODE_600.getMsg());
+            ajaxResponse.setStatus(STATUC_ERROR);
+        } else if (e instanceof DuplicateKeyException) {
+            //主键冲突
+            ajaxResponse.setCode(ResponseCodeEnum.CODE_601.getCode());
+            ajaxResponse.setInfo(ResponseCodeEnum.CODE_601.getMsg());
+            ajaxResponse.setStatus(STATUC_ERROR);
+        } else if (e instanceof ConstraintViolationException) {
+            ajaxResponse.setCode(ResponseCodeEnum.CODE_600.getCode());
+            ajaxResponse.setInfo(ResponseCodeEnum.CODE_600.getMsg());
+            ajaxResponse.setStatus(STATUC_ERROR);
+        } else {
+            ajaxResponse.setCode(ResponseCodeEnum.CODE_500.getCode());
+            ajaxResponse.setInfo(ResponseCodeEnum.CODE_500.getMsg());
+            ajaxResponse.setStatus(STATUC_ERROR);
+            EndpointMetricsFilter.markError(request, ajaxResponse.getCode());
+            exceptionMetrics.record(e, ajaxResponse.getCode(), false);
+            errorLogger.error("请求错误，请求地址{},错误信息:", request.getRequestURI(), e);
+            return ajaxResponse;
+        }
+        //业务异常、参数错误只计数，不输出堆栈
+        EndpointMetricsFilter.markError(request, ajaxResponse.getCode());
+        exceptionMetrics.record(e, ajaxResponse.getCode(), true);
+        if (logger.isDebugEnabled()) {
+            logger.debug("请求错误，请求地址{},code:{},错误信息:{}", request.getRequestURI(), ajaxResponse.getCode(), e.getMessage());
+        }
+        return ajaxResponse;
+    }
+}
@@ -0,0 +1,87 @@
+package com.sakury.admin.controller;
+
+import com.sakury.entity.enums.ResponseCodeEnum;
+import com.sakury.entity.vo.ResponseVO;
+import com.sakury.exception.BusinessException;
+import com.sakury.service.ActiveUserService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.annotation.Resource;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 活跃用户统计 Controller
+ */
+@RestController("analyticsController")
+@RequestMapping("/analytics")
+@Validated
+public class AnalyticsController extends ABaseController {
+
+    private static final List<Integer> DEFAULT_RETENTION_DAYS = Arrays.asList(1, 7, 30);
+
+    private static final int DEFAULT_COHORT_COUNT = 7;
+
+    private static final int MAX_COHORT_COUNT = 31;
+
+    @Resource
+    private ActiveUserService activeUserService;
+
+    @Value("${analytics.retention-days:120}")
+    private int retentionDays;
+
+    /**
+     * 截至某日的日/周/月活跃用户数，含HyperLogLog近似值
+     *
+     * @param date 日期 yyyy-MM-dd，默认今天
+     */
+    @RequestMapping("/loadActiveUsers")
+    public ResponseVO loadActiveUsers(String date) {
+        return getSuccessResponseVO(activeUserService.getActiveUserStats(parseDate(date)));
+    }
+
+    /**
+     * 同期群留存
+     *
+     * @param cohortDate  最后一个同期群的日期 yyyy-MM-dd，默认今天
+     * @param cohortCount 同期群个数，默认7，最多31
+     * @param days        第N天，逗号分隔，默认 1,7,30
+     */
+    @RequestMapping("/loadRetention")
+    public ResponseVO loadRetention(String cohortDate, Integer cohortCount, Integer[] days) {
+        int count = cohortCount == null || cohortCount <= 0 ? DEFAULT_COHORT_COUNT : Math.min(cohortCount, MAX_COHORT_COUNT);
+        List<Integer> dayList = days == null || days.length == 0 ? DEFAULT_RETENTION_DAYS : Arrays.asList(days);
+        for (Integer day : dayList) {
+            if (day == null || day <= 0 || day >= retentionDays) {
+                throw new BusinessException(ResponseCodeEnum.CODE_600);
+            }
+        }
+        return getSuccessResponseVO(activeUserService.getRetention(parseDate(cohortDate), count, dayList));
+    }
+
+    /**
+     * 当日与前一日活跃用户对比
+     *
+     * @param date 日期 yyyy-MM-dd，默认今天
+     */
+    @RequestMapping("/loadDayOverDay")
+    public ResponseVO loadDayOverDay(String date) {
+        return getSuccessResponseVO(activeUserService.getDayOverDay(parseDate(date)));
+    }
+
+    private static LocalDate parseDate(String date) {
+        if (date == null || date.isEmpty()) {
+            return LocalDate.now();
+        }
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            throw new BusinessException(ResponseCodeEnum.CODE_600);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.sakury.admin.controller;
+
+import com.sakury.entity.vo.ResponseVO;
+import com.sakury.exception.BusinessException;
+import com.sakury.service.UserRollupService;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.annotation.Resource;
+
+/**
+ * 看板 Controller
+ */
+@RestController("dashboardController")
+@RequestMapping("/dashboard")
+@Validated
+public class DashboardController extends ABaseController {
+
+    private static final int DEFAULT_DAYS = 30;
+
+    @Resource
+    private UserRollupService userRollupService;
+
+    /**
+     * 用户看板：用户总数、状态与性别分布、硬币总数、每日注册人数，直接读取预先汇总的数据
+     *
+     * @param days 每日注册人数的天数，默认30，最多 dashboard.rollup.register-days
+     */
+    @RequestMapping("/loadUserDashboard")
+    public ResponseVO loadUserDashboard(Integer days) {
+        return getSuccessResponseVO(userRollupService.getDashboard(days == null || days <= 0 ? DEFAULT_DAYS : days));
+    }
+
+    /**
+     * 立即与数据库对账，首次上线或批量导入后使用；在后台执行，完成后看板的 reconcileTime 更新
+     */
+    @RequestMapping("/reconcile")
+    public ResponseVO reconcile() {
+        if (!userRollupService.submitReconcile()) {
+            throw new BusinessException("对账正在进行中，请稍后再试");
+        }
+        return getSuccessResponseVO(null);
+    }
+}
@@ -0,0 +1,34 @@
+package com.sakury.admin.controller;
+
+import com.sakury.entity.vo.ResponseVO;
+import com.sakury.service.HotKeyService;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.annotation.Resource;
+
+/**
+ * Redis热点key Controller
+ */
+@RestController("hotKeyController")
+@RequestMapping("/hotKey")
+@Validated
+public class HotKeyController extends ABaseController {
+
+    @Resource
+    private HotKeyService hotKeyService;
+
+    /**
+     * 查询各实例最近一个窗口的热点key与估算QPS
+     *
+     * @param appName 应用名，默认 vidora-web
+     * @param hotOnly 是否只返回已升级为本地副本的key，默认 false
+     * @param top     条数，默认50，最多200
+     * @return key统计列表，按QPS倒序
+     */
+    @RequestMapping("/loadHotKeyList")
+    public ResponseVO loadHotKeyList(String appName, Boolean hotOnly, Integer top) {
+        return getSuccessResponseVO(hotKeyService.findHotKeyList(appName == null ? "vidora-web" : appName, hotOnly, top));
+    }
+}
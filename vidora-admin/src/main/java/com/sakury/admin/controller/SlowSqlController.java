@@ -0,0 +1,34 @@
+package com.sakury.admin.controller;
+
+import com.sakury.entity.vo.ResponseVO;
+import com.sakury.service.SlowSqlService;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.annotation.Resource;
+
+/**
+ * 慢SQL统计 Controller
+ */
+@RestController("slowSqlController")
+@RequestMapping("/slowSql")
+@Validated
+public class SlowSqlController extends ABaseController {
+
+    @Resource
+    private SlowSqlService slowSqlService;
+
+    /**
+     * 按指纹查询慢SQL排行
+     *
+     * @param appName   应用名，默认 vidora-web
+     * @param orderType 排序维度 total/avg/max/p99/count/slow，默认 total
+     * @param top       条数，默认20，最多100
+     * @return 指纹统计列表，含最近的慢SQL样本
+     */
+    @RequestMapping("/loadTopList")
+    public ResponseVO loadTopList(String appName, String orderType, Integer top) {
+        return getSuccessResponseVO(slowSqlService.findTopList(appName == null ? "vidora-web" : appName, orderType, top));
+    }
+}
@@ -0,0 +1,50 @@
+package com.sakury.admin.controller;
+
+import com.sakury.entity.vo.ResponseVO;
+import com.sakury.service.TraceService;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.annotation.Resource;
+import javax.validation.constraints.NotEmpty;
+
+/**
+ * 调用链 Controller
+ */
+@RestController("traceController")
+@RequestMapping("/trace")
+@Validated
+public class TraceController extends ABaseController {
+
+    private static final String DEFAULT_APP_NAME = "vidora-web";
+
+    @Resource
+    private TraceService traceService;
+
+    /**
+     * 查询最近导出的调用链
+     *
+     * @param appName 应用名，默认 vidora-web
+     * @param uri     请求路径模式，如 /account/login
+     * @param reason  导出原因 sampled/slow/error
+     * @param limit   条数，默认50，最多200
+     * @return 调用链摘要列表，不含片段明细
+     */
+    @RequestMapping("/loadTraceList")
+    public ResponseVO loadTraceList(String appName, String uri, String reason, Integer limit) {
+        return getSuccessResponseVO(traceService.findTraceList(appName == null ? DEFAULT_APP_NAME : appName, uri, reason, limit));
+    }
+
+    /**
+     * 根据traceId查询调用链片段明细
+     *
+     * @param appName 应用名，默认 vidora-web
+     * @param traceId 响应头 X-Trace-Id 中返回的id
+     * @return 调用链
+     */
+    @RequestMapping("/getTrace")
+    public ResponseVO getTrace(String appName, @NotEmpty String traceId) {
+        return getSuccessResponseVO(traceService.getTraceByTraceId(appName == null ? DEFAULT_APP_NAME : appName, traceId));
+    }
+}
@@ -1,4 +1,162 @@
 package com.sakury.admin.controller;
 
-public class UserController {
+import com.sakury.entity.constants.Constants;
+import com.sakury.entity.enums.DateTimePatternEnum;
+import com.sakury.entity.enums.ExportFormatEnum;
+import com.sakury.entity.enums.ImportFormatEnum;
+import com.sakury.entity.query.UserInfoQuery;
+import com.sakury.entity.vo.ResponseVO;
+import com.sakury.exception.BusinessException;
+import com.sakury.service.UserInfoExportService;
+import com.sakury.service.UserInfoImportService;
+import com.sakury.service.UserInfoService;
+import com.sakury.token.TokenManager;
+import com.sakury.utils.DateUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.annotation.Resource;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import java.io.File;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Date;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 用户管理 Controller
+ */
+@RestController("userController")
+@RequestMapping("/user")
+@Validated
+public class UserController extends ABaseController {
+
+    @Resource
+    private UserInfoImportService userInfoImportService;
+
+    @Resource
+    private UserInfoExportService userInfoExportService;
+
+    @Resource
+    private UserInfoService userInfoService;
+
+    @Resource
+    private TokenManager tokenManager;
+
+    @Value("${project.folder}")
+    private String projectFolder;
+
+    /**
+     * 修改用户状态，禁用后该用户已登录的会话立即失效
+     *
+     * @param userId 用户id
+     * @param status 0禁用 1启用
+     */
+    @RequestMapping("/changeStatus")
+    public ResponseVO changeStatus(@NotEmpty String userId, @NotNull Integer status) {
+        userInfoService.changeUserStatus(userId, status);
+        return getSuccessResponseVO(null);
+    }
+
+    /**
+     * 查询用户当前有效的登录会话
+     *
+     * @param userId 用户id
+     * @return 会话设备信息，签名token模式下为空
+     */
+    @RequestMapping("/loadSessionList")
+    public ResponseVO loadSessionList(@NotEmpty String userId) {
+        return getSuccessResponseVO(tokenManager.getUserSessionList(userId));
+    }
+
+    /**
+     * 注销用户的全部登录会话
+     *
+     * @param userId 用户id
+     */
+    @RequestMapping("/revokeSessions")
+    public ResponseVO revokeSessions(@NotEmpty String userId) {
+        tokenManager.deleteUserTokens(userId);
+        return getSuccessResponseVO(null);
+    }
+
+    /**
+     * 批量导入用户
+     * 文件先落盘到临时目录，再由后台任务流式读取并按批次提交，通过 getImportTask 查询进度
+     * 导入的 password 须为已加密的值，与注册时入库格式一致
+     *
+     * @param file      导入文件，csv（首行为表头）或 json（对象数组）
+     * @param format    csv/json，为空时按文件扩展名判断
+     * @param upsert    是否存在则更新，默认仅新增
+     * @param batchSize 每批提交行数，默认取 bulk.import.batch-size
+     * @return 导入任务，包含taskId
+     */
+    @RequestMapping("/importUserInfo")
+    public ResponseVO importUserInfo(@NotNull MultipartFile file, String format, Boolean upsert, Integer batchSize) throws IOException {
+        ImportFormatEnum formatEnum = format == null ? ImportFormatEnum.getByFileName(file.getOriginalFilename())
+                : ImportFormatEnum.getByType(format);
+        if (formatEnum == null) {
+            throw new BusinessException("导入格式仅支持 csv/json");
+        }
+        File tempFolder = new File(projectFolder + Constants.FILE_FOLDER_TEMP);
+        if (!tempFolder.exists()) {
+            tempFolder.mkdirs();
+        }
+        File tempFile = new File(tempFolder, "import_" + UUID.randomUUID() + "." + formatEnum.getType());
+        file.transferTo(tempFile);
+        return getSuccessResponseVO(userInfoImportService.submitImport(tempFile, file.getOriginalFilename(), formatEnum, upsert, batchSize));
+    }
+
+    /**
+     * 查询导入任务进度与失败行
+     *
+     * @param taskId 导入任务id
+     * @return 导入任务
+     */
+    @RequestMapping("/getImportTask")
+    public ResponseVO getImportTask(@NotEmpty String taskId) {
+        return getSuccessResponseVO(userInfoImportService.getImportTask(taskId));
+    }
+
+    /**
+     * 按条件流式导出用户，不含密码
+     * 数据库游标逐行读取并直接写入响应，内存占用不随导出行数增长
+     *
+     * @param query  查询条件，分页参数不生效
+     * @param format csv/ndjson，默认csv
+     * @param gzip   是否gzip压缩输出
+     */
+    @RequestMapping("/exportUserInfo")
+    public ResponseEntity<StreamingResponseBody> exportUserInfo(UserInfoQuery query, String format, Boolean gzip) {
+        ExportFormatEnum formatEnum = format == null ? ExportFormatEnum.CSV : ExportFormatEnum.getByType(format);
+        if (formatEnum == null) {
+            throw new BusinessException("导出格式仅支持 csv/ndjson");
+        }
+        boolean compress = Boolean.TRUE.equals(gzip);
+        String fileName = "user_info_" + DateUtil.format(new Date(), DateTimePatternEnum.YYYYMMDDHHMMSS.getPattern())
+                + "." + formatEnum.getType() + (compress ? ".gz" : "");
+        StreamingResponseBody body = outputStream -> {
+            OutputStream output = compress ? new GZIPOutputStream(outputStream, 64 * 1024) : outputStream;
+            BufferedOutputStream bufferedOutput = new BufferedOutputStream(output, 64 * 1024);
+            userInfoExportService.exportUserInfo(query, formatEnum, bufferedOutput);
+            bufferedOutput.flush();
+            if (compress) {
+                ((GZIPOutputStream) output).finish();
+            }
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment;filename=" + fileName)
+                .contentType(compress ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType(formatEnum.getContentType() + ";charset=UTF-8"))
+                .body(body);
+    }
 }
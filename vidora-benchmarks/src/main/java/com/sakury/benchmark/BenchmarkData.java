@@ -0,0 +1,73 @@
+package com.sakury.benchmark;
+
+import com.sakury.entity.dto.UserInfoTokenDto;
+import com.sakury.entity.enums.UserSexEnum;
+import com.sakury.entity.enums.UserStatusEnum;
+import com.sakury.entity.po.UserInfo;
+import com.sakury.entity.vo.PaginationResultVO;
+import com.sakury.entity.vo.ResponseVO;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 基准测试使用的样例数据
+ */
+public class BenchmarkData {
+
+    public static UserInfo newUserInfo(int index) {
+        UserInfo userInfo = new UserInfo();
+        userInfo.setUserId(String.valueOf(1000000000L + index));
+        userInfo.setNickName("vidora_user_" + index);
+        userInfo.setEmail("user" + index + "@vidora.com");
+        userInfo.setPassword("e10adc3949ba59abbe56e057f20f883e");
+        userInfo.setSex(UserSexEnum.UNKNOWN.getType());
+        userInfo.setBirthday("2000-01-01");
+        userInfo.setSchool("Vidora University");
+        userInfo.setPersonIntroduction("这个人很懒，什么都没有留下");
+        userInfo.setRegisterTime(new Date(1700000000000L));
+        userInfo.setLastLoginTime(new Date(1760000000000L));
+        userInfo.setLastLoginIp("127.0.0.1");
+        userInfo.setStatus(UserStatusEnum.ENABLE.getStatus());
+        userInfo.setNoticeInfo("欢迎来到我的空间");
+        userInfo.setTotalCoinCount(100);
+        userInfo.setCurrentCoinCount(50);
+        userInfo.setTheme(1);
+        return userInfo;
+    }
+
+    public static List<UserInfo> newUserInfoList(int size) {
+        List<UserInfo> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(newUserInfo(i));
+        }
+        return list;
+    }
+
+    public static UserInfoTokenDto newTokenDto() {
+        UserInfoTokenDto tokenDto = new UserInfoTokenDto();
+        tokenDto.setUserId("1000000001");
+        tokenDto.setNickName("vidora_user_1");
+        tokenDto.setAvatar("avatar/1000000001.jpg");
+        tokenDto.setExpireTime(1760000000000L);
+        tokenDto.setToken("5f0e8a52-3c1b-4c8e-9a4d-7b2f1e6d9c30");
+        tokenDto.setFanCount(10);
+        tokenDto.setCurrentCoinCount(50);
+        tokenDto.setFocusCount(3);
+        return tokenDto;
+    }
+
+    public static <T> ResponseVO<T> success(T data) {
+        ResponseVO<T> responseVO = new ResponseVO<>();
+        responseVO.setStatus("success");
+        responseVO.setCode(200);
+        responseVO.setInfo("请求成功");
+        responseVO.setData(data);
+        return responseVO;
+    }
+
+    public static PaginationResultVO<UserInfo> newPage(int size) {
+        return new PaginationResultVO<>(1000, size, 1, 1000 / size, newUserInfoList(size));
+    }
+}
@@ -0,0 +1,40 @@
+package com.sakury.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * 基准测试入口
+ * 支持全部JMH命令行参数，未指定结果格式时默认以JSON输出到 jmh-results 目录，便于不同提交之间对比
+ * <p>
+ * 用法：java -jar target/benchmarks.jar [JMH参数] ，可通过 -Dbench.tag=xxx 指定结果文件名
+ */
+public class BenchmarkRunner {
+
+    private static final String RESULT_FOLDER = "jmh-results";
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cmdOptions = new CommandLineOptions(args);
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(cmdOptions);
+        // 未显式指定结果格式时，统一保存为JSON
+        if (!cmdOptions.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cmdOptions.getResult().hasValue()) {
+            File folder = new File(RESULT_FOLDER);
+            if (!folder.exists()) {
+                folder.mkdirs();
+            }
+            String tag = System.getProperty("bench.tag", new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()));
+            builder.result(new File(folder, "jmh-" + tag + ".json").getPath());
+        }
+        new Runner(builder.build()).run();
+    }
+}
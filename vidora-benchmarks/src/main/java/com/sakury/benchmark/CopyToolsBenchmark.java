@@ -0,0 +1,44 @@
+package com.sakury.benchmark;
+
+import com.sakury.entity.dto.UserInfoTokenDto;
+import com.sakury.entity.po.UserInfo;
+import com.sakury.utils.CopyTools;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CopyTools 属性复制基准
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CopyToolsBenchmark {
+
+    @Param({"10", "100"})
+    private int listSize;
+
+    private UserInfo userInfo;
+
+    private List<UserInfo> userInfoList;
+
+    @Setup
+    public void setup() {
+        userInfo = BenchmarkData.newUserInfo(1);
+        userInfoList = BenchmarkData.newUserInfoList(listSize);
+    }
+
+    @Benchmark
+    public UserInfoTokenDto copy() {
+        return CopyTools.copy(userInfo, UserInfoTokenDto.class);
+    }
+
+    @Benchmark
+    public List<UserInfoTokenDto> copyList() {
+        return CopyTools.copyList(userInfoList, UserInfoTokenDto.class);
+    }
+}
@@ -0,0 +1,48 @@
+package com.sakury.benchmark;
+
+import com.sakury.entity.enums.DateTimePatternEnum;
+import com.sakury.utils.DateUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DateUtil 格式化与解析基准，多线程运行以覆盖ThreadLocal缓存路径
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class DateUtilBenchmark {
+
+    private Date date;
+
+    @Setup
+    public void setup() {
+        date = new Date(1760000000000L);
+    }
+
+    @Benchmark
+    public String formatDateTime() {
+        return DateUtil.format(date, DateTimePatternEnum.YYYY_MM_DD_HH_MM_SS.getPattern());
+    }
+
+    @Benchmark
+    public String formatDate() {
+        return DateUtil.format(date, DateTimePatternEnum.YYYY_MM_DD.getPattern());
+    }
+
+    @Benchmark
+    public Date parseDateTime() {
+        return DateUtil.parse("2025-10-09 16:53:20", DateTimePatternEnum.YYYY_MM_DD_HH_MM_SS.getPattern());
+    }
+
+    @Benchmark
+    public Date parseDate() {
+        return DateUtil.parse("2025-10-09", DateTimePatternEnum.YYYY_MM_DD.getPattern());
+    }
+}
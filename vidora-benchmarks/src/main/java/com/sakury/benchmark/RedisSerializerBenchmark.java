@@ -0,0 +1,47 @@
+package com.sakury.benchmark;
+
+import com.sakury.entity.dto.UserInfoTokenDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RedisSerializer.json() 序列化UserInfoTokenDto基准，与RedisConfig中的value序列化方式一致
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RedisSerializerBenchmark {
+
+    private RedisSerializer<Object> serializer;
+
+    private UserInfoTokenDto tokenDto;
+
+    private byte[] tokenBytes;
+
+    @Setup
+    public void setup() {
+        serializer = RedisSerializer.json();
+        tokenDto = BenchmarkData.newTokenDto();
+        tokenBytes = serializer.serialize(tokenDto);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(tokenDto);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(tokenBytes);
+    }
+
+    @Benchmark
+    public Object roundTrip() {
+        return serializer.deserialize(serializer.serialize(tokenDto));
+    }
+}
@@ -0,0 +1,68 @@
+package com.sakury.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import com.sakury.entity.dto.UserInfoTokenDto;
+import com.sakury.entity.po.UserInfo;
+import com.sakury.entity.vo.PaginationResultVO;
+import com.sakury.entity.vo.ResponseVO;
+import com.sakury.json.ResponseJsonModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ResponseVO / PaginationResultVO JSON渲染基准，ObjectMapper配置与Spring MVC消息转换器一致
+ * renderer=jackson 为默认Bean序列化，fast 注册与应用相同的 ResponseJsonModule 与 Afterburner；
+ * 每次响应的分配量使用 -prof gc 查看 gc.alloc.rate.norm
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseRenderingBenchmark {
+
+    @Param({"15", "50"})
+    private int pageSize;
+
+    @Param({"jackson", "fast"})
+    private String renderer;
+
+    private ObjectMapper objectMapper;
+
+    private ResponseVO<UserInfoTokenDto> tokenResponse;
+
+    private ResponseVO<UserInfo> userInfoResponse;
+
+    private ResponseVO<PaginationResultVO<UserInfo>> pageResponse;
+
+    @Setup
+    public void setup() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if ("fast".equals(renderer)) {
+            builder.modulesToInstall(new AfterburnerModule(), new ResponseJsonModule());
+        }
+        objectMapper = builder.build();
+        tokenResponse = BenchmarkData.success(BenchmarkData.newTokenDto());
+        userInfoResponse = BenchmarkData.success(BenchmarkData.newUserInfo(1));
+        pageResponse = BenchmarkData.success(BenchmarkData.newPage(pageSize));
+    }
+
+    @Benchmark
+    public byte[] renderTokenResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(tokenResponse);
+    }
+
+    @Benchmark
+    public byte[] renderUserInfoResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(userInfoResponse);
+    }
+
+    @Benchmark
+    public byte[] renderPageResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(pageResponse);
+    }
+}
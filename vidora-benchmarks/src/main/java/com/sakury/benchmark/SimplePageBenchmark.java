@@ -0,0 +1,30 @@
+package com.sakury.benchmark;
+
+import com.sakury.entity.enums.PageSize;
+import com.sakury.entity.query.SimplePage;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SimplePage 分页计算基准
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SimplePageBenchmark {
+
+    @Param({"1", "50"})
+    private Integer pageNo;
+
+    @Param({"0", "12345"})
+    private int countTotal;
+
+    @Benchmark
+    public SimplePage construct() {
+        return new SimplePage(pageNo, countTotal, PageSize.SIZE15.getSize());
+    }
+}
@@ -0,0 +1,64 @@
+package com.sakury.benchmark;
+
+import com.sakury.entity.query.UserInfoQuery;
+import com.sakury.utils.StringTools;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StringTools 参数校验与判空基准
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StringToolsBenchmark {
+
+    /**
+     * 第一个字段即非空，反射扫描立即结束
+     */
+    private UserInfoQuery firstFieldQuery;
+
+    /**
+     * 最后一个字段非空，反射扫描全部字段
+     */
+    private UserInfoQuery lastFieldQuery;
+
+    @Setup
+    public void setup() {
+        firstFieldQuery = new UserInfoQuery();
+        firstFieldQuery.setUserId("1000000001");
+        lastFieldQuery = new UserInfoQuery();
+        lastFieldQuery.setTheme(1);
+    }
+
+    @Benchmark
+    public UserInfoQuery checkParamFirstField() {
+        StringTools.checkParam(firstFieldQuery);
+        return firstFieldQuery;
+    }
+
+    @Benchmark
+    public UserInfoQuery checkParamLastField() {
+        StringTools.checkParam(lastFieldQuery);
+        return lastFieldQuery;
+    }
+
+    @Benchmark
+    public boolean isEmptyNull() {
+        return StringTools.isEmpty(null);
+    }
+
+    @Benchmark
+    public boolean isEmptyBlank() {
+        return StringTools.isEmpty("    ");
+    }
+
+    @Benchmark
+    public boolean isEmptyText() {
+        return StringTools.isEmpty("vidora@vidora.com");
+    }
+}
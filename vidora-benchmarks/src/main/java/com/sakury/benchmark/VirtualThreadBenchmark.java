@@ -0,0 +1,118 @@
+package com.sakury.benchmark;
+
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 平台线程池与虚拟线程处理阻塞请求的对比，须在 JDK 21 上运行
+ * <p>
+ * 每次操作同时提交 concurrency 个模拟请求并等待全部完成，每个请求执行少量计算和两次耗时 dbLatencyMillis 的阻塞调用（模拟SQL与Redis往返）。
+ * platform 为与 Tomcat 默认配置相同的200线程池，virtual 为 Tomcat 的虚拟线程执行器；
+ * driverLock=synchronized 时阻塞调用在 synchronized 块内执行（与 8.x 版本MySQL驱动相同），虚拟线程会被固定在载体线程上
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VirtualThreadBenchmark {
+
+    private static final int PLATFORM_THREADS = 200;
+
+    @Param({"platform", "virtual"})
+    private String mode;
+
+    @Param({"200", "2000"})
+    private int concurrency;
+
+    @Param({"5"})
+    private int dbLatencyMillis;
+
+    @Param({"reentrant", "synchronized"})
+    private String driverLock;
+
+    private ExecutorService platformExecutor;
+
+    private Executor executor;
+
+    private Object[] monitors;
+
+    private ReentrantLock[] locks;
+
+    @Setup
+    public void setup() {
+        if ("virtual".equals(mode)) {
+            executor = new VirtualThreadExecutor("bench-vt-");
+        } else {
+            platformExecutor = Executors.newFixedThreadPool(PLATFORM_THREADS);
+            executor = platformExecutor;
+        }
+        //每个请求使用独立的连接对象，锁之间没有竞争，只体现持锁阻塞的影响
+        monitors = new Object[concurrency];
+        locks = new ReentrantLock[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            monitors[i] = new Object();
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (platformExecutor != null) {
+            platformExecutor.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    public void handleRequests() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(concurrency);
+        boolean pinning = "synchronized".equals(driverLock);
+        for (int i = 0; i < concurrency; i++) {
+            int connection = i;
+            executor.execute(() -> {
+                try {
+                    Blackhole.consumeCPU(1000);
+                    blockingCall(connection, pinning);
+                    Blackhole.consumeCPU(1000);
+                    blockingCall(connection, pinning);
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await();
+    }
+
+    private void blockingCall(int connection, boolean pinning) {
+        if (pinning) {
+            synchronized (monitors[connection]) {
+                sleep();
+            }
+            return;
+        }
+        ReentrantLock lock = locks[connection];
+        lock.lock();
+        try {
+            sleep();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(dbLatencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
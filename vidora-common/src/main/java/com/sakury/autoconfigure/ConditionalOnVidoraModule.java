@@ -0,0 +1,24 @@
+package com.sakury.autoconfigure;
+
+import org.springframework.context.annotation.Conditional;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 应用在 vidora.modules 中列出该模块时才加载
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Conditional(OnVidoraModuleCondition.class)
+public @interface ConditionalOnVidoraModule {
+
+    /**
+     * 模块名
+     */
+    String value();
+}
@@ -0,0 +1,35 @@
+package com.sakury.autoconfigure;
+
+import org.springframework.boot.autoconfigure.condition.ConditionMessage;
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按 vidora.modules 判断模块是否开启，结果会出现在条件评估报告（--debug）中
+ */
+class OnVidoraModuleCondition extends SpringBootCondition {
+
+    static final String MODULES_PROPERTY = "vidora.modules";
+
+    @Override
+    public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+        Map<String, Object> attributes = metadata.getAnnotationAttributes(ConditionalOnVidoraModule.class.getName());
+        String module = (String) attributes.get("value");
+        List<String> modules = Binder.get(context.getEnvironment())
+                .bind(MODULES_PROPERTY, Bindable.listOf(String.class))
+                .orElse(Collections.emptyList());
+        ConditionMessage.Builder message = ConditionMessage.forCondition(ConditionalOnVidoraModule.class, module);
+        if (modules.contains(module)) {
+            return ConditionOutcome.match(message.found(MODULES_PROPERTY).items(module));
+        }
+        return ConditionOutcome.noMatch(message.didNotFind(MODULES_PROPERTY).items(module));
+    }
+}
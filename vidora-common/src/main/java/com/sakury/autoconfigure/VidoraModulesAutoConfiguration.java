@@ -0,0 +1,148 @@
+package com.sakury.autoconfigure;
+
+import com.sakury.component.RedisComponent;
+import com.sakury.component.UserInfoBatchLoader;
+import com.sakury.component.UserInfoCache;
+import com.sakury.concurrency.ConcurrencyLimitConfig;
+import com.sakury.concurrency.VirtualThreadConfig;
+import com.sakury.json.JsonConfig;
+import com.sakury.metrics.ExceptionMetrics;
+import com.sakury.metrics.LogMetrics;
+import com.sakury.metrics.MetricsConfig;
+import com.sakury.metrics.RedisCommandMetrics;
+import com.sakury.mybatis.SlowSqlCollector;
+import com.sakury.mybatis.SlowSqlInterceptor;
+import com.sakury.redis.HotKeyDetector;
+import com.sakury.redis.RedisBulkhead;
+import com.sakury.redis.RedisCircuitBreaker;
+import com.sakury.redis.RedisCommandTimeoutCustomizer;
+import com.sakury.redis.RedisConfig;
+import com.sakury.redis.RedisUtils;
+import com.sakury.service.impl.ActiveUserServiceImpl;
+import com.sakury.service.impl.HotKeyServiceImpl;
+import com.sakury.service.impl.SlowSqlServiceImpl;
+import com.sakury.service.impl.TraceServiceImpl;
+import com.sakury.service.impl.UserInfoExportServiceImpl;
+import com.sakury.service.impl.UserInfoImportServiceImpl;
+import com.sakury.service.impl.UserInfoServiceImpl;
+import com.sakury.service.impl.UserRollupServiceImpl;
+import com.sakury.token.RedisTokenManager;
+import com.sakury.token.SignedTokenManager;
+import com.sakury.token.TokenRevocationSet;
+import com.sakury.trace.TraceAspect;
+import com.sakury.trace.TraceConfig;
+import com.sakury.trace.TraceExporter;
+import com.sakury.warmup.WarmupRunner;
+import org.mybatis.spring.annotation.MapperScan;
+import org.mybatis.spring.boot.autoconfigure.MybatisAutoConfiguration;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.connection.MessageListener;
+
+/**
+ * vidora-common 的模块，应用通过 vidora.modules 选择需要的模块，未列出的模块不注册其中的bean
+ * <p>
+ * 应用只扫描自身的包（controller 等），common 中的bean全部由这里按模块显式 @Import，不做类路径扫描；
+ * 类上的 @ConditionalOnProperty 等条件照常生效。采集与查询分为不同模块，前台只加载采集，查询只在管理端加载：
+ * <ul>
+ *     <li>核心（始终加载）：JSON序列化、监控指标、并发限制、虚拟线程</li>
+ *     <li>redis：RedisTemplate、RedisUtils 及其熔断/隔离舱/热点key、RedisComponent</li>
+ *     <li>token：登录token，依赖 redis</li>
+ *     <li>user：用户信息查询/缓存/批量导入、看板汇总与 Mapper，依赖 redis、token</li>
+ *     <li>user-export：用户信息导出，依赖 user</li>
+ *     <li>trace：调用链采集，依赖 redis</li>
+ *     <li>trace-query：调用链查询，依赖 redis</li>
+ *     <li>slow-sql：慢SQL指纹统计，依赖 redis</li>
+ *     <li>slow-sql-query：慢SQL报告查询，依赖 redis</li>
+ *     <li>analytics：活跃用户记录与统计（按日位图、HyperLogLog），依赖 redis</li>
+ *     <li>warmup：就绪前预热连接池与热点路径，依赖 redis、token、user</li>
+ * </ul>
+ * 先于 RedisAutoConfiguration、MybatisAutoConfiguration 处理，自定义的 redisTemplate 与 Mapper 扫描代替默认配置。
+ * 应用开启 spring.main.lazy-initialization 时，有启动副作用的bean（频道订阅、日志丢弃计数）仍立即创建，带 @Scheduled 的bean由 Spring Boot 保持立即创建
+ */
+@AutoConfiguration(before = {RedisAutoConfiguration.class, MybatisAutoConfiguration.class})
+public class VidoraModulesAutoConfiguration {
+
+    @Configuration(proxyBeanMethods = false)
+    @Import({JsonConfig.class, MetricsConfig.class, ExceptionMetrics.class, LogMetrics.class, RedisCommandMetrics.class,
+            ConcurrencyLimitConfig.class, VirtualThreadConfig.class})
+    static class CoreModule {
+
+        @Bean
+        static LazyInitializationExcludeFilter eagerCoreBeans() {
+            return LazyInitializationExcludeFilter.forBeanTypes(LogMetrics.class);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnVidoraModule("redis")
+    @Import({RedisConfig.class, RedisUtils.class, RedisBulkhead.class, RedisCircuitBreaker.class, RedisCommandTimeoutCustomizer.class,
+            HotKeyDetector.class, RedisComponent.class, HotKeyServiceImpl.class})
+    static class RedisModule {
+
+        @Bean
+        static LazyInitializationExcludeFilter eagerMessageListeners() {
+            return LazyInitializationExcludeFilter.forBeanTypes(MessageListener.class);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnVidoraModule("token")
+    @Import({RedisTokenManager.class, SignedTokenManager.class, TokenRevocationSet.class})
+    static class TokenModule {
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnVidoraModule("user")
+    @MapperScan("com.sakury.mappers")
+    @Import({UserInfoCache.class, UserInfoBatchLoader.class, UserInfoServiceImpl.class, UserInfoImportServiceImpl.class,
+            UserRollupServiceImpl.class})
+    static class UserModule {
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnVidoraModule("user-export")
+    @Import(UserInfoExportServiceImpl.class)
+    static class UserExportModule {
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnVidoraModule("trace")
+    @Import({TraceConfig.class, TraceAspect.class, TraceExporter.class})
+    static class TraceModule {
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnVidoraModule("trace-query")
+    @Import(TraceServiceImpl.class)
+    static class TraceQueryModule {
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnVidoraModule("slow-sql")
+    @Import({SlowSqlCollector.class, SlowSqlInterceptor.class})
+    static class SlowSqlModule {
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnVidoraModule("slow-sql-query")
+    @Import(SlowSqlServiceImpl.class)
+    static class SlowSqlQueryModule {
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnVidoraModule("analytics")
+    @Import(ActiveUserServiceImpl.class)
+    static class AnalyticsModule {
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnVidoraModule("warmup")
+    @Import(WarmupRunner.class)
+    static class WarmupModule {
+    }
+}
@@ -0,0 +1,105 @@
+package com.sakury.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sakury.entity.po.UserInfo;
+import com.sakury.exception.BusinessException;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.commons.io.input.BOMInputStream;
+import org.springframework.beans.BeanUtils;
+
+import java.beans.PropertyDescriptor;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * CSV流式读取
+ * 首行为表头，列名可用属性名(nickName)或字段名(nick_name)，空值视为未填写
+ */
+public class CsvUserInfoReader implements UserInfoRecordReader {
+
+    private static final Map<String, String> PROPERTY_NAMES = new HashMap<>();
+
+    static {
+        for (PropertyDescriptor descriptor : BeanUtils.getPropertyDescriptors(UserInfo.class)) {
+            if (descriptor.getWriteMethod() != null) {
+                PROPERTY_NAMES.put(normalize(descriptor.getName()), descriptor.getName());
+            }
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+
+    private final CSVParser parser;
+
+    private final Iterator<CSVRecord> iterator;
+
+    /**
+     * 列下标 -> 属性名
+     */
+    private final Map<Integer, String> columns = new LinkedHashMap<>();
+
+    public CsvUserInfoReader(InputStream input, ObjectMapper objectMapper) throws IOException {
+        this.objectMapper = objectMapper;
+        this.parser = new CSVParser(new InputStreamReader(new BOMInputStream(input), StandardCharsets.UTF_8),
+                CSVFormat.DEFAULT.withHeader().withIgnoreEmptyLines().withIgnoreSurroundingSpaces());
+        for (Map.Entry<String, Integer> header : parser.getHeaderMap().entrySet()) {
+            String property = PROPERTY_NAMES.get(normalize(header.getKey()));
+            if (property == null) {
+                parser.close();
+                throw new BusinessException("CSV表头包含未知列:" + header.getKey());
+            }
+            columns.put(header.getValue(), property);
+        }
+        this.iterator = parser.iterator();
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        CSVRecord record;
+        try {
+            if (!iterator.hasNext()) {
+                return null;
+            }
+            record = iterator.next();
+        } catch (IllegalStateException e) {
+            //commons-csv 将读取异常包装为 IllegalStateException
+            throw new IOException(e.getMessage(), e);
+        }
+        //表头占第1行
+        long rowNumber = record.getRecordNumber() + 1;
+        if (!record.isConsistent()) {
+            return ImportRow.error(rowNumber, "列数与表头不一致");
+        }
+        Map<String, String> values = new HashMap<>();
+        for (Map.Entry<Integer, String> column : columns.entrySet()) {
+            String value = record.get(column.getKey());
+            if (value != null && !value.isEmpty()) {
+                values.put(column.getValue(), value);
+            }
+        }
+        try {
+            return ImportRow.of(rowNumber, objectMapper.convertValue(values, UserInfo.class));
+        } catch (IllegalArgumentException e) {
+            //只保留首行，去掉 Jackson 附带的位置信息
+            String message = e.getMessage() == null ? "格式错误" : e.getMessage().split("\n", 2)[0];
+            return ImportRow.error(rowNumber, message);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+
+    private static String normalize(String name) {
+        return name.replace("_", "").trim().toLowerCase();
+    }
+}
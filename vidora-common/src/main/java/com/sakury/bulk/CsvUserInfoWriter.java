@@ -0,0 +1,52 @@
+package com.sakury.bulk;
+
+import com.sakury.entity.enums.DateTimePatternEnum;
+import com.sakury.entity.po.UserInfo;
+import com.sakury.utils.DateUtil;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+/**
+ * CSV导出，表头为属性名，可直接用于批量导入；不含密码列
+ */
+public class CsvUserInfoWriter implements UserInfoRecordWriter {
+
+    private static final String[] HEADER = {"userId", "nickName", "email", "sex", "birthday", "school", "personIntroduction",
+            "registerTime", "lastLoginTime", "lastLoginIp", "status", "noticeInfo", "totalCoinCount", "currentCoinCount", "theme"};
+
+    /**
+     * UTF-8 BOM，便于 Excel 正确识别中文
+     */
+    private static final char BOM = '﻿';
+
+    private final CSVPrinter printer;
+
+    public CsvUserInfoWriter(OutputStream output) throws IOException {
+        OutputStreamWriter writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+        writer.write(BOM);
+        this.printer = new CSVPrinter(writer, CSVFormat.DEFAULT.withHeader(HEADER));
+    }
+
+    @Override
+    public void write(UserInfo userInfo) throws IOException {
+        printer.printRecord(userInfo.getUserId(), userInfo.getNickName(), userInfo.getEmail(), userInfo.getSex(),
+                userInfo.getBirthday(), userInfo.getSchool(), userInfo.getPersonIntroduction(), formatDate(userInfo.getRegisterTime()),
+                formatDate(userInfo.getLastLoginTime()), userInfo.getLastLoginIp(), userInfo.getStatus(), userInfo.getNoticeInfo(),
+                userInfo.getTotalCoinCount(), userInfo.getCurrentCoinCount(), userInfo.getTheme());
+    }
+
+    @Override
+    public void finish() throws IOException {
+        printer.flush();
+    }
+
+    private static String formatDate(Date date) {
+        return date == null ? null : DateUtil.format(date, DateTimePatternEnum.YYYY_MM_DD_HH_MM_SS.getPattern());
+    }
+}
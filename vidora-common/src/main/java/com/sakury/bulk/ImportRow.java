@@ -0,0 +1,31 @@
+package com.sakury.bulk;
+
+import com.sakury.entity.po.UserInfo;
+import lombok.Getter;
+
+/**
+ * 读取到的一行数据，解析失败时 bean 为空、error 为原因
+ */
+@Getter
+public class ImportRow {
+
+    private final long rowNumber;
+
+    private final UserInfo bean;
+
+    private final String error;
+
+    private ImportRow(long rowNumber, UserInfo bean, String error) {
+        this.rowNumber = rowNumber;
+        this.bean = bean;
+        this.error = error;
+    }
+
+    public static ImportRow of(long rowNumber, UserInfo bean) {
+        return new ImportRow(rowNumber, bean, null);
+    }
+
+    public static ImportRow error(long rowNumber, String error) {
+        return new ImportRow(rowNumber, null, error);
+    }
+}
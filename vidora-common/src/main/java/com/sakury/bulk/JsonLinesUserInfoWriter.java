@@ -0,0 +1,46 @@
+package com.sakury.bulk;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sakury.entity.po.UserInfo;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 按行分隔的JSON导出(NDJSON)，每行一个对象；不含密码字段
+ */
+public class JsonLinesUserInfoWriter implements UserInfoRecordWriter {
+
+    private final JsonGenerator generator;
+
+    private final ObjectWriter writer;
+
+    public JsonLinesUserInfoWriter(OutputStream output, ObjectMapper objectMapper) throws IOException {
+        ObjectMapper exportMapper = objectMapper.copy().addMixIn(UserInfo.class, ExportMixIn.class);
+        //逐行写出时不刷新、不关闭底层流，由调用方控制
+        this.writer = exportMapper.writerFor(UserInfo.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.generator = exportMapper.getFactory().createGenerator(output);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        //根级对象之间默认以空格分隔，改为每行末尾写换行
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void write(UserInfo userInfo) throws IOException {
+        writer.writeValue(generator, userInfo);
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        generator.flush();
+    }
+
+    @JsonIgnoreProperties({"password"})
+    private abstract static class ExportMixIn {
+    }
+}
@@ -0,0 +1,58 @@
+package com.sakury.bulk;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sakury.entity.po.UserInfo;
+import com.sakury.exception.BusinessException;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * JSON数组流式读取
+ * 每次只解析一个数组元素为树再转换为对象，单个元素字段类型错误不影响后续元素
+ */
+public class JsonUserInfoReader implements UserInfoRecordReader {
+
+    private final ObjectMapper objectMapper;
+
+    private final JsonParser parser;
+
+    private long rowNumber;
+
+    public JsonUserInfoReader(InputStream input, ObjectMapper objectMapper) throws IOException {
+        this.objectMapper = objectMapper;
+        this.parser = objectMapper.getFactory().createParser(input);
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            parser.close();
+            throw new BusinessException("JSON导入内容必须为数组");
+        }
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null || token == JsonToken.END_ARRAY) {
+            return null;
+        }
+        rowNumber++;
+        if (token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return ImportRow.error(rowNumber, "数组元素必须为对象");
+        }
+        JsonNode node = parser.readValueAsTree();
+        try {
+            return ImportRow.of(rowNumber, objectMapper.treeToValue(node, UserInfo.class));
+        } catch (JsonProcessingException e) {
+            return ImportRow.error(rowNumber, e.getOriginalMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
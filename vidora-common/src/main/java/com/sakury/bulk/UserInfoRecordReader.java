@@ -0,0 +1,18 @@
+package com.sakury.bulk;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * 逐行读取导入数据，不把整个文件读入内存
+ */
+public interface UserInfoRecordReader extends Closeable {
+
+    /**
+     * 读取下一行
+     *
+     * @return 读取结果，单行格式错误时返回带错误信息的行，读取完毕返回 null
+     * @throws IOException 文件整体无法继续解析
+     */
+    ImportRow next() throws IOException;
+}
@@ -0,0 +1,18 @@
+package com.sakury.bulk;
+
+import com.sakury.entity.po.UserInfo;
+
+import java.io.IOException;
+
+/**
+ * 逐行写出导出数据，写出后不保留引用
+ */
+public interface UserInfoRecordWriter {
+
+    void write(UserInfo userInfo) throws IOException;
+
+    /**
+     * 写出剩余缓冲，不关闭底层输出流
+     */
+    void finish() throws IOException;
+}
@@ -1,19 +1,120 @@
 package com.sakury.component;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Policy;
 import com.sakury.entity.constants.Constants;
+import com.sakury.entity.dto.HotKeyReportDto;
+import com.sakury.entity.dto.ImportTaskDto;
+import com.sakury.entity.dto.SlowSqlReportDto;
+import com.sakury.entity.dto.TraceDto;
 import com.sakury.entity.dto.UserInfoTokenDto;
+import com.sakury.entity.dto.UserSessionDto;
+import com.sakury.metrics.RedisCommandMetrics;
+import com.sakury.redis.RedisKeys;
 import com.sakury.redis.RedisUtils;
+import com.sakury.utils.CopyTools;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
 import javax.annotation.Resource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Component
 public class RedisComponent {
 
+    private static final RedisScript<String> CHECK_CODE_CONSUME_SCRIPT = loadScript("lua/check_code_consume.lua", String.class);
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SESSION_ROTATE_SCRIPT = loadScript("lua/session_rotate.lua", List.class);
+
+    private static final RedisScript<Long> ANALYTICS_RECORD_ACTIVE_SCRIPT = loadScript("lua/analytics_record_active.lua", Long.class);
+
+    private static final RedisScript<Long> ANALYTICS_BITOP_COUNT_SCRIPT = loadScript("lua/analytics_bitop_count.lua", Long.class);
+
+    private static final RedisScript<Long> DASHBOARD_ROLLUP_INCR_SCRIPT = loadScript("lua/dashboard_rollup_incr.lua", Long.class);
+
+    private static final RedisScript<Long> DASHBOARD_ROLLUP_REPLACE_SCRIPT = loadScript("lua/dashboard_rollup_replace.lua", Long.class);
+
+    private static final RedisScript<Long> LOCK_RELEASE_SCRIPT = loadScript("lua/lock_release.lua", Long.class);
+
+    /**
+     * 按UTF-8读取脚本并去掉整行注释。Lettuce 执行EVAL时按平台默认字符集转换脚本，默认字符集不是UTF-8时中文注释会被替换，
+     * 服务端缓存的脚本SHA与客户端计算的不一致，每次EVALSHA都失败并退回EVAL，一次调用变成两次往返
+     */
+    private static <T> RedisScript<T> loadScript(String path, Class<T> resultType) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new ClassPathResource(path).getInputStream(), StandardCharsets.UTF_8))) {
+            String script = reader.lines()
+                    .filter(line -> !line.trim().startsWith("--"))
+                    .collect(Collectors.joining("\n"));
+            return RedisScript.of(script, resultType);
+        } catch (IOException e) {
+            throw new UncheckedIOException("读取Redis脚本失败:" + path, e);
+        }
+    }
+
     @Resource
     private RedisUtils redisUtils;
 
+    @Resource
+    private RedisCommandMetrics redisCommandMetrics;
+
+    @Value("${redis.degrade.token-cache-size:10000}")
+    private int tokenCacheSize;
+
+    @Value("${redis.degrade.token-cache-expire-millis:600000}")
+    private long tokenCacheExpireMillis;
+
+    @Value("${redis.degrade.check-code-size:10000}")
+    private int checkCodeSize;
+
+    /**
+     * 最近成功读取的token，仅在Redis不可用时用于校验
+     */
+    private Cache<String, UserInfoTokenDto> tokenCache;
+
+    private Policy.Expiration<String, UserInfoTokenDto> tokenCacheExpiration;
+
+    /**
+     * Redis不可用时写入本地的验证码，须由同一实例校验
+     */
+    private Cache<String, String> checkCodeCache;
+
+    @PostConstruct
+    public void init() {
+        tokenCache = Caffeine.newBuilder()
+                .maximumSize(tokenCacheSize)
+                .expireAfterWrite(tokenCacheExpireMillis, TimeUnit.MILLISECONDS)
+                .build();
+        tokenCacheExpiration = tokenCache.policy().expireAfterWrite().orElseThrow(IllegalStateException::new);
+        checkCodeCache = Caffeine.newBuilder()
+                .maximumSize(checkCodeSize)
+                .expireAfterWrite(Constants.REDIS_KEY_EXPIRES_ONE_MIN * 10, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
     /**
      * 保存验证码到Redis中
      *
@@ -24,72 +125,380 @@ public class RedisComponent {
         // 生成唯一的校验码作为Redis的键
         String checkCode = UUID.randomUUID().toString();
 
-        // 将验证码存储到Redis中，设置过期时间为10分钟
-        redisUtils.setex(Constants.REDIS_KEY_CHECK_CODE + checkCode, code,
-                Constants.REDIS_KEY_EXPIRES_ONE_MIN * 10);
+        // 将验证码存储到Redis中，设置过期时间为10分钟，Redis不可用时存入本地
+        if (!redisUtils.setex(RedisKeys.checkCode(checkCode), code,
+                Constants.REDIS_KEY_EXPIRES_ONE_MIN * 10)) {
+            checkCodeCache.put(checkCode, code);
+            redisCommandMetrics.recordDegraded("check_code_write");
+        }
 
         return checkCode;
     }
 
     /**
-     * 获取验证码
-     * 从Redis缓存中根据验证码键获取对应的验证码值
+     * 获取并删除验证码
+     * 读取与删除在一次脚本调用中完成，无论校验结果如何验证码都只能使用一次；先查找Redis不可用期间写入本地的验证码
      *
      * @param checkCodeKey 验证码的唯一标识键
      * @return 返回与checkCodeKey对应的验证码字符串，如果不存在则返回null
      */
-    public String getCheckCode(String checkCodeKey) {
-        return (String) redisUtils.get(Constants.REDIS_KEY_CHECK_CODE + checkCodeKey);
-    }
-
-    /**
-     * 删除验证码缓存
-     *
-     * @param checkCodeKey 验证码键值，用于标识要删除的验证码缓存项
-     */
-    public void deleteCheckCode(String checkCodeKey) {
-        redisUtils.delete(Constants.REDIS_KEY_CHECK_CODE + checkCodeKey);
+    public String consumeCheckCode(String checkCodeKey) {
+        String localCode = checkCodeCache.asMap().remove(checkCodeKey);
+        if (localCode != null) {
+            return localCode;
+        }
+        return (String) redisUtils.executeScript(CHECK_CODE_CONSUME_SCRIPT,
+                Collections.singletonList(RedisKeys.checkCode(checkCodeKey)));
     }
 
     /**
      * 保存用户令牌信息到Redis中
-     * 生成随机token，设置过期时间为7天，并将用户令牌信息存储到Redis
+     * 生成随机token，设置过期时间为7天，并将用户令牌信息存储到Redis，同时登记到用户会话索引，
+     * 会话数超出上限时移除最早登录的会话；旧token的注销与新token的写入在一次脚本调用中完成。
+     * token以userId的哈希分桶开头，token键与会话索引同槽；脚本只访问传入的键，旧token属于其他分桶（不同槽）或其他用户时单独注销，
+     * 被移除会话的token键由脚本返回后按槽删除
      *
      * @param userInfoTokenDto 用户信息令牌数据传输对象，包含用户相关信息
+     * @param session          登录设备信息
+     * @param maxSessions      每个用户的会话数上限
+     * @param oldToken         需要注销的旧token，可为空
      */
-    public void saveTokenInfo(UserInfoTokenDto userInfoTokenDto) {
-        // 生成UUID作为token
-        String token = UUID.randomUUID().toString();
+    @SuppressWarnings("unchecked")
+    public void saveTokenInfo(UserInfoTokenDto userInfoTokenDto, UserSessionDto session, int maxSessions, String oldToken) {
+        // 生成 标签.随机串 作为token
+        String token = RedisKeys.newSessionToken(userInfoTokenDto.getUserId());
+        String tokenKey = RedisKeys.token(token);
+        List<String> keys = new ArrayList<>(Arrays.asList(tokenKey, RedisKeys.userTokenIndex(userInfoTokenDto.getUserId())));
+        if (oldToken != null && RedisKeys.slot(RedisKeys.token(oldToken)) != RedisKeys.slot(tokenKey)) {
+            deleteTokenInfo(oldToken);
+            oldToken = null;
+        }
+        if (oldToken != null) {
+            keys.add(RedisKeys.token(oldToken));
+        }
 
         // 设置过期时间：当前时间戳 + 7天的毫秒数
-        userInfoTokenDto.setExpireTime(System.currentTimeMillis() + Constants.REDIS_KEY_EXPIRES_ONE_DAY * 7);
+        userInfoTokenDto.setExpireTime(System.currentTimeMillis() + Constants.REDIS_KEY_EXPIRES_TOKEN);
 
         // 设置token值
         userInfoTokenDto.setToken(token);
 
-        // 将用户令牌信息存储到Redis，key为常量前缀+token，过期时间为7天
-        redisUtils.setex(Constants.REDIS_KEY_TOKEN_WEB + token, userInfoTokenDto, Constants.REDIS_KEY_EXPIRES_ONE_DAY * 7);
+        // 注销旧token并写入新token与会话索引，key为常量前缀+token，过期时间为7天
+        // 返回的token为原始字符串，按字符串反序列化
+        List<?> result = (List<?>) redisUtils.executeScript(SESSION_ROTATE_SCRIPT, (RedisSerializer) RedisSerializer.string(), keys,
+                userInfoTokenDto, token, session, String.valueOf(Constants.REDIS_KEY_EXPIRES_TOKEN), String.valueOf(maxSessions),
+                oldToken == null ? "" : oldToken, userInfoTokenDto.getUserId());
+        if (oldToken != null && Long.valueOf(1).equals(result.get(0))) {
+            deleteTokenInfo(oldToken);
+        }
+        if (result.size() > 1) {
+            redisUtils.delete(result.subList(1, result.size()).stream().map(evicted -> RedisKeys.token((String) evicted))
+                    .toArray(String[]::new));
+        }
     }
 
     /**
      * 根据token获取用户信息
-     * 从Redis缓存中查询指定token对应的用户信息对象
+     * 从Redis缓存中查询指定token对应的用户信息对象，过期时间取自key的剩余时间；Redis不可用时使用本地近端缓存。
+     * 近端缓存直接保存本次反序列化的对象，只在缺失或写入时间超过有效期一半时重新写入，不在每次请求时复制与写入
      *
      * @param token 用户认证令牌
      * @return UserInfoTokenDto 用户信息传输对象，包含用户的基本信息和权限等数据
      */
     public UserInfoTokenDto getTokenInfo(String token) {
-        return (UserInfoTokenDto) redisUtils.get(Constants.REDIS_KEY_TOKEN_WEB + token);
+        List<Object> result;
+        try {
+            result = redisUtils.getWithExpire(RedisKeys.token(token));
+        } catch (DataAccessException e) {
+            // Redis不可用时使用最近成功读取的结果，期间在其他实例注销的token可能仍被接受，直到本地缓存过期
+            UserInfoTokenDto cached = tokenCache.getIfPresent(token);
+            if (cached == null || cached.getExpireTime() < System.currentTimeMillis()) {
+                throw e;
+            }
+            redisCommandMetrics.recordDegraded("token_read");
+            return CopyTools.copy(cached, UserInfoTokenDto.class);
+        }
+        UserInfoTokenDto userInfoTokenDto = (UserInfoTokenDto) result.get(0);
+        Long expire = (Long) result.get(1);
+        if (userInfoTokenDto == null) {
+            tokenCache.invalidate(token);
+            return null;
+        }
+        if (expire != null && expire > 0) {
+            userInfoTokenDto.setExpireTime(System.currentTimeMillis() + expire);
+        }
+        //缓存的是刷新时的副本，调用方修改返回对象（续期、自动登录更新昵称等）不会影响降级时读到的快照
+        OptionalLong age = tokenCacheExpiration.ageOf(token, TimeUnit.MILLISECONDS);
+        if (!age.isPresent() || age.getAsLong() > tokenCacheExpireMillis / 2) {
+            tokenCache.put(token, CopyTools.copy(userInfoTokenDto, UserInfoTokenDto.class));
+        }
+        return userInfoTokenDto;
     }
 
+    /**
+     * 续期token，只重置token与用户会话索引的过期时间，不重写用户信息
+     *
+     * @param userInfoTokenDto 用户信息令牌数据传输对象
+     */
+    public void renewTokenInfo(UserInfoTokenDto userInfoTokenDto) {
+        redisUtils.expireBatch(Arrays.asList(RedisKeys.token(userInfoTokenDto.getToken()),
+                RedisKeys.userTokenIndex(userInfoTokenDto.getUserId())), Constants.REDIS_KEY_EXPIRES_TOKEN);
+        userInfoTokenDto.setExpireTime(System.currentTimeMillis() + Constants.REDIS_KEY_EXPIRES_TOKEN);
+    }
 
     /**
      * 删除指定token的信息
-     * 从Redis中删除以常量REDIS_KEY_TOKEN_WEB为前缀加上传入token组成的键对应的缓存数据
+     * 删除token对应的用户信息，并从用户会话索引中移除
      *
      * @param token 需要删除的token字符串，用于构建Redis中的键名
      */
     public void deleteTokenInfo(String token) {
-        redisUtils.delete(Constants.REDIS_KEY_TOKEN_WEB + token);
+        tokenCache.invalidate(token);
+        UserInfoTokenDto userInfoTokenDto = (UserInfoTokenDto) redisUtils.get(RedisKeys.token(token));
+        redisUtils.delete(RedisKeys.token(token));
+        if (userInfoTokenDto != null) {
+            redisUtils.hdel(RedisKeys.userTokenIndex(userInfoTokenDto.getUserId()), token);
+        }
+    }
+
+    /**
+     * 删除用户的全部token
+     * 读取会话索引后按槽删除其中的token键，再从索引中移除这些会话；期间新登录的会话保留在索引中
+     *
+     * @param userId 用户id
+     * @return 删除的会话数
+     */
+    public Long deleteUserTokenInfo(String userId) {
+        String indexKey = RedisKeys.userTokenIndex(userId);
+        Set<String> tokens = redisUtils.hkeys(indexKey);
+        if (tokens.isEmpty()) {
+            return 0L;
+        }
+        tokens.forEach(tokenCache::invalidate);
+        redisUtils.delete(tokens.stream().map(RedisKeys::token).toArray(String[]::new));
+        redisUtils.hdel(indexKey, tokens.toArray(new String[0]));
+        return (long) tokens.size();
+    }
+
+    /**
+     * 获取用户当前有效的会话，过期时间按token键的剩余时间计算
+     *
+     * @param userId 用户id
+     * @return 会话设备信息，按登录时间倒序
+     */
+    public List<UserSessionDto> getUserSessionList(String userId) {
+        Map<String, Object> sessionMap = redisUtils.hgetAll(RedisKeys.userTokenIndex(userId));
+        List<String> tokenList = new ArrayList<>(sessionMap.keySet());
+        List<Object> expireList = redisUtils.getExpireBatch(tokenList.stream().map(RedisKeys::token)
+                .collect(Collectors.toList()));
+        long now = System.currentTimeMillis();
+        List<UserSessionDto> sessionList = new ArrayList<>();
+        for (int i = 0; i < tokenList.size(); i++) {
+            Long expire = (Long) expireList.get(i);
+            if (expire == null || expire <= 0) {
+                continue;
+            }
+            UserSessionDto session = (UserSessionDto) sessionMap.get(tokenList.get(i));
+            session.setExpireTime(now + expire);
+            sessionList.add(session);
+        }
+        sessionList.sort(Comparator.comparing(UserSessionDto::getLoginTime).reversed());
+        return sessionList;
+    }
+
+    /**
+     * 保存当前实例的慢SQL统计
+     * 以应用名为key、实例为field存入hash，整体保留10分钟，停止上报的实例随key过期清理
+     *
+     * @param report 慢SQL统计
+     */
+    public void saveSlowSqlReport(SlowSqlReportDto report) {
+        redisUtils.hset(Constants.REDIS_KEY_SLOW_SQL + report.getAppName(), report.getInstance(), report,
+                Constants.REDIS_KEY_EXPIRES_ONE_MIN * 10);
+    }
+
+    /**
+     * 获取应用下各实例上报的慢SQL统计
+     *
+     * @param appName 应用名
+     * @return 各实例的统计
+     */
+    public List<SlowSqlReportDto> getSlowSqlReportList(String appName) {
+        return redisUtils.hvals(Constants.REDIS_KEY_SLOW_SQL + appName);
+    }
+
+    /**
+     * 保存当前实例的热点key统计，整体保留1分钟，停止上报的实例随key过期清理
+     *
+     * @param report 热点key统计
+     */
+    public void saveHotKeyReport(HotKeyReportDto report) {
+        redisUtils.hset(Constants.REDIS_KEY_HOT_KEY + report.getAppName(), report.getInstance(), report,
+                Constants.REDIS_KEY_EXPIRES_ONE_MIN);
+    }
+
+    /**
+     * 获取应用下各实例上报的热点key统计
+     *
+     * @param appName 应用名
+     * @return 各实例的统计
+     */
+    public List<HotKeyReportDto> getHotKeyReportList(String appName) {
+        return redisUtils.hvals(Constants.REDIS_KEY_HOT_KEY + appName);
+    }
+
+    /**
+     * 保存调用链到应用的定长列表，最新的在前，整体保留1天
+     *
+     * @param trace   调用链
+     * @param maxSize 列表长度上限
+     */
+    public void saveTrace(TraceDto trace, int maxSize) {
+        redisUtils.lpushTrim(Constants.REDIS_KEY_TRACE + trace.getAppName(), trace, maxSize, Constants.REDIS_KEY_EXPIRES_ONE_DAY);
+    }
+
+    /**
+     * 获取应用最近的调用链，最新的在前
+     *
+     * @param appName 应用名
+     * @return 调用链列表
+     */
+    public List<TraceDto> getTraceList(String appName) {
+        return redisUtils.getQueueList(Constants.REDIS_KEY_TRACE + appName);
+    }
+
+    /**
+     * 保存批量导入任务进度，保留1天
+     *
+     * @param task 导入任务
+     */
+    public void saveImportTask(ImportTaskDto task) {
+        redisUtils.setex(Constants.REDIS_KEY_IMPORT_TASK + task.getTaskId(), task, Constants.REDIS_KEY_EXPIRES_ONE_DAY);
+    }
+
+    /**
+     * 获取批量导入任务进度
+     *
+     * @param taskId 任务id
+     * @return 导入任务，不存在或已过期返回null
+     */
+    public ImportTaskDto getImportTask(String taskId) {
+        return (ImportTaskDto) redisUtils.get(Constants.REDIS_KEY_IMPORT_TASK + taskId);
+    }
+
+    public void deleteImportTask(String taskId) {
+        redisUtils.delete(Constants.REDIS_KEY_IMPORT_TASK + taskId);
+    }
+
+    /**
+     * 批量记录用户当日活跃，一次脚本调用写入整批，首次出现的用户分配稠密序号并计入当日新用户
+     * 活跃统计的键都带 {analytics} 标签，各用户的序号分桶与按日数据同槽，可一并声明在 KEYS 中
+     *
+     * @param userIds      用户id
+     * @param day          日期 yyyyMMdd
+     * @param expireMillis 按日数据的保留时间
+     * @return 本批新分配序号的用户数
+     */
+    public Long recordActiveUsers(Collection<String> userIds, String day, long expireMillis) {
+        List<String> keys = new ArrayList<>(userIds.size() + 4);
+        keys.add(RedisKeys.analyticsUserIndexSeq());
+        keys.add(RedisKeys.analyticsActive(day));
+        keys.add(RedisKeys.analyticsNew(day));
+        keys.add(RedisKeys.analyticsUnique(day));
+        Object[] args = new Object[userIds.size() + 1];
+        args[0] = String.valueOf(expireMillis / 1000);
+        int i = 1;
+        for (String userId : userIds) {
+            keys.add(RedisKeys.analyticsUserIndex(userId));
+            args[i++] = userId;
+        }
+        return (Long) redisUtils.executeScript(ANALYTICS_RECORD_ACTIVE_SCRIPT, keys, args);
+    }
+
+    /**
+     * 多个位图按位运算（AND/OR）后计数，单个位图直接计数
+     *
+     * @param operation  AND 或 OR
+     * @param bitmapKeys 位图键
+     * @return 精确人数
+     */
+    public long countBitmap(String operation, List<String> bitmapKeys) {
+        List<String> keys = new ArrayList<>(bitmapKeys.size() + 1);
+        keys.add(RedisKeys.analyticsTemp());
+        keys.addAll(bitmapKeys);
+        Long count = (Long) redisUtils.executeScript(ANALYTICS_BITOP_COUNT_SCRIPT, keys, operation);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * 多日 HyperLogLog 合并后的近似人数
+     */
+    public long countUnique(List<String> uniqueKeys) {
+        return redisUtils.pfcount(uniqueKeys);
+    }
+
+    /**
+     * 已分配序号的用户数，即有过活跃记录的用户总数
+     */
+    public long getIndexedUserCount() {
+        Object count = redisUtils.get(RedisKeys.analyticsUserIndexSeq());
+        return count == null ? 0 : ((Number) count).longValue();
+    }
+
+    /**
+     * 按字段增减用户看板汇总值，一次调用内的各字段原子生效
+     *
+     * @param deltas 字段 -> 增量
+     */
+    public void incrementUserRollup(Map<String, Long> deltas) {
+        redisUtils.executeScript(DASHBOARD_ROLLUP_INCR_SCRIPT, Collections.singletonList(RedisKeys.dashboardUserRollup()), toScriptArgs(deltas));
+    }
+
+    /**
+     * 以对账结果整体替换用户看板汇总
+     *
+     * @param values 字段 -> 值
+     */
+    public void replaceUserRollup(Map<String, Long> values) {
+        redisUtils.executeScript(DASHBOARD_ROLLUP_REPLACE_SCRIPT, Collections.singletonList(RedisKeys.dashboardUserRollup()), toScriptArgs(values));
+    }
+
+    /**
+     * 读取用户看板汇总
+     *
+     * @return 字段 -> 值，尚无数据时为空
+     */
+    public Map<String, Object> getUserRollup() {
+        return redisUtils.hgetAll(RedisKeys.dashboardUserRollup());
+    }
+
+    /**
+     * 获取看板汇总对账锁，到期自动释放
+     *
+     * @param expireMillis 锁的有效期
+     * @return 锁标识，用于释放；锁已被占用时为null
+     */
+    public Long tryLockUserRollupReconcile(long expireMillis) {
+        long lockId = ThreadLocalRandom.current().nextLong(Long.MAX_VALUE);
+        return redisUtils.setnx(RedisKeys.dashboardReconcileLock(), lockId, expireMillis) ? lockId : null;
+    }
+
+    /**
+     * 释放看板汇总对账锁，锁已过期并被其他实例获取时不删除
+     *
+     * @param lockId 获取锁时返回的标识
+     */
+    public void unlockUserRollupReconcile(long lockId) {
+        redisUtils.executeScript(LOCK_RELEASE_SCRIPT, Collections.singletonList(RedisKeys.dashboardReconcileLock()), String.valueOf(lockId));
+    }
+
+    private static Object[] toScriptArgs(Map<String, Long> values) {
+        Object[] args = new Object[values.size() * 2];
+        int i = 0;
+        for (Map.Entry<String, Long> entry : values.entrySet()) {
+            args[i++] = entry.getKey();
+            args[i++] = String.valueOf(entry.getValue());
+        }
+        return args;
     }
 }
@@ -0,0 +1,89 @@
+package com.sakury.component;
+
+import com.sakury.entity.enums.UserInfoFieldSetEnum;
+import com.sakury.entity.po.UserInfo;
+import com.sakury.service.UserInfoService;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 请求内的用户信息批量加载器
+ * load 只登记userId并返回延迟结果，首次取值时把已登记的userId合并为一次批量查询；
+ * 结果在本次请求内复用，同一userId不会重复查询。
+ * 例如渲染列表时先对每一项 load 作者，再逐个 get，整页只产生一次缓存批量读和至多一次IN查询。
+ * 请求作用域，只能在处理请求的线程内使用
+ */
+@Component
+@RequestScope
+public class UserInfoBatchLoader {
+
+    @Resource
+    private UserInfoService userInfoService;
+
+    private final Map<UserInfoFieldSetEnum, Set<String>> pendingMap = new EnumMap<>(UserInfoFieldSetEnum.class);
+
+    private final Map<UserInfoFieldSetEnum, Map<String, UserInfo>> loadedMap = new EnumMap<>(UserInfoFieldSetEnum.class);
+
+    /**
+     * 登记按卡片字段加载的用户
+     *
+     * @param userId 用户id
+     * @return 延迟结果，用户不存在时取值为null
+     */
+    public Supplier<UserInfo> load(String userId) {
+        return load(userId, UserInfoFieldSetEnum.CARD);
+    }
+
+    /**
+     * 登记待加载的用户
+     *
+     * @param userId   用户id
+     * @param fieldSet 字段集
+     * @return 延迟结果，用户不存在时取值为null
+     */
+    public Supplier<UserInfo> load(String userId, UserInfoFieldSetEnum fieldSet) {
+        Map<String, UserInfo> loaded = loadedMap.computeIfAbsent(fieldSet, key -> new HashMap<>());
+        if (!loaded.containsKey(userId)) {
+            pendingMap.computeIfAbsent(fieldSet, key -> new LinkedHashSet<>()).add(userId);
+        }
+        return () -> {
+            dispatch(fieldSet);
+            return loaded.get(userId);
+        };
+    }
+
+    /**
+     * 立即加载一组用户，按传入顺序返回，不存在的忽略
+     */
+    public List<UserInfo> loadMany(Collection<String> userIds, UserInfoFieldSetEnum fieldSet) {
+        List<Supplier<UserInfo>> suppliers = userIds.stream().map(userId -> load(userId, fieldSet)).collect(Collectors.toList());
+        return suppliers.stream().map(Supplier::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    /**
+     * 把已登记但未加载的userId合并为一次批量查询
+     */
+    public void dispatch(UserInfoFieldSetEnum fieldSet) {
+        Set<String> pending = pendingMap.remove(fieldSet);
+        if (pending == null || pending.isEmpty()) {
+            return;
+        }
+        Map<String, UserInfo> loaded = loadedMap.get(fieldSet);
+        //不存在的用户记为null，本次请求内不再查询
+        pending.forEach(userId -> loaded.put(userId, null));
+        userInfoService.getUserInfoByUserIds(new ArrayList<>(pending), fieldSet).forEach(userInfo -> loaded.put(userInfo.getUserId(), userInfo));
+    }
+}
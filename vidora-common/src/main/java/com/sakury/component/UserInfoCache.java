@@ -0,0 +1,331 @@
+package com.sakury.component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sakury.entity.constants.Constants;
+import com.sakury.entity.enums.UserInfoFieldSetEnum;
+import com.sakury.entity.po.UserInfo;
+import com.sakury.entity.query.UserInfoQuery;
+import com.sakury.mappers.UserInfoMapper;
+import com.sakury.redis.RedisKeys;
+import com.sakury.redis.RedisUtils;
+import com.sakury.utils.StringTools;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 用户信息两级缓存（本地Caffeine + Redis），按 userId 与字段集缓存，email、nickName 另存到 userId 的映射
+ * <p>
+ * 本地未命中时借助 Caffeine 的原子加载，同一key在本实例内只有一个线程回源，其余线程等待其结果；
+ * Redis过期时间附加随机抖动，避免同时写入的key同时过期；不存在的记录写入短期空值，防止反复穿透到数据库。
+ * 数据变更后删除Redis中的相关key，并通过频道通知各实例清除本地缓存。
+ * 另为每个用户及整张表维护数据版本，变更时重新生成，供条件请求作为ETag，无需读取数据即可判断是否变化
+ */
+@Component("userInfoCache")
+public class UserInfoCache implements MessageListener {
+
+    /**
+     * 空值占位，userId、email、nickName 都不会是空串
+     */
+    private static final String NULL_VALUE = "";
+
+    private static final String TABLE_VERSION_KEY = RedisKeys.userInfoTableVersion();
+
+    private static final int VERSION_RANDOM_LENGTH = 6;
+
+    @Resource
+    private UserInfoMapper<UserInfo, UserInfoQuery> userInfoMapper;
+
+    @Resource
+    private RedisUtils<Object> redisUtils;
+
+    @Resource
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Resource
+    private RedisMessageListenerContainer container;
+
+    @Value("${user.cache.expire-millis:600000}")
+    private long expireMillis;
+
+    @Value("${user.cache.jitter-ratio:0.1}")
+    private double jitterRatio;
+
+    @Value("${user.cache.null-expire-millis:30000}")
+    private long nullExpireMillis;
+
+    @Value("${user.cache.local-expire-millis:5000}")
+    private long localExpireMillis;
+
+    @Value("${user.cache.local-max-size:10000}")
+    private long localMaxSize;
+
+    @Value("${user.lookup.chunk-size:200}")
+    private int lookupChunkSize;
+
+    private Cache<String, Object> localCache;
+
+    @PostConstruct
+    public void init() {
+        localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localExpireMillis, TimeUnit.MILLISECONDS)
+                .build();
+        container.addMessageListener(this, new ChannelTopic(Constants.REDIS_CHANNEL_USER_INFO_EVICT));
+    }
+
+    /**
+     * 根据userId获取
+     *
+     * @param userId   用户id
+     * @param fieldSet 字段集
+     * @return 用户信息，不存在返回null
+     */
+    public UserInfo get(String userId, UserInfoFieldSetEnum fieldSet) {
+        Object value = localCache.get(getInfoKey(userId, fieldSet), key -> {
+            Object cached = redisUtils.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            UserInfo userInfo = userInfoMapper.selectByUserId(userId, fieldSet);
+            return save(key, userInfo);
+        });
+        return value instanceof UserInfo ? (UserInfo) value : null;
+    }
+
+    /**
+     * 根据email获取，先解析到userId再按userId读取
+     */
+    public UserInfo getByEmail(String email, UserInfoFieldSetEnum fieldSet) {
+        return getByMapping(getEmailKey(email), fieldSet, () -> userInfoMapper.selectByEmail(email, fieldSet));
+    }
+
+    /**
+     * 根据nickName获取，先解析到userId再按userId读取
+     */
+    public UserInfo getByNickName(String nickName, UserInfoFieldSetEnum fieldSet) {
+        return getByMapping(getNickNameKey(nickName), fieldSet, () -> userInfoMapper.selectByNickName(nickName, fieldSet));
+    }
+
+    /**
+     * 根据userId批量获取：本地 → Redis批量读 → 分批IN查询，回源结果批量回填两级缓存
+     *
+     * @param userIds  用户id
+     * @param fieldSet 字段集
+     * @return 按传入顺序返回，重复的只返回一次，不存在的忽略
+     */
+    public List<UserInfo> getAll(List<String> userIds, UserInfoFieldSetEnum fieldSet) {
+        List<String> distinctIds = new ArrayList<>(new LinkedHashSet<>(userIds));
+        List<String> keys = distinctIds.stream().map(userId -> getInfoKey(userId, fieldSet)).collect(Collectors.toList());
+        Map<String, Object> valueMap = new HashMap<>(localCache.getAllPresent(keys));
+
+        List<String> redisKeys = keys.stream().filter(key -> !valueMap.containsKey(key)).collect(Collectors.toList());
+        if (!redisKeys.isEmpty()) {
+            List<Object> redisValues = redisUtils.multiGet(redisKeys);
+            for (int i = 0; i < redisKeys.size(); i++) {
+                if (redisValues.get(i) != null) {
+                    valueMap.put(redisKeys.get(i), redisValues.get(i));
+                    localCache.put(redisKeys.get(i), redisValues.get(i));
+                }
+            }
+        }
+
+        List<String> missIds = distinctIds.stream().filter(userId -> !valueMap.containsKey(getInfoKey(userId, fieldSet)))
+                .collect(Collectors.toList());
+        if (!missIds.isEmpty()) {
+            Map<String, Object> loadMap = new HashMap<>();
+            for (int i = 0; i < missIds.size(); i += lookupChunkSize) {
+                userInfoMapper.selectByUserIds(missIds.subList(i, Math.min(i + lookupChunkSize, missIds.size())), fieldSet)
+                        .forEach(userInfo -> loadMap.put(getInfoKey(userInfo.getUserId(), fieldSet), userInfo));
+            }
+            Map<String, Object> nullMap = new HashMap<>();
+            missIds.stream().map(userId -> getInfoKey(userId, fieldSet)).filter(key -> !loadMap.containsKey(key))
+                    .forEach(key -> nullMap.put(key, NULL_VALUE));
+            if (!loadMap.isEmpty()) {
+                redisUtils.setexBatch(loadMap, withJitter(expireMillis));
+            }
+            if (!nullMap.isEmpty()) {
+                redisUtils.setexBatch(nullMap, nullExpireMillis);
+            }
+            valueMap.putAll(loadMap);
+            valueMap.putAll(nullMap);
+            localCache.putAll(loadMap);
+            localCache.putAll(nullMap);
+        }
+        return keys.stream().map(valueMap::get).filter(value -> value instanceof UserInfo).map(value -> (UserInfo) value)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 获取用户的数据版本，用户信息变更后改变
+     *
+     * @param userId 用户id
+     * @return 版本号
+     */
+    public String getVersion(String userId) {
+        return getVersionByKey(getVersionKey(userId));
+    }
+
+    /**
+     * 获取用户表的数据版本，任一用户变更后改变，用于列表查询
+     *
+     * @return 版本号
+     */
+    public String getTableVersion() {
+        return getVersionByKey(TABLE_VERSION_KEY);
+    }
+
+    /**
+     * 数据变更后清除缓存
+     * 传入变更前后的用户信息，清除其userId下全部字段集以及email、nickName映射，为空的字段跳过
+     */
+    public void evict(UserInfo... userInfos) {
+        evict(Arrays.asList(userInfos));
+    }
+
+    public void evict(Collection<UserInfo> userInfoList) {
+        Set<String> keys = new LinkedHashSet<>();
+        Map<String, Object> versionMap = new HashMap<>();
+        for (UserInfo userInfo : userInfoList) {
+            if (userInfo == null) {
+                continue;
+            }
+            if (userInfo.getUserId() != null) {
+                for (UserInfoFieldSetEnum fieldSet : UserInfoFieldSetEnum.values()) {
+                    keys.add(getInfoKey(userInfo.getUserId(), fieldSet));
+                }
+                versionMap.put(getVersionKey(userInfo.getUserId()), newVersion());
+            }
+            if (userInfo.getEmail() != null) {
+                keys.add(getEmailKey(userInfo.getEmail()));
+            }
+            if (userInfo.getNickName() != null) {
+                keys.add(getNickNameKey(userInfo.getNickName()));
+            }
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+        versionMap.put(TABLE_VERSION_KEY, newVersion());
+        List<String> deleteKeys = new ArrayList<>(keys);
+        keys.addAll(versionMap.keySet());
+        //先删数据再换版本，读到新版本的请求一定读到新数据，删除、换版本与通知在一次往返内按序执行
+        redisUtils.deleteSetexPublish(deleteKeys, versionMap, Constants.REDIS_KEY_EXPIRES_ONE_DAY,
+                Constants.REDIS_CHANNEL_USER_INFO_EVICT, new ArrayList<>(keys));
+        localCache.invalidateAll(keys);
+    }
+
+    /**
+     * 其他实例的数据变更通知，清除本地缓存与热点key副本
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object keys = redisTemplate.getValueSerializer().deserialize(message.getBody());
+        if (keys instanceof Collection) {
+            localCache.invalidateAll((Collection<?>) keys);
+            redisUtils.evictHotKeyReplica((Collection<?>) keys);
+        }
+    }
+
+    private UserInfo getByMapping(String mappingKey, UserInfoFieldSetEnum fieldSet, Supplier<UserInfo> loader) {
+        //本线程回源时直接得到整行，不需要再按userId读取
+        UserInfo[] loaded = new UserInfo[1];
+        Object userId = localCache.get(mappingKey, key -> {
+            Object cached = redisUtils.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            UserInfo userInfo = loader.get();
+            if (userInfo == null) {
+                return save(key, null);
+            }
+            save(getInfoKey(userInfo.getUserId(), fieldSet), userInfo);
+            loaded[0] = userInfo;
+            return save(key, userInfo.getUserId());
+        });
+        if (loaded[0] != null) {
+            localCache.put(getInfoKey(loaded[0].getUserId(), fieldSet), loaded[0]);
+            return loaded[0];
+        }
+        return NULL_VALUE.equals(userId) ? null : get((String) userId, fieldSet);
+    }
+
+    /**
+     * 读取版本，不存在时生成；并发生成时以先写入的为准
+     */
+    private String getVersionByKey(String versionKey) {
+        return (String) localCache.get(versionKey, key -> {
+            Object version = redisUtils.get(key);
+            if (version != null) {
+                return version;
+            }
+            String newVersion = newVersion();
+            if (redisUtils.setnx(key, newVersion, Constants.REDIS_KEY_EXPIRES_ONE_DAY)) {
+                return newVersion;
+            }
+            version = redisUtils.get(key);
+            return version == null ? newVersion : version;
+        });
+    }
+
+    /**
+     * 版本号由时间与随机数组成，版本key过期或丢失后重新生成的值不会与旧值重复
+     */
+    private String newVersion() {
+        return Long.toString(System.currentTimeMillis(), 36) + StringTools.getRandomString(VERSION_RANDOM_LENGTH);
+    }
+
+    /**
+     * 写入Redis，null写为短期空值
+     *
+     * @return 写入的值，供本地缓存保存
+     */
+    private Object save(String key, Object value) {
+        if (value == null) {
+            redisUtils.setex(key, NULL_VALUE, nullExpireMillis);
+            return NULL_VALUE;
+        }
+        redisUtils.setex(key, value, withJitter(expireMillis));
+        return value;
+    }
+
+    private long withJitter(long millis) {
+        return millis + ThreadLocalRandom.current().nextLong((long) (millis * jitterRatio) + 1);
+    }
+
+    private String getInfoKey(String userId, UserInfoFieldSetEnum fieldSet) {
+        return RedisKeys.userInfo(userId, fieldSet);
+    }
+
+    private String getVersionKey(String userId) {
+        return RedisKeys.userInfoVersion(userId);
+    }
+
+    private String getEmailKey(String email) {
+        return RedisKeys.userInfoEmail(email);
+    }
+
+    private String getNickNameKey(String nickName) {
+        return RedisKeys.userInfoNickName(nickName);
+    }
+}
@@ -0,0 +1,99 @@
+package com.sakury.concurrency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@ConditionalOnProperty(name = "concurrency-limit.enabled", havingValue = "true")
+public class ConcurrencyLimitConfig {
+
+    public static final String METER_NAME = "vidora.concurrency";
+
+    @Value("${concurrency-limit.groups:}")
+    private String[] groups;
+
+    @Value("${concurrency-limit.initial-limit:20}")
+    private int initialLimit;
+
+    @Value("${concurrency-limit.min-limit:4}")
+    private int minLimit;
+
+    @Value("${concurrency-limit.max-limit:100}")
+    private int maxLimit;
+
+    @Value("${concurrency-limit.max-limits:}")
+    private String[] maxLimits;
+
+    @Value("${concurrency-limit.tolerance:1.5}")
+    private double tolerance;
+
+    @Value("${concurrency-limit.smoothing:0.2}")
+    private double smoothing;
+
+    @Value("${concurrency-limit.window-millis:1000}")
+    private long windowMillis;
+
+    @Value("${concurrency-limit.window-min-samples:10}")
+    private int windowMinSamples;
+
+    @Value("${concurrency-limit.long-window:60}")
+    private int longWindow;
+
+    /**
+     * 注册并发限制过滤器，排在接口耗时与调用链过滤器之前，被拒绝的请求不进入后续处理
+     *
+     * @param meterRegistry 指标注册中心
+     * @param objectMapper  输出拒绝响应
+     * @return 过滤器注册对象
+     */
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        Map<String, Integer> groupMaxLimits = new HashMap<>();
+        for (String item : maxLimits) {
+            String[] parts = item.trim().split(":");
+            groupMaxLimits.put(parts[0], Integer.parseInt(parts[1]));
+        }
+        List<ConcurrencyLimitFilter.Group> groupList = new ArrayList<>();
+        for (String item : groups) {
+            int index = item.indexOf(':');
+            String name = item.substring(0, index).trim();
+            String[] patterns = item.substring(index + 1).trim().split("\\|");
+            GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(name, initialLimit, minLimit,
+                    groupMaxLimits.getOrDefault(name, maxLimit), tolerance, smoothing, windowMillis, windowMinSamples, longWindow);
+            Gauge.builder(METER_NAME + ".limit", limiter, GradientConcurrencyLimiter::getLimit)
+                    .description("接口分组当前并发上限")
+                    .tag("group", name)
+                    .register(meterRegistry);
+            Gauge.builder(METER_NAME + ".inflight", limiter, GradientConcurrencyLimiter::getInflight)
+                    .description("接口分组进行中的请求数")
+                    .tag("group", name)
+                    .register(meterRegistry);
+            Gauge.builder(METER_NAME + ".rtt", limiter, GradientConcurrencyLimiter::getLongRttMillis)
+                    .description("接口分组长期平均耗时(毫秒)")
+                    .tag("group", name)
+                    .register(meterRegistry);
+            Counter rejected = Counter.builder(METER_NAME + ".rejected")
+                    .description("超出并发上限被拒绝的请求数")
+                    .tag("group", name)
+                    .register(meterRegistry);
+            groupList.add(new ConcurrencyLimitFilter.Group(name, patterns, limiter, rejected));
+        }
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(new ConcurrencyLimitFilter(groupList, objectMapper));
+        registration.addUrlPatterns("/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+}
@@ -0,0 +1,135 @@
+package com.sakury.concurrency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sakury.entity.enums.ResponseCodeEnum;
+import com.sakury.entity.vo.ResponseVO;
+import io.micrometer.core.instrument.Counter;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 接口分组并发限制过滤器
+ * 按路径找到所属分组，组内并发达到当前上限时直接返回 code 503，不再占用请求线程等待；未匹配任何分组的请求不受限制
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    /**
+     * 路径与分组的对应关系缓存上限，超出后不再缓存，避免随机路径占满内存
+     */
+    private static final int MAX_CACHED_PATHS = 1024;
+
+    private static final Group NO_GROUP = new Group(null, null, null, null);
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final List<Group> groups;
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Group> pathGroups = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimitFilter(List<Group> groups, ObjectMapper objectMapper) {
+        this.groups = groups;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Group group = findGroup(request.getRequestURI().substring(request.getContextPath().length()));
+        if (group == NO_GROUP) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        GradientConcurrencyLimiter limiter = group.limiter;
+        if (!limiter.tryAcquire()) {
+            group.rejected.increment();
+            reject(response);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limiter.release(start);
+        }
+    }
+
+    private Group findGroup(String path) {
+        Group group = pathGroups.get(path);
+        if (group != null) {
+            return group;
+        }
+        group = NO_GROUP;
+        for (Group item : groups) {
+            if (item.matches(pathMatcher, path)) {
+                group = item;
+                break;
+            }
+        }
+        if (pathGroups.size() < MAX_CACHED_PATHS) {
+            pathGroups.put(path, group);
+        }
+        return group;
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        ResponseVO<Object> responseVO = new ResponseVO<>();
+        responseVO.setStatus("error");
+        responseVO.setCode(ResponseCodeEnum.CODE_503.getCode());
+        responseVO.setInfo(ResponseCodeEnum.CODE_503.getMsg());
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), responseVO);
+    }
+
+    /**
+     * 接口分组
+     */
+    public static class Group {
+
+        private final String name;
+
+        private final String[] patterns;
+
+        private final GradientConcurrencyLimiter limiter;
+
+        private final Counter rejected;
+
+        public Group(String name, String[] patterns, GradientConcurrencyLimiter limiter, Counter rejected) {
+            this.name = name;
+            this.patterns = patterns;
+            this.limiter = limiter;
+            this.rejected = rejected;
+        }
+
+        private boolean matches(AntPathMatcher pathMatcher, String path) {
+            for (String pattern : patterns) {
+                if (pathMatcher.match(pattern, path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public GradientConcurrencyLimiter getLimiter() {
+            return limiter;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.sakury.concurrency;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 按耗时梯度自适应调整的并发上限
+ * <p>
+ * 每个统计窗口（至少 window-millis 且至少 window-min-samples 个请求）结束时，以窗口内平均耗时作为短期耗时，
+ * 与指数平滑的长期耗时比较：gradient = clamp(tolerance * 长期耗时 / 短期耗时, 0.5, 1)，
+ * 新上限 = 上限 * gradient + sqrt(上限)，再按 smoothing 平滑并限制在 [min-limit, max-limit]。
+ * 耗时稳定时上限按 sqrt(上限) 缓慢增加，耗时超过长期值的 tolerance 倍后按比例收缩；
+ * 窗口内最大并发不到上限一半时说明并发没有受限，不调整
+ * <p>
+ * 每个请求结束时只向当前窗口无锁累加，窗口结束时由一个线程 tryLock 换上新窗口并计算上限，其余线程不等待；
+ * 换窗口瞬间仍写入旧窗口的少量样本会被丢弃，不影响平均耗时
+ */
+public class GradientConcurrencyLimiter {
+
+    private final String name;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double tolerance;
+
+    private final double smoothing;
+
+    private final long windowNanos;
+
+    private final int windowMinSamples;
+
+    /**
+     * 长期耗时的平滑系数，约等于最近 long-window 个窗口的平均
+     */
+    private final double longRttFactor;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile int limit;
+
+    private double estimatedLimit;
+
+    private volatile double longRtt;
+
+    private volatile Window window = new Window(System.nanoTime());
+
+    /**
+     * @param name             分组名
+     * @param initialLimit     初始并发上限
+     * @param minLimit         并发上限下限
+     * @param maxLimit         并发上限上限
+     * @param tolerance        短期耗时超过长期耗时该倍数后开始收缩
+     * @param smoothing        每个窗口向新上限靠拢的比例 0~1
+     * @param windowMillis     统计窗口最短时长(毫秒)
+     * @param windowMinSamples 统计窗口最少请求数
+     * @param longWindow       长期耗时覆盖的窗口数
+     */
+    public GradientConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing,
+                                      long windowMillis, int windowMinSamples, int longWindow) {
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = Math.max(minLimit, maxLimit);
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.windowMinSamples = windowMinSamples;
+        this.longRttFactor = 2.0 / (longWindow + 1);
+        this.estimatedLimit = Math.min(this.maxLimit, Math.max(minLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * 申请一个并发名额，获准后须在请求结束时调用 release
+     *
+     * @return false 表示已达到当前上限
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 归还名额并记录本次请求耗时
+     *
+     * @param startNanos 获准时的 System.nanoTime()
+     */
+    public void release(long startNanos) {
+        long now = System.nanoTime();
+        int current = inflight.getAndDecrement();
+        sample(now - startNanos, current, now);
+    }
+
+    private void sample(long rttNanos, int currentInflight, long now) {
+        Window current = window;
+        current.rttSum.add(rttNanos);
+        current.maxInflight.accumulate(currentInflight);
+        int samples = current.samples.incrementAndGet();
+        if (samples < windowMinSamples || now - current.start < windowNanos) {
+            return;
+        }
+        //其他线程正在结束窗口时直接返回，不排队等待
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            if (window != current) {
+                return;
+            }
+            window = new Window(now);
+            update((double) current.rttSum.sum() / current.samples.get(), (int) current.maxInflight.get());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void update(double shortRtt, int maxInflight) {
+        if (longRtt == 0) {
+            longRtt = shortRtt;
+        } else {
+            longRtt = longRtt * (1 - longRttFactor) + shortRtt * longRttFactor;
+        }
+        //负载下降后长期耗时明显高于短期耗时，加快回落，避免恢复期间一直维持在高位
+        if (longRtt > shortRtt * 2) {
+            longRtt *= 0.95;
+        }
+        if (maxInflight < estimatedLimit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    /**
+     * 长期耗时(毫秒)
+     */
+    public double getLongRttMillis() {
+        return longRtt / 1_000_000;
+    }
+
+    /**
+     * 一个统计窗口，请求结束时无锁累加
+     */
+    private static class Window {
+
+        private final long start;
+
+        private final LongAdder rttSum = new LongAdder();
+
+        private final AtomicInteger samples = new AtomicInteger();
+
+        private final LongAccumulator maxInflight = new LongAccumulator(Math::max, 0);
+
+        private Window(long start) {
+            this.start = start;
+        }
+    }
+}
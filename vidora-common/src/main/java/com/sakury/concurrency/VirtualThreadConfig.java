@@ -0,0 +1,56 @@
+package com.sakury.concurrency;
+
+import org.apache.coyote.ProtocolHandler;
+import org.apache.tomcat.util.compat.JreCompat;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 虚拟线程模式：Tomcat 为每个请求创建一个虚拟线程，请求内的 MyBatis(JDBC)、Redis 阻塞调用在等待时让出载体线程，
+ * 并发请求数不再受 server.tomcat.threads.max 限制，改由数据库连接池、Redis 隔离舱与接口分组并发限制约束；
+ * Spring MVC 异步请求（管理端流式导出）同样在虚拟线程上执行
+ * <p>
+ * 需要 JDK 21 运行（java21 构建配置），低版本JDK上开启时忽略并继续使用平台线程池
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    private static final String THREAD_NAME_PREFIX = "http-vt-";
+
+    private static final String ASYNC_THREAD_NAME_PREFIX = "mvc-vt-";
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> {
+            if (!JreCompat.isJre21Available()) {
+                logger.warn("当前JDK版本 {} 不支持虚拟线程，继续使用平台线程池", System.getProperty("java.version"));
+                return;
+            }
+            protocolHandler.setExecutor(new VirtualThreadExecutor(THREAD_NAME_PREFIX));
+            logger.info("请求处理使用虚拟线程");
+        };
+    }
+
+    @Bean
+    public WebMvcConfigurer virtualThreadAsyncConfigurer() {
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                if (JreCompat.isJre21Available()) {
+                    configurer.setTaskExecutor(new TaskExecutorAdapter(new VirtualThreadExecutor(ASYNC_THREAD_NAME_PREFIX)));
+                }
+            }
+        };
+    }
+}
@@ -32,10 +32,20 @@ public class Constants {
      */
     public static final Integer REDIS_KEY_EXPIRES_ONE_DAY = 86400000;
 
+    /**
+     * 登录token有效期：7天（单位：毫秒）
+     */
+    public static final Integer REDIS_KEY_EXPIRES_TOKEN = REDIS_KEY_EXPIRES_ONE_DAY * 7;
+
     /**
      * 时间常量：1天（单位：秒）
      */
     public static final Integer TIME_SECOND_DAY = 86400;
+
+    /**
+     * 临时文件目录
+     */
+    public static final String FILE_FOLDER_TEMP = "temp/";
     /**
      * Redis键前缀常量
      */
@@ -51,6 +61,61 @@ public class Constants {
      */
     public static String REDIS_KEY_TOKEN_WEB = REDIS_KEY_PREFIX + "token:web:";
 
+    /**
+     * Redis用户会话索引键前缀，后接userId，hash field 为token，value 为登录设备信息
+     */
+    public static String REDIS_KEY_TOKEN_USER = REDIS_KEY_PREFIX + "token:user:";
+
+    /**
+     * Redis慢SQL统计键前缀，后接应用名，hash field 为实例
+     */
+    public static String REDIS_KEY_SLOW_SQL = REDIS_KEY_PREFIX + "slowSql:";
+
+    /**
+     * Redis热点key统计键前缀，后接应用名，hash field 为实例
+     */
+    public static String REDIS_KEY_HOT_KEY = REDIS_KEY_PREFIX + "hotKey:";
+
+    /**
+     * Redis调用链列表键前缀，后接应用名
+     */
+    public static String REDIS_KEY_TRACE = REDIS_KEY_PREFIX + "trace:";
+
+    /**
+     * Redis批量导入任务键前缀
+     */
+    public static String REDIS_KEY_IMPORT_TASK = REDIS_KEY_PREFIX + "importTask:";
+
+    /**
+     * Redis用户信息缓存键前缀，后接 字段集:userId，或 email:邮箱、nickName:昵称（值为userId）、version:userId（数据版本）
+     */
+    public static String REDIS_KEY_USER_INFO = REDIS_KEY_PREFIX + "userInfo:";
+
+    /**
+     * 用户信息缓存失效通知频道，消息为需清除的key列表
+     */
+    public static String REDIS_CHANNEL_USER_INFO_EVICT = REDIS_KEY_PREFIX + "channel:userInfoEvict";
+
+    /**
+     * Redis已吊销的签名token有序集合，成员为tokenId或 u:userId（该用户此前签发的token全部失效），分值为条目过期时间
+     */
+    public static String REDIS_KEY_TOKEN_REVOKED = REDIS_KEY_PREFIX + "token:revoked";
+
+    /**
+     * 签名token吊销通知频道，消息为 成员:过期时间
+     */
+    public static String REDIS_CHANNEL_TOKEN_REVOKE = REDIS_KEY_PREFIX + "channel:tokenRevoke";
+
+    /**
+     * Redis活跃用户统计键前缀，后接 {analytics}: 与 userIndex、active:日期 等
+     */
+    public static String REDIS_KEY_ANALYTICS = REDIS_KEY_PREFIX + "analytics:";
+
+    /**
+     * Redis管理端看板汇总键前缀
+     */
+    public static String REDIS_KEY_DASHBOARD = REDIS_KEY_PREFIX + "dashboard:";
+
     /**
      * Token信息键
      */
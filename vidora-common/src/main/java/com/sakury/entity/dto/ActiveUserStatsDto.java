@@ -0,0 +1,38 @@
+package com.sakury.entity.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+/**
+ * 截至某日的活跃用户数，精确值由位图计数，近似值由 HyperLogLog 计数
+ */
+@Getter
+@Setter
+public class ActiveUserStatsDto implements Serializable {
+    /**
+     * 日期 yyyy-MM-dd
+     */
+    private String date;
+    private Long dau;
+    /**
+     * 截至当日的最近7天
+     */
+    private Long wau;
+    /**
+     * 截至当日的最近30天
+     */
+    private Long mau;
+    private Long approxDau;
+    private Long approxWau;
+    private Long approxMau;
+    /**
+     * 当日首次出现的用户数
+     */
+    private Long newUsers;
+    /**
+     * 有过活跃记录的用户总数
+     */
+    private Long totalUsers;
+}
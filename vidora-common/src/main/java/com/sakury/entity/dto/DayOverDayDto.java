@@ -0,0 +1,40 @@
+package com.sakury.entity.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+/**
+ * 当日与前一日活跃用户对比
+ */
+@Getter
+@Setter
+public class DayOverDayDto implements Serializable {
+    /**
+     * 日期 yyyy-MM-dd
+     */
+    private String date;
+    private Long dau;
+    private Long previousDau;
+    /**
+     * dau - previousDau
+     */
+    private Long change;
+    /**
+     * 相对前一日的变化比例，前一日为0时为null
+     */
+    private Double changeRate;
+    /**
+     * 两日都活跃的用户数
+     */
+    private Long retained;
+    /**
+     * 当日首次出现的用户数
+     */
+    private Long newUsers;
+    /**
+     * 前一日活跃、当日未活跃的用户数
+     */
+    private Long churned;
+}
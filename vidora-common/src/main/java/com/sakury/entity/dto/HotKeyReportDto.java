@@ -0,0 +1,29 @@
+package com.sakury.entity.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 单个应用实例上报的Redis热点key统计
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@Getter
+@Setter
+public class HotKeyReportDto implements Serializable {
+    private String appName;
+    private String instance;
+    /**
+     * 统计窗口(毫秒)
+     */
+    private Long windowMillis;
+    /**
+     * 升级为热点key的QPS阈值
+     */
+    private Double thresholdQps;
+    private Long reportTime;
+    private List<HotKeyStatDto> stats;
+}
@@ -0,0 +1,34 @@
+package com.sakury.entity.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+/**
+ * 单个key在最近一个统计窗口内的访问估算
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@Getter
+@Setter
+public class HotKeyStatDto implements Serializable {
+    private String key;
+    /**
+     * 估算QPS，Count-Min Sketch 只会高估
+     */
+    private Double qps;
+    /**
+     * 是否已升级为热点key，在本地保留副本
+     */
+    private Boolean hot;
+    private Long promoteTime;
+    /**
+     * 升级后本地副本的命中次数
+     */
+    private Long localHitCount;
+    /**
+     * 上报该key的实例数，多实例汇总时累加
+     */
+    private Integer instanceCount;
+}
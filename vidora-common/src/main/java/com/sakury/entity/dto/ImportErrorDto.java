@@ -0,0 +1,29 @@
+package com.sakury.entity.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+/**
+ * 导入失败的行
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@Getter
+@Setter
+public class ImportErrorDto implements Serializable {
+    /**
+     * 行号：CSV为文件行号（含表头），JSON为数组下标+1
+     */
+    private Long rowNumber;
+    private String message;
+
+    public ImportErrorDto() {
+    }
+
+    public ImportErrorDto(Long rowNumber, String message) {
+        this.rowNumber = rowNumber;
+        this.message = message;
+    }
+}
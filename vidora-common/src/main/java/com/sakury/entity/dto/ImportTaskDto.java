@@ -0,0 +1,50 @@
+package com.sakury.entity.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量导入任务进度与结果
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@Getter
+@Setter
+public class ImportTaskDto implements Serializable {
+    private String taskId;
+    private String fileName;
+    private String format;
+    /**
+     * 是否按主键/唯一键存在则更新
+     */
+    private Boolean upsert;
+    private Integer batchSize;
+    /**
+     * 0:排队中 1:导入中 2:已完成 3:导入失败
+     */
+    private Integer status;
+    /**
+     * 已读取行数
+     */
+    private Long totalRows = 0L;
+    private Long successRows = 0L;
+    private Long failedRows = 0L;
+    /**
+     * 已提交的批次数
+     */
+    private Long commitCount = 0L;
+    private Long startTime;
+    private Long endTime;
+    /**
+     * 整体失败原因
+     */
+    private String message;
+    /**
+     * 失败行明细，超出上限后只计数不记录
+     */
+    private List<ImportErrorDto> errors = new ArrayList<>();
+}
@@ -0,0 +1,19 @@
+package com.sakury.entity.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+/**
+ * 某日注册人数
+ */
+@Getter
+@Setter
+public class RegisterDailyCountDto implements Serializable {
+    /**
+     * 日期 yyyyMMdd
+     */
+    private String day;
+    private Long userCount;
+}
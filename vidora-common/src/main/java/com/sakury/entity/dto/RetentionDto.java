@@ -0,0 +1,28 @@
+package com.sakury.entity.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * 同期群留存：某日首次出现的用户在之后第N天仍活跃的人数
+ */
+@Getter
+@Setter
+public class RetentionDto implements Serializable {
+    /**
+     * 同期群日期 yyyy-MM-dd
+     */
+    private String cohortDate;
+    private Long cohortSize;
+    /**
+     * 第N天 -> 留存人数，尚未到达的日期不包含
+     */
+    private Map<Integer, Long> retained;
+    /**
+     * 第N天 -> 留存率
+     */
+    private Map<Integer, Double> rates;
+}
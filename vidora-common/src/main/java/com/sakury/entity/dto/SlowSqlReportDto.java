@@ -0,0 +1,29 @@
+package com.sakury.entity.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 单个应用实例上报的慢SQL统计
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@Getter
+@Setter
+public class SlowSqlReportDto implements Serializable {
+    private String appName;
+    private String instance;
+    /**
+     * 统计窗口(分钟)
+     */
+    private Integer windowMinutes;
+    /**
+     * 慢SQL阈值(毫秒)
+     */
+    private Long thresholdMs;
+    private Long reportTime;
+    private List<SlowSqlStatDto> stats;
+}
@@ -0,0 +1,33 @@
+package com.sakury.entity.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 慢SQL样本
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@Getter
+@Setter
+public class SlowSqlSampleDto implements Serializable {
+    /**
+     * 实际执行的SQL（参数为 ?）
+     */
+    private String sql;
+    /**
+     * 绑定参数的类型与长度，如 String(12)，不含参数值
+     */
+    private List<String> params;
+    /**
+     * 耗时(毫秒)
+     */
+    private Double elapsedMs;
+    /**
+     * 执行时间戳
+     */
+    private Long time;
+}
@@ -0,0 +1,57 @@
+package com.sakury.entity.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SQL 指纹的滚动窗口统计
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@Getter
+@Setter
+public class SlowSqlStatDto implements Serializable {
+    /**
+     * 指纹摘要，便于引用
+     */
+    private String fingerprintId;
+    /**
+     * 映射语句id
+     */
+    private String statementId;
+    /**
+     * 指纹：谓词集合 + 排序
+     */
+    private String fingerprint;
+    /**
+     * 窗口内执行次数
+     */
+    private Long count;
+    /**
+     * 窗口内超过阈值的次数
+     */
+    private Long slowCount;
+    /**
+     * 窗口内总耗时(毫秒)
+     */
+    private Double totalMs;
+    private Double avgMs;
+    private Double maxMs;
+    /**
+     * 近似百分位(毫秒)，按对数分桶取上界
+     */
+    private Double p95Ms;
+    private Double p99Ms;
+    /**
+     * 最近的慢SQL样本
+     */
+    private List<SlowSqlSampleDto> samples;
+    /**
+     * 最近一次慢查询的 EXPLAIN 结果，未开启时为空
+     */
+    private List<Map<String, Object>> explain;
+}
@@ -0,0 +1,37 @@
+package com.sakury.entity.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 单次请求的调用链
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@Getter
+@Setter
+public class TraceDto implements Serializable {
+    private String traceId;
+    private String appName;
+    private String instance;
+    /**
+     * 请求路径模式，如 /account/login
+     */
+    private String uri;
+    private String method;
+    private Integer status;
+    private Long startTime;
+    private Double durationMs;
+    /**
+     * 导出原因 sampled/slow/error
+     */
+    private String reason;
+    /**
+     * 超出片段上限后丢弃的片段数
+     */
+    private Integer droppedSpans;
+    private List<TraceSpanDto> spans;
+}
@@ -0,0 +1,35 @@
+package com.sakury.entity.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+/**
+ * 调用链中的一个片段
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@Getter
+@Setter
+public class TraceSpanDto implements Serializable {
+    private Integer spanId;
+    /**
+     * 父片段id，根片段为 0
+     */
+    private Integer parentId;
+    /**
+     * 类型 http/controller/service/component/mapper/redis
+     */
+    private String kind;
+    private String name;
+    /**
+     * 相对请求开始的偏移(毫秒)
+     */
+    private Double startMs;
+    private Double durationMs;
+    /**
+     * 异常类名，正常结束为空
+     */
+    private String error;
+}
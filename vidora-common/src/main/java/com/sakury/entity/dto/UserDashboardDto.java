@@ -0,0 +1,34 @@
+package com.sakury.entity.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * 用户看板：由预先汇总的数据直接读取
+ */
+@Getter
+@Setter
+public class UserDashboardDto implements Serializable {
+    private Long userCount;
+    /**
+     * 状态 -> 用户数
+     */
+    private Map<Integer, Long> statusCounts;
+    /**
+     * 性别 -> 用户数
+     */
+    private Map<Integer, Long> sexCounts;
+    private Long totalCoinCount;
+    private Long currentCoinCount;
+    /**
+     * 日期 yyyy-MM-dd -> 注册人数，按日期升序
+     */
+    private Map<String, Long> registrations;
+    /**
+     * 最近一次对账时间，尚未对账时为null，此时汇总只包含上线后的增量
+     */
+    private Long reconcileTime;
+}
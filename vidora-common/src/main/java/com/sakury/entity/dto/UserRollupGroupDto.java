@@ -0,0 +1,19 @@
+package com.sakury.entity.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+/**
+ * 按状态、性别分组的用户数与硬币数，看板汇总对账用
+ */
+@Getter
+@Setter
+public class UserRollupGroupDto implements Serializable {
+    private Integer status;
+    private Integer sex;
+    private Long userCount;
+    private Long totalCoinCount;
+    private Long currentCoinCount;
+}
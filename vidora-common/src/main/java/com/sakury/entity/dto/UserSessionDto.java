@@ -0,0 +1,24 @@
+package com.sakury.entity.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+/**
+ * 登录会话的设备信息，存于用户会话索引，不包含token
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@Getter
+@Setter
+public class UserSessionDto implements Serializable {
+    private String ip;
+    private String userAgent;
+    private Long loginTime;
+
+    /**
+     * 过期时间，查询时按token键的剩余时间计算
+     */
+    private Long expireTime;
+}
@@ -5,7 +5,7 @@ import lombok.Getter;
 
 @Getter
 public enum DateTimePatternEnum {
-    YYYY_MM_DD_HH_MM_SS("yyyy-MM-dd HH:mm:ss"), YYYY_MM_DD("yyyy-MM-dd");
+    YYYY_MM_DD_HH_MM_SS("yyyy-MM-dd HH:mm:ss"), YYYY_MM_DD("yyyy-MM-dd"), YYYYMMDDHHMMSS("yyyyMMddHHmmss");
 
     private String pattern;
 
@@ -0,0 +1,29 @@
+package com.sakury.entity.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum ExportFormatEnum {
+    CSV("csv", "text/csv", "CSV文件，首行为表头"),
+    NDJSON("ndjson", "application/x-ndjson", "每行一个JSON对象");
+
+
+    private String type;
+    private String contentType;
+    private String desc;
+
+    ExportFormatEnum(String type, String contentType, String desc) {
+        this.type = type;
+        this.contentType = contentType;
+        this.desc = desc;
+    }
+
+    public static ExportFormatEnum getByType(String type) {
+        for (ExportFormatEnum item : ExportFormatEnum.values()) {
+            if (item.getType().equalsIgnoreCase(type)) {
+                return item;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,34 @@
+package com.sakury.entity.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum ImportFormatEnum {
+    CSV("csv", "CSV文件，首行为表头"),
+    JSON("json", "JSON数组");
+
+
+    private String type;
+    private String desc;
+
+    ImportFormatEnum(String type, String desc) {
+        this.type = type;
+        this.desc = desc;
+    }
+
+    public static ImportFormatEnum getByType(String type) {
+        for (ImportFormatEnum item : ImportFormatEnum.values()) {
+            if (item.getType().equalsIgnoreCase(type)) {
+                return item;
+            }
+        }
+        return null;
+    }
+
+    public static ImportFormatEnum getByFileName(String fileName) {
+        if (fileName == null || !fileName.contains(".")) {
+            return null;
+        }
+        return getByType(fileName.substring(fileName.lastIndexOf('.') + 1));
+    }
+}
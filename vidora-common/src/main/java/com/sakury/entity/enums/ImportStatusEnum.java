@@ -0,0 +1,29 @@
+package com.sakury.entity.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum ImportStatusEnum {
+    WAITING(0, "排队中"),
+    RUNNING(1, "导入中"),
+    FINISHED(2, "已完成"),
+    FAILED(3, "导入失败");
+
+
+    private Integer status;
+    private String desc;
+
+    ImportStatusEnum(Integer status, String desc) {
+        this.status = status;
+        this.desc = desc;
+    }
+
+    public static ImportStatusEnum getByStatus(Integer status) {
+        for (ImportStatusEnum item : ImportStatusEnum.values()) {
+            if (item.getStatus().equals(status)) {
+                return item;
+            }
+        }
+        return null;
+    }
+}
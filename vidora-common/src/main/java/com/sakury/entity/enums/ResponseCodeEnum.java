@@ -9,7 +9,8 @@ public enum ResponseCodeEnum {
     CODE_404(404, "请求地址不存在"),
     CODE_600(600, "请求参数错误"),
     CODE_601(601, "信息已经存在"),
-    CODE_500(500, "服务器返回错误，请联系管理员");
+    CODE_500(500, "服务器返回错误，请联系管理员"),
+    CODE_503(503, "服务繁忙，请稍后重试");
 
     private Integer code;
 
@@ -0,0 +1,39 @@
+package com.sakury.entity.enums;
+
+import lombok.Getter;
+
+/**
+ * 用户信息字段集
+ * 查询列（UserInfoMapper.xml 中的 projection_column_list）与JSON视图一一对应，两处需同步维护；
+ * 密码、最后登录时间/IP不属于任何字段集：后者每次登录都会变化，放入字段集会使登录清除缓存并让列表ETag失效
+ */
+@Getter
+public enum UserInfoFieldSetEnum {
+    CARD(CardView.class, "卡片：用户id、昵称、性别、主题"),
+    LIST(ListView.class, "列表：卡片字段及邮箱、状态、注册时间"),
+    DETAIL(DetailView.class, "详情：除密码、最后登录时间/IP外的全部字段");
+
+
+    private Class<?> view;
+    private String desc;
+
+    UserInfoFieldSetEnum(Class<?> view, String desc) {
+        this.view = view;
+        this.desc = desc;
+    }
+
+    public interface CardView {
+    }
+
+    public interface ListView extends CardView {
+    }
+
+    public interface DetailView extends ListView {
+    }
+
+    /**
+     * 仅内部使用的字段，不对外序列化
+     */
+    public interface InternalView extends DetailView {
+    }
+}
@@ -5,8 +5,11 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.util.Date;
 
 import com.sakury.entity.enums.DateTimePatternEnum;
+import com.sakury.entity.enums.UserInfoFieldSetEnum;
 import com.sakury.utils.DateUtil;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonView;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -25,41 +28,50 @@ public class UserInfo implements Serializable {
     /**
      * 用户id
      */
+    @JsonView(UserInfoFieldSetEnum.CardView.class)
     private String userId;
 
     /**
      * 昵称
      */
+    @JsonView(UserInfoFieldSetEnum.CardView.class)
     private String nickName;
 
     /**
      * 邮箱
      */
+    @JsonView(UserInfoFieldSetEnum.ListView.class)
     private String email;
 
     /**
-     * 密码
+     * 密码，只参与反序列化（导入），任何视图下都不输出
      */
+    @JsonView(UserInfoFieldSetEnum.InternalView.class)
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
 
     /**
      * 0:女 1:男 2:未知
      */
+    @JsonView(UserInfoFieldSetEnum.CardView.class)
     private Integer sex;
 
     /**
      * 出生日期
      */
+    @JsonView(UserInfoFieldSetEnum.DetailView.class)
     private String birthday;
 
     /**
      * 学校
      */
+    @JsonView(UserInfoFieldSetEnum.DetailView.class)
     private String school;
 
     /**
      * 个人简介
      */
+    @JsonView(UserInfoFieldSetEnum.DetailView.class)
     private String personIntroduction;
 
     /**
@@ -67,6 +79,7 @@ public class UserInfo implements Serializable {
      */
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "GMT+8")
     @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    @JsonView(UserInfoFieldSetEnum.ListView.class)
     private Date registerTime;
 
     /**
@@ -74,36 +87,43 @@ public class UserInfo implements Serializable {
      */
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "GMT+8")
     @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    @JsonView(UserInfoFieldSetEnum.InternalView.class)
     private Date lastLoginTime;
 
     /**
      * 最后登录ip
      */
+    @JsonView(UserInfoFieldSetEnum.InternalView.class)
     private String lastLoginIp;
 
     /**
      * 0:禁用 1:正常
      */
+    @JsonView(UserInfoFieldSetEnum.ListView.class)
     private Integer status;
 
     /**
      * 空间公告
      */
+    @JsonView(UserInfoFieldSetEnum.DetailView.class)
     private String noticeInfo;
 
     /**
      * 硬币总数量
      */
+    @JsonView(UserInfoFieldSetEnum.DetailView.class)
     private Integer totalCoinCount;
 
     /**
      * 当前硬币数
      */
+    @JsonView(UserInfoFieldSetEnum.DetailView.class)
     private Integer currentCoinCount;
 
     /**
      * 主题
      */
+    @JsonView(UserInfoFieldSetEnum.CardView.class)
     private Integer theme;
 
 
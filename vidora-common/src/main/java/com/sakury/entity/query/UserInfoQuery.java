@@ -1,5 +1,6 @@
 package com.sakury.entity.query;
 
+import com.sakury.entity.enums.UserInfoFieldSetEnum;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -120,5 +121,9 @@ public class UserInfoQuery extends BaseParam {
      */
     private Integer theme;
 
+    /**
+     * 查询字段集，为空时查询全部列
+     */
+    private UserInfoFieldSetEnum fieldSet;
 
 }
@@ -0,0 +1,27 @@
+package com.sakury.json;
+
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Jackson模块，Spring Boot 会把容器中的 Module 注册到 Spring MVC 使用的 ObjectMapper
+ */
+@Configuration
+@ConditionalOnProperty(name = "json.fast-render.enabled", havingValue = "true", matchIfMissing = true)
+public class JsonConfig {
+
+    @Bean
+    public ResponseJsonModule responseJsonModule() {
+        return new ResponseJsonModule();
+    }
+
+    /**
+     * 为其余Bean（UserInfo、UserInfoTokenDto 等）生成读写属性的字节码，代替反射调用getter/setter
+     */
+    @Bean
+    public AfterburnerModule afterburnerModule() {
+        return new AfterburnerModule();
+    }
+}
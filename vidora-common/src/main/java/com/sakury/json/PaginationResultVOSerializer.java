@@ -0,0 +1,50 @@
+package com.sakury.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.sakury.entity.vo.PaginationResultVO;
+
+import java.io.IOException;
+
+/**
+ * PaginationResultVO 序列化，输出与默认的Bean序列化一致，字段名预先编码；list 元素按实际类型交给Jackson序列化
+ */
+public class PaginationResultVOSerializer extends StdSerializer<PaginationResultVO> {
+
+    private static final SerializedString TOTAL_COUNT = new SerializedString("totalCount");
+
+    private static final SerializedString PAGE_SIZE = new SerializedString("pageSize");
+
+    private static final SerializedString PAGE_NO = new SerializedString("pageNo");
+
+    private static final SerializedString PAGE_TOTAL = new SerializedString("pageTotal");
+
+    private static final SerializedString LIST = new SerializedString("list");
+
+    public PaginationResultVOSerializer() {
+        super(PaginationResultVO.class);
+    }
+
+    @Override
+    public void serialize(PaginationResultVO value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(value);
+        writeNumberField(gen, TOTAL_COUNT, value.getTotalCount());
+        writeNumberField(gen, PAGE_SIZE, value.getPageSize());
+        writeNumberField(gen, PAGE_NO, value.getPageNo());
+        writeNumberField(gen, PAGE_TOTAL, value.getPageTotal());
+        gen.writeFieldName(LIST);
+        provider.defaultSerializeValue(value.getList(), gen);
+        gen.writeEndObject();
+    }
+
+    private static void writeNumberField(JsonGenerator gen, SerializedString name, Integer value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+}
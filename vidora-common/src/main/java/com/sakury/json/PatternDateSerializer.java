@@ -0,0 +1,55 @@
+package com.sakury.json;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.std.DateSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.sakury.utils.DateUtil;
+
+import java.io.IOException;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+
+/**
+ * 带 @JsonFormat(pattern) 的 Date 字段的序列化
+ * Jackson默认实现以 SimpleDateFormat 格式化，并发时每次写入都要克隆一份；这里在字段初始化时确定时区，
+ * 之后使用线程安全的 DateTimeFormatter。未指定pattern的字段仍由Jackson默认实现处理
+ */
+public class PatternDateSerializer extends StdSerializer<Date> implements ContextualSerializer {
+
+    private final DateTimeFormatter formatter;
+
+    public PatternDateSerializer() {
+        this(null);
+    }
+
+    private PatternDateSerializer(DateTimeFormatter formatter) {
+        super(Date.class);
+        this.formatter = formatter;
+    }
+
+    @Override
+    public JsonSerializer<?> createContextual(SerializerProvider prov, BeanProperty property) throws JsonMappingException {
+        JsonFormat.Value format = findFormatOverrides(prov, property, handledType());
+        if (format == null || !format.hasPattern() || format.getShape() == JsonFormat.Shape.NUMBER) {
+            return DateSerializer.instance.createContextual(prov, property);
+        }
+        ZoneId zone = format.hasTimeZone() ? format.getTimeZone().toZoneId() : prov.getTimeZone().toZoneId();
+        return new PatternDateSerializer(DateUtil.getFormatter(format.getPattern()).withZone(zone));
+    }
+
+    @Override
+    public void serialize(Date value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        if (formatter == null) {
+            provider.defaultSerializeDateValue(value, gen);
+            return;
+        }
+        gen.writeString(formatter.format(value.toInstant()));
+    }
+}
@@ -0,0 +1,20 @@
+package com.sakury.json;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.sakury.entity.vo.PaginationResultVO;
+import com.sakury.entity.vo.ResponseVO;
+
+import java.util.Date;
+
+/**
+ * 接口响应序列化模块：ResponseVO、PaginationResultVO 使用手写序列化，带pattern的Date字段使用 DateTimeFormatter
+ */
+public class ResponseJsonModule extends SimpleModule {
+
+    public ResponseJsonModule() {
+        super("vidora-response");
+        addSerializer(ResponseVO.class, new ResponseVOSerializer());
+        addSerializer(PaginationResultVO.class, new PaginationResultVOSerializer());
+        addSerializer(Date.class, new PatternDateSerializer());
+    }
+}
@@ -0,0 +1,104 @@
+package com.sakury.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.sakury.entity.enums.ResponseCodeEnum;
+import com.sakury.entity.vo.ResponseVO;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ResponseVO 序列化，输出与默认的Bean序列化一致：{"status":..,"code":..,"info":..,"data":..}
+ * <p>
+ * 字段名与常量值（success/error、各返回码的提示）预先编码为UTF-8，写入时直接复制字节；
+ * 最常见的成功响应的前三个字段整体预编码为一段，不再逐个字段写入。data 按实际类型交给Jackson序列化，JSON视图照常生效
+ */
+public class ResponseVOSerializer extends StdSerializer<ResponseVO> {
+
+    private static final SerializedString STATUS = new SerializedString("status");
+
+    private static final SerializedString CODE = new SerializedString("code");
+
+    private static final SerializedString INFO = new SerializedString("info");
+
+    private static final SerializedString DATA = new SerializedString("data");
+
+    private static final String STATUS_SUCCESS = "success";
+
+    private static final String STATUS_ERROR = "error";
+
+    /**
+     * 成功响应 data 之前的部分，以逗号结尾；写入时生成器仍认为对象内尚无字段，随后写入的 data 字段名前不会再加逗号
+     */
+    private static final SerializedString SUCCESS_ENVELOPE = new SerializedString("\"status\":\"" + STATUS_SUCCESS + "\",\"code\":"
+            + ResponseCodeEnum.CODE_200.getCode() + ",\"info\":\"" + new String(JsonStringEncoder.getInstance().quoteAsString(ResponseCodeEnum.CODE_200.getMsg())) + "\",");
+
+    private static final Map<String, SerializedString> CONSTANT_VALUES = new HashMap<>();
+
+    static {
+        CONSTANT_VALUES.put(STATUS_SUCCESS, new SerializedString(STATUS_SUCCESS));
+        CONSTANT_VALUES.put(STATUS_ERROR, new SerializedString(STATUS_ERROR));
+        for (ResponseCodeEnum codeEnum : ResponseCodeEnum.values()) {
+            CONSTANT_VALUES.put(codeEnum.getMsg(), new SerializedString(codeEnum.getMsg()));
+        }
+    }
+
+    public ResponseVOSerializer() {
+        super(ResponseVO.class);
+    }
+
+    @Override
+    public void serialize(ResponseVO value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        boolean preEncoded = canWritePreEncoded(gen);
+        gen.writeStartObject(value);
+        if (preEncoded && gen.getPrettyPrinter() == null && isSuccess(value)) {
+            gen.writeRaw(SUCCESS_ENVELOPE);
+        } else {
+            gen.writeFieldName(STATUS);
+            writeString(gen, value.getStatus(), preEncoded);
+            gen.writeFieldName(CODE);
+            if (value.getCode() == null) {
+                gen.writeNull();
+            } else {
+                gen.writeNumber(value.getCode());
+            }
+            gen.writeFieldName(INFO);
+            writeString(gen, value.getInfo(), preEncoded);
+        }
+        gen.writeFieldName(DATA);
+        provider.defaultSerializeValue(value.getData(), gen);
+        gen.writeEndObject();
+    }
+
+    /**
+     * 预编码的值只做了标准转义，开启非ASCII转义或自定义转义时逐个写入
+     */
+    @SuppressWarnings("deprecation")
+    private static boolean canWritePreEncoded(JsonGenerator gen) {
+        return gen.getCharacterEscapes() == null && !gen.isEnabled(JsonGenerator.Feature.ESCAPE_NON_ASCII);
+    }
+
+    private static boolean isSuccess(ResponseVO value) {
+        return STATUS_SUCCESS.equals(value.getStatus()) && ResponseCodeEnum.CODE_200.getCode().equals(value.getCode())
+                && ResponseCodeEnum.CODE_200.getMsg().equals(value.getInfo());
+    }
+
+    private static void writeString(JsonGenerator gen, String value, boolean preEncoded) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+            return;
+        }
+        SerializableString constant = preEncoded ? CONSTANT_VALUES.get(value) : null;
+        if (constant == null) {
+            gen.writeString(value);
+        } else {
+            gen.writeString(constant);
+        }
+    }
+}
@@ -1,6 +1,12 @@
 package com.sakury.mappers;
 
+import com.sakury.entity.dto.RegisterDailyCountDto;
+import com.sakury.entity.dto.UserRollupGroupDto;
+import com.sakury.entity.enums.UserInfoFieldSetEnum;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
+
+import java.util.List;
 
 /**
  * 用户信息表 数据库操作接口
@@ -20,9 +26,15 @@ public interface UserInfoMapper<T, P> extends BaseMapper<T, P> {
 
 
     /**
-     * 根据UserId获取对象
+     * 根据UserId获取对象，fieldSet为空时查询全部列
+     */
+    T selectByUserId(@Param("userId") String userId, @Param("fieldSet") UserInfoFieldSetEnum fieldSet);
+
+
+    /**
+     * 根据UserId批量获取对象，调用方需控制IN列表长度
      */
-    T selectByUserId(@Param("userId") String userId);
+    List<T> selectByUserIds(@Param("userIdList") List<String> userIdList, @Param("fieldSet") UserInfoFieldSetEnum fieldSet);
 
 
     /**
@@ -38,9 +50,9 @@ public interface UserInfoMapper<T, P> extends BaseMapper<T, P> {
 
 
     /**
-     * 根据Email获取对象
+     * 根据Email获取对象，fieldSet为空时查询全部列
      */
-    T selectByEmail(@Param("email") String email);
+    T selectByEmail(@Param("email") String email, @Param("fieldSet") UserInfoFieldSetEnum fieldSet);
 
 
     /**
@@ -56,8 +68,38 @@ public interface UserInfoMapper<T, P> extends BaseMapper<T, P> {
 
 
     /**
-     * 根据NickName获取对象
+     * 根据NickName获取对象，fieldSet为空时查询全部列
+     */
+    T selectByNickName(@Param("nickName") String nickName, @Param("fieldSet") UserInfoFieldSetEnum fieldSet);
+
+
+    /**
+     * 单行插入，列固定，供 ExecutorType.BATCH 逐行执行时SQL文本保持一致以合并为同一批
+     */
+    Integer insertForBatch(@Param("bean") T t);
+
+
+    /**
+     * 单行插入或更新，列固定，新增时为空的列取默认值，更新时为空的列保留原值
+     */
+    Integer insertOrUpdateForBatch(@Param("bean") T t);
+
+
+    /**
+     * 按条件游标查询（不含密码），需在同一事务/会话内读取完毕
+     */
+    Cursor<T> selectCursor(@Param("query") P p);
+
+    /**
+     * 按状态、性别分组统计用户数与硬币数，供看板汇总对账，全表扫描
+     */
+    List<UserRollupGroupDto> selectRollupGroups();
+
+    /**
+     * 按注册日期统计注册人数
+     *
+     * @param registerTimeStart 起始日期 yyyy-MM-dd
      */
-    T selectByNickName(@Param("nickName") String nickName);
+    List<RegisterDailyCountDto> selectRegisterCountByDay(@Param("registerTimeStart") String registerTimeStart);
 
 }
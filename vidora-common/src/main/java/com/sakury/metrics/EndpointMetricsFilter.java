@@ -0,0 +1,98 @@
+package com.sakury.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 接口耗时统计过滤器
+ * 使用 Spring MVC 匹配到的路径模式作为标签，未匹配到处理器的请求统一记为 UNKNOWN，避免标签数量失控
+ * 全局异常处理返回的 HTTP 状态码为200、错误码写在 ResponseVO 中，因此优先按异常处理记录的错误码区分结果：
+ * 500及以上记为 error，其余错误码（参数错误、业务错误等）记为 client_error
+ */
+public class EndpointMetricsFilter extends OncePerRequestFilter {
+
+    public static final String METER_NAME = "vidora.http.endpoint";
+
+    /**
+     * 全局异常处理写入的错误码（Integer）
+     */
+    public static final String ERROR_CODE_ATTRIBUTE = EndpointMetricsFilter.class.getName() + ".ERROR_CODE";
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private static final String OUTCOME_SUCCESS = "success";
+
+    private static final String OUTCOME_CLIENT_ERROR = "client_error";
+
+    private static final String OUTCOME_ERROR = "error";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public EndpointMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = true;
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern == null ? UNKNOWN_URI : pattern.toString();
+            String outcome = completed ? getOutcome(request, response) : OUTCOME_ERROR;
+            getTimer(uri, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 记录异常处理返回的错误码，供过滤器区分请求结果
+     *
+     * @param request 当前请求
+     * @param code    ResponseVO 中的错误码
+     */
+    public static void markError(HttpServletRequest request, Integer code) {
+        request.setAttribute(ERROR_CODE_ATTRIBUTE, code);
+    }
+
+    private static String getOutcome(HttpServletRequest request, HttpServletResponse response) {
+        int status = response.getStatus();
+        if (status >= 500) {
+            return OUTCOME_ERROR;
+        }
+        Object code = request.getAttribute(ERROR_CODE_ATTRIBUTE);
+        if (code instanceof Integer) {
+            return (Integer) code >= 500 && (Integer) code < 600 ? OUTCOME_ERROR : OUTCOME_CLIENT_ERROR;
+        }
+        return status >= 400 ? OUTCOME_CLIENT_ERROR : OUTCOME_SUCCESS;
+    }
+
+    private Timer getTimer(String uri, String outcome) {
+        String key = uri + "#" + outcome;
+        Timer timer = timers.get(key);
+        if (timer != null) {
+            return timer;
+        }
+        return timers.computeIfAbsent(key, k -> Timer.builder(METER_NAME)
+                .description("接口耗时")
+                .tag("uri", uri)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,42 @@
+package com.sakury.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 全局异常处理计数，按异常类型和返回码区分；
+ * 业务异常（密码错误、验证码错误等）和参数错误是正常流程的一部分，只计数不输出堆栈
+ */
+@Component
+public class ExceptionMetrics {
+
+    public static final String METER_NAME = "vidora.exception";
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * 记录一次异常
+     *
+     * @param e        异常
+     * @param code     返回给前端的code
+     * @param expected 是否为业务异常、参数错误等预期内的异常
+     */
+    public void record(Exception e, Integer code, boolean expected) {
+        String type = e.getClass().getSimpleName();
+        String codeTag = String.valueOf(code);
+        counters.computeIfAbsent(type + ":" + codeTag, key -> Counter.builder(METER_NAME)
+                .description("全局异常处理的异常数")
+                .tag("type", type)
+                .tag("code", codeTag)
+                .tag("expected", String.valueOf(expected))
+                .register(meterRegistry)).increment();
+    }
+}
@@ -0,0 +1,62 @@
+package com.sakury.metrics;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.logstash.logback.appender.LoggingEventAsyncDisruptorAppender;
+import net.logstash.logback.appender.listener.AppenderListener;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * 异步日志丢弃计数，环形队列已满时日志被直接丢弃，按appender区分
+ */
+@Component
+public class LogMetrics {
+
+    public static final String DROPPED_METER_NAME = "vidora.log.dropped";
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 在 logback-spring.xml 中配置的全部异步appender上注册监听
+     */
+    @PostConstruct
+    public void init() {
+        ILoggerFactory loggerFactory = LoggerFactory.getILoggerFactory();
+        if (!(loggerFactory instanceof LoggerContext)) {
+            return;
+        }
+        Set<Appender<ILoggingEvent>> registered = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Logger logger : ((LoggerContext) loggerFactory).getLoggerList()) {
+            Iterator<Appender<ILoggingEvent>> appenders = logger.iteratorForAppenders();
+            while (appenders.hasNext()) {
+                Appender<ILoggingEvent> appender = appenders.next();
+                if (appender instanceof LoggingEventAsyncDisruptorAppender && registered.add(appender)) {
+                    Counter dropped = Counter.builder(DROPPED_METER_NAME)
+                            .description("异步日志队列已满被丢弃的日志数")
+                            .tag("appender", appender.getName())
+                            .register(meterRegistry);
+                    ((LoggingEventAsyncDisruptorAppender) appender).addListener(new AppenderListener<ILoggingEvent>() {
+                        @Override
+                        public void eventAppendFailed(Appender<ILoggingEvent> source, ILoggingEvent event, Throwable reason) {
+                            dropped.increment();
+                        }
+                    });
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.sakury.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * 注册 MyBatis 语句耗时插件，MyBatis 自动配置会收集容器中的全部 Interceptor
+     *
+     * @param meterRegistry 指标注册中心
+     * @return 插件实例
+     */
+    @Bean
+    public MybatisMetricsInterceptor mybatisMetricsInterceptor(MeterRegistry meterRegistry) {
+        return new MybatisMetricsInterceptor(meterRegistry);
+    }
+
+    /**
+     * 注册接口耗时过滤器，默认只统计 /account 下的接口
+     *
+     * @param meterRegistry 指标注册中心
+     * @param urlPatterns   需要统计的路径，逗号分隔
+     * @return 过滤器注册对象
+     */
+    @Bean
+    public FilterRegistrationBean<EndpointMetricsFilter> endpointMetricsFilter(MeterRegistry meterRegistry,
+                                                                               @Value("${metrics.endpoint.url-patterns:/account/*}") String[] urlPatterns) {
+        FilterRegistrationBean<EndpointMetricsFilter> registration = new FilterRegistrationBean<>(new EndpointMetricsFilter(meterRegistry));
+        registration.addUrlPatterns(urlPatterns);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
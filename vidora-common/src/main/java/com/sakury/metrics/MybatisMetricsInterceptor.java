@@ -0,0 +1,91 @@
+package com.sakury.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Plugin;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MyBatis 语句耗时统计插件
+ * 按 MappedStatement id 记录每条映射语句的执行耗时（含结果映射），Timer 按语句缓存，热路径上不再构建 Meter
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}),
+        @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "queryCursor", args = {MappedStatement.class, Object.class, RowBounds.class})
+})
+public class MybatisMetricsInterceptor implements Interceptor {
+
+    public static final String METER_NAME = "vidora.mybatis.statement";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Timer> successTimers = new ConcurrentHashMap<>();
+
+    private final Map<String, Timer> errorTimers = new ConcurrentHashMap<>();
+
+    public MybatisMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement mappedStatement = (MappedStatement) invocation.getArgs()[0];
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            Object result = invocation.proceed();
+            success = true;
+            return result;
+        } finally {
+            getTimer(mappedStatement, success).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer getTimer(MappedStatement mappedStatement, boolean success) {
+        Map<String, Timer> timers = success ? successTimers : errorTimers;
+        Timer timer = timers.get(mappedStatement.getId());
+        if (timer != null) {
+            return timer;
+        }
+        return timers.computeIfAbsent(mappedStatement.getId(), id -> Timer.builder(METER_NAME)
+                .description("MyBatis映射语句耗时")
+                .tag("statement", shortStatementId(id))
+                .tag("command", mappedStatement.getSqlCommandType().name())
+                .tag("outcome", success ? "success" : "error")
+                .register(meterRegistry));
+    }
+
+    /**
+     * com.sakury.mappers.UserInfoMapper.selectByEmail -> UserInfoMapper.selectByEmail
+     */
+    private static String shortStatementId(String id) {
+        int methodIndex = id.lastIndexOf('.');
+        int mapperIndex = methodIndex > 0 ? id.lastIndexOf('.', methodIndex - 1) : -1;
+        return mapperIndex < 0 ? id : id.substring(mapperIndex + 1);
+    }
+
+    @Override
+    public Object plugin(Object target) {
+        return Plugin.wrap(target, this);
+    }
+
+    @Override
+    public void setProperties(Properties properties) {
+    }
+}
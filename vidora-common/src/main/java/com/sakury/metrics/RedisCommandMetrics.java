@@ -0,0 +1,80 @@
+package com.sakury.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis 命令耗时统计，由 RedisUtils 在每次调用后记录，按命令类型区分；
+ * 另统计因熔断或并发已满被拒绝的调用，以及Redis不可用时改用本地降级存储的次数
+ */
+@Component
+public class RedisCommandMetrics {
+
+    public static final String METER_NAME = "vidora.redis.command";
+
+    public static final String REJECTED_METER_NAME = "vidora.redis.rejected";
+
+    public static final String DEGRADED_METER_NAME = "vidora.redis.degraded";
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, Timer> successTimers = new ConcurrentHashMap<>();
+
+    private final Map<String, Timer> errorTimers = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * 记录一次命令耗时
+     *
+     * @param command      命令类型，如 get、setex
+     * @param elapsedNanos 耗时（纳秒）
+     * @param success      是否成功
+     */
+    public void record(String command, long elapsedNanos, boolean success) {
+        Map<String, Timer> timers = success ? successTimers : errorTimers;
+        Timer timer = timers.get(command);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(command, key -> Timer.builder(METER_NAME)
+                    .description("Redis命令耗时")
+                    .tag("command", key)
+                    .tag("outcome", success ? "success" : "error")
+                    .register(meterRegistry));
+        }
+        timer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录一次被拒绝的调用
+     *
+     * @param command 命令类型
+     * @param reason  拒绝原因 circuit_open / bulkhead_full
+     */
+    public void recordRejected(String command, String reason) {
+        counters.computeIfAbsent(REJECTED_METER_NAME + ":" + command + ":" + reason, key -> Counter.builder(REJECTED_METER_NAME)
+                .description("未发送到Redis即被拒绝的调用数")
+                .tag("command", command)
+                .tag("reason", reason)
+                .register(meterRegistry)).increment();
+    }
+
+    /**
+     * 记录一次降级处理
+     *
+     * @param operation 降级的操作，如 token_read、check_code_write
+     */
+    public void recordDegraded(String operation) {
+        counters.computeIfAbsent(DEGRADED_METER_NAME + ":" + operation, key -> Counter.builder(DEGRADED_METER_NAME)
+                .description("Redis不可用时改用本地存储的次数")
+                .tag("operation", operation)
+                .register(meterRegistry)).increment();
+    }
+}
@@ -0,0 +1,188 @@
+package com.sakury.mybatis;
+
+import com.sakury.entity.dto.SlowSqlSampleDto;
+import com.sakury.entity.dto.SlowSqlStatDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个SQL指纹的滚动窗口统计
+ * 窗口按分钟分桶，写入只做原子累加；耗时按对数分桶计数用于估算百分位
+ */
+class FingerprintStats {
+
+    /**
+     * 耗时分桶：第 i 个桶的上界为 2^i * 0.1ms，最后一个桶无上界
+     */
+    private static final int LATENCY_BUCKETS = 24;
+
+    private static final long FIRST_BUCKET_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final String fingerprintId;
+
+    private final String statementId;
+
+    private final String fingerprint;
+
+    private final int windowMinutes;
+
+    private final AtomicReferenceArray<MinuteBucket> buckets;
+
+    private final Object sampleLock = new Object();
+
+    private final List<SlowSqlSampleDto> samples = new ArrayList<>();
+
+    private final AtomicLong lastExplainMillis = new AtomicLong();
+
+    private volatile List<Map<String, Object>> explain;
+
+    FingerprintStats(String fingerprintId, String statementId, String fingerprint, int windowMinutes) {
+        this.fingerprintId = fingerprintId;
+        this.statementId = statementId;
+        this.fingerprint = fingerprint;
+        this.windowMinutes = windowMinutes;
+        this.buckets = new AtomicReferenceArray<>(windowMinutes);
+    }
+
+    void record(long elapsedNanos, boolean slow, long nowMillis) {
+        MinuteBucket bucket = currentBucket(TimeUnit.MILLISECONDS.toMinutes(nowMillis));
+        bucket.count.increment();
+        bucket.totalNanos.add(elapsedNanos);
+        if (slow) {
+            bucket.slowCount.increment();
+        }
+        long max;
+        while (elapsedNanos > (max = bucket.maxNanos.get()) && !bucket.maxNanos.compareAndSet(max, elapsedNanos)) {
+            // 并发更新最大值，失败重试
+        }
+        bucket.latency.incrementAndGet(latencyBucket(elapsedNanos));
+    }
+
+    private MinuteBucket currentBucket(long minute) {
+        int index = (int) (minute % windowMinutes);
+        MinuteBucket bucket = buckets.get(index);
+        if (bucket != null && bucket.minute == minute) {
+            return bucket;
+        }
+        MinuteBucket newBucket = new MinuteBucket(minute);
+        if (buckets.compareAndSet(index, bucket, newBucket)) {
+            return newBucket;
+        }
+        return buckets.get(index);
+    }
+
+    /**
+     * 保留最近的若干条慢SQL样本
+     */
+    void addSample(SlowSqlSampleDto sample, int sampleSize) {
+        synchronized (sampleLock) {
+            if (samples.size() >= sampleSize) {
+                samples.remove(0);
+            }
+            samples.add(sample);
+        }
+    }
+
+    /**
+     * 同一指纹在间隔内只执行一次 EXPLAIN
+     */
+    boolean tryAcquireExplain(long nowMillis, long intervalMillis) {
+        long last = lastExplainMillis.get();
+        return nowMillis - last >= intervalMillis && lastExplainMillis.compareAndSet(last, nowMillis);
+    }
+
+    void setExplain(List<Map<String, Object>> explain) {
+        this.explain = explain;
+    }
+
+    /**
+     * 窗口内无执行记录时返回 null
+     */
+    SlowSqlStatDto snapshot(long nowMillis) {
+        long oldestMinute = TimeUnit.MILLISECONDS.toMinutes(nowMillis) - windowMinutes + 1;
+        long count = 0;
+        long slowCount = 0;
+        long totalNanos = 0;
+        long maxNanos = 0;
+        long[] latency = new long[LATENCY_BUCKETS];
+        for (int i = 0; i < windowMinutes; i++) {
+            MinuteBucket bucket = buckets.get(i);
+            if (bucket == null || bucket.minute < oldestMinute) {
+                continue;
+            }
+            count += bucket.count.sum();
+            slowCount += bucket.slowCount.sum();
+            totalNanos += bucket.totalNanos.sum();
+            maxNanos = Math.max(maxNanos, bucket.maxNanos.get());
+            for (int j = 0; j < LATENCY_BUCKETS; j++) {
+                latency[j] += bucket.latency.get(j);
+            }
+        }
+        if (count == 0) {
+            return null;
+        }
+        SlowSqlStatDto stat = new SlowSqlStatDto();
+        stat.setFingerprintId(fingerprintId);
+        stat.setStatementId(statementId);
+        stat.setFingerprint(fingerprint);
+        stat.setCount(count);
+        stat.setSlowCount(slowCount);
+        stat.setTotalMs(toMillis(totalNanos));
+        stat.setAvgMs(toMillis(totalNanos / count));
+        stat.setMaxMs(toMillis(maxNanos));
+        stat.setP95Ms(toMillis(Math.min(percentile(latency, count, 0.95), maxNanos)));
+        stat.setP99Ms(toMillis(Math.min(percentile(latency, count, 0.99), maxNanos)));
+        synchronized (sampleLock) {
+            stat.setSamples(new ArrayList<>(samples));
+        }
+        stat.setExplain(explain);
+        return stat;
+    }
+
+    private static int latencyBucket(long elapsedNanos) {
+        long upper = FIRST_BUCKET_NANOS;
+        for (int i = 0; i < LATENCY_BUCKETS - 1; i++) {
+            if (elapsedNanos <= upper) {
+                return i;
+            }
+            upper <<= 1;
+        }
+        return LATENCY_BUCKETS - 1;
+    }
+
+    private static long percentile(long[] latency, long count, double percentile) {
+        long rank = (long) Math.ceil(count * percentile);
+        long seen = 0;
+        for (int i = 0; i < LATENCY_BUCKETS; i++) {
+            seen += latency[i];
+            if (seen >= rank) {
+                return i == LATENCY_BUCKETS - 1 ? Long.MAX_VALUE : FIRST_BUCKET_NANOS << i;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    static double toMillis(long nanos) {
+        return Math.round(nanos / 1000.0) / 1000.0;
+    }
+
+    private static class MinuteBucket {
+        private final long minute;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder slowCount = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLongArray latency = new AtomicLongArray(LATENCY_BUCKETS);
+
+        private MinuteBucket(long minute) {
+            this.minute = minute;
+        }
+    }
+}
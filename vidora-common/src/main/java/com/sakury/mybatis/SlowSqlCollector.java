@@ -0,0 +1,289 @@
+package com.sakury.mybatis;
+
+import com.sakury.component.RedisComponent;
+import com.sakury.entity.dto.SlowSqlReportDto;
+import com.sakury.entity.dto.SlowSqlSampleDto;
+import com.sakury.entity.dto.SlowSqlStatDto;
+import com.sakury.utils.SampledLogger;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.scripting.defaults.DefaultParameterHandler;
+import org.apache.ibatis.session.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 慢SQL收集器
+ * 按指纹汇总滚动窗口耗时，超过阈值的语句保存样本（绑定参数只记录类型与长度，可选自动 EXPLAIN），并定时上报到Redis供管理端查看
+ */
+@Component("slowSqlCollector")
+public class SlowSqlCollector {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlowSqlCollector.class);
+
+    /**
+     * 统计在每条SQL执行后进行，出错时每秒最多输出10条
+     */
+    private static final SampledLogger recordFailureLogger = SampledLogger.of(logger, 10, 1000);
+
+    private static final String OVERFLOW_FINGERPRINT = "<指纹数量超过上限>";
+
+    @Resource
+    private RedisComponent redisComponent;
+
+    @Resource
+    private DataSource dataSource;
+
+    @Value("${spring.application.name:vidora}")
+    private String appName;
+
+    @Value("${slow-sql.enabled:true}")
+    private boolean enabled;
+
+    @Value("${slow-sql.threshold-ms:200}")
+    private long thresholdMs;
+
+    @Value("${slow-sql.window-minutes:10}")
+    private int windowMinutes;
+
+    @Value("${slow-sql.sample-size:3}")
+    private int sampleSize;
+
+    @Value("${slow-sql.max-fingerprints:500}")
+    private int maxFingerprints;
+
+    @Value("${slow-sql.explain.enabled:false}")
+    private boolean explainEnabled;
+
+    @Value("${slow-sql.explain.interval-ms:600000}")
+    private long explainIntervalMs;
+
+    private final String instance = ManagementFactory.getRuntimeMXBean().getName();
+
+    /**
+     * 语句id -> 原始SQL -> 指纹统计，热路径只做两次查表
+     */
+    private final Map<String, Map<String, FingerprintStats>> sqlIndex = new ConcurrentHashMap<>();
+
+    private final AtomicInteger sqlIndexSize = new AtomicInteger();
+
+    /**
+     * 指纹 -> 统计，多条SQL文本可能归一到同一指纹
+     */
+    private final Map<String, FingerprintStats> fingerprints = new ConcurrentHashMap<>();
+
+    private final ThreadPoolExecutor explainExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(16), runnable -> {
+        Thread thread = new Thread(runnable, "slow-sql-explain");
+        thread.setDaemon(true);
+        return thread;
+    }, new ThreadPoolExecutor.DiscardPolicy());
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 记录一次语句执行
+     *
+     * @param mappedStatement 映射语句
+     * @param boundSql        实际执行的SQL
+     * @param parameterObject 参数对象
+     * @param elapsedNanos    耗时(纳秒)
+     */
+    public void record(MappedStatement mappedStatement, BoundSql boundSql, Object parameterObject, long elapsedNanos) {
+        try {
+            long now = System.currentTimeMillis();
+            boolean slow = elapsedNanos >= TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+            FingerprintStats stats = getStats(mappedStatement.getId(), boundSql.getSql());
+            stats.record(elapsedNanos, slow, now);
+            if (slow) {
+                capture(stats, mappedStatement, boundSql, parameterObject, elapsedNanos, now);
+            }
+        } catch (Exception e) {
+            recordFailureLogger.warn("慢SQL统计失败，语句:{}", mappedStatement.getId(), e);
+        }
+    }
+
+    private FingerprintStats getStats(String statementId, String sql) {
+        Map<String, FingerprintStats> statementIndex = sqlIndex.computeIfAbsent(statementId, id -> new ConcurrentHashMap<>());
+        FingerprintStats stats = statementIndex.get(sql);
+        if (stats != null) {
+            return stats;
+        }
+        stats = resolveFingerprint(statementId, SqlFingerprint.of(statementId, sql));
+        //原始SQL文本数量受 ${orderBy} 影响，超过上限后不再缓存，每次重新计算指纹
+        if (sqlIndexSize.get() < maxFingerprints * 4 && statementIndex.putIfAbsent(sql, stats) == null) {
+            sqlIndexSize.incrementAndGet();
+        }
+        return stats;
+    }
+
+    private FingerprintStats resolveFingerprint(String statementId, String fingerprint) {
+        FingerprintStats stats = fingerprints.get(fingerprint);
+        if (stats != null) {
+            return stats;
+        }
+        if (fingerprints.size() >= maxFingerprints) {
+            fingerprint = statementId + " :: " + OVERFLOW_FINGERPRINT;
+        }
+        return fingerprints.computeIfAbsent(fingerprint, key -> new FingerprintStats(DigestUtils.md5Hex(key).substring(0, 16),
+                statementId, key, windowMinutes));
+    }
+
+    private void capture(FingerprintStats stats, MappedStatement mappedStatement, BoundSql boundSql, Object parameterObject,
+                         long elapsedNanos, long now) {
+        SlowSqlSampleDto sample = new SlowSqlSampleDto();
+        sample.setSql(boundSql.getSql().replaceAll("\\s+", " ").trim());
+        sample.setParams(getParams(mappedStatement.getConfiguration(), boundSql, parameterObject));
+        sample.setElapsedMs(FingerprintStats.toMillis(elapsedNanos));
+        sample.setTime(now);
+        stats.addSample(sample, sampleSize);
+        if (explainEnabled && mappedStatement.getSqlCommandType() == SqlCommandType.SELECT
+                && stats.tryAcquireExplain(now, explainIntervalMs)) {
+            explainExecutor.execute(() -> stats.setExplain(explain(mappedStatement, boundSql, parameterObject)));
+        }
+    }
+
+    /**
+     * 按 DefaultParameterHandler 的取值规则读取绑定参数，只保留类型与长度，邮箱、IP、昵称等用户数据不进入Redis样本
+     */
+    private static List<String> getParams(Configuration configuration, BoundSql boundSql, Object parameterObject) {
+        List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
+        List<String> params = new ArrayList<>(parameterMappings.size());
+        MetaObject metaObject = null;
+        for (ParameterMapping parameterMapping : parameterMappings) {
+            String property = parameterMapping.getProperty();
+            Object value;
+            if (boundSql.hasAdditionalParameter(property)) {
+                value = boundSql.getAdditionalParameter(property);
+            } else if (parameterObject == null) {
+                value = null;
+            } else if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameterObject.getClass())) {
+                value = parameterObject;
+            } else {
+                if (metaObject == null) {
+                    metaObject = configuration.newMetaObject(parameterObject);
+                }
+                value = metaObject.getValue(property);
+            }
+            params.add(describe(value));
+        }
+        return params;
+    }
+
+    /**
+     * 参数描述：null、类型名，字符串/集合/数组附带长度，如 String(12)
+     */
+    private static String describe(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        String type = value.getClass().getSimpleName();
+        if (value instanceof CharSequence) {
+            return type + "(" + ((CharSequence) value).length() + ")";
+        }
+        if (value instanceof Collection) {
+            return type + "(" + ((Collection<?>) value).size() + ")";
+        }
+        if (value.getClass().isArray()) {
+            return type + "(" + Array.getLength(value) + ")";
+        }
+        return type;
+    }
+
+    /**
+     * 使用同样的绑定参数执行 EXPLAIN，直接走数据源，不经过 MyBatis 插件
+     */
+    private List<Map<String, Object>> explain(MappedStatement mappedStatement, BoundSql boundSql, Object parameterObject) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + boundSql.getSql())) {
+            new DefaultParameterHandler(mappedStatement, parameterObject, boundSql).setParameters(statement);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                ResultSetMetaData metaData = resultSet.getMetaData();
+                while (resultSet.next()) {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                        Object value = resultSet.getObject(i);
+                        row.put(metaData.getColumnLabel(i), value instanceof Number || value == null ? value : value.toString());
+                    }
+                    rows.add(row);
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("执行EXPLAIN失败，语句:{}", mappedStatement.getId(), e);
+        }
+        return rows;
+    }
+
+    /**
+     * 生成当前实例的统计快照，按窗口内总耗时倒序
+     */
+    public SlowSqlReportDto getReport() {
+        long now = System.currentTimeMillis();
+        List<SlowSqlStatDto> statList = new ArrayList<>();
+        for (FingerprintStats stats : fingerprints.values()) {
+            SlowSqlStatDto stat = stats.snapshot(now);
+            if (stat != null) {
+                statList.add(stat);
+            }
+        }
+        statList.sort((a, b) -> Double.compare(b.getTotalMs(), a.getTotalMs()));
+        SlowSqlReportDto report = new SlowSqlReportDto();
+        report.setAppName(appName);
+        report.setInstance(instance);
+        report.setWindowMinutes(windowMinutes);
+        report.setThresholdMs(thresholdMs);
+        report.setReportTime(now);
+        report.setStats(statList);
+        return report;
+    }
+
+    /**
+     * 定时上报到Redis，管理端按应用汇总各实例
+     */
+    @Scheduled(fixedDelayString = "${slow-sql.report-interval-ms:30000}", initialDelayString = "${slow-sql.report-interval-ms:30000}")
+    public void publish() {
+        if (!enabled || fingerprints.isEmpty()) {
+            return;
+        }
+        try {
+            redisComponent.saveSlowSqlReport(getReport());
+        } catch (Exception e) {
+            logger.warn("上报慢SQL统计失败", e);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        explainExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,69 @@
+package com.sakury.mybatis;
+
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Plugin;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.SystemMetaObject;
+import org.apache.ibatis.session.ResultHandler;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.sql.Statement;
+import java.util.Properties;
+
+/**
+ * 慢SQL指纹插件
+ * 拦截 StatementHandler 的执行阶段，直接复用已生成的 BoundSql，不再重复解析动态SQL
+ */
+@Component
+@Intercepts({
+        @Signature(type = StatementHandler.class, method = "query", args = {Statement.class, ResultHandler.class}),
+        @Signature(type = StatementHandler.class, method = "queryCursor", args = {Statement.class}),
+        @Signature(type = StatementHandler.class, method = "update", args = {Statement.class})
+})
+public class SlowSqlInterceptor implements Interceptor {
+
+    @Resource
+    private SlowSqlCollector slowSqlCollector;
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        if (!slowSqlCollector.isEnabled()) {
+            return invocation.proceed();
+        }
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            long elapsedNanos = System.nanoTime() - start;
+            StatementHandler handler = (StatementHandler) invocation.getTarget();
+            slowSqlCollector.record(getMappedStatement(handler), handler.getBoundSql(),
+                    handler.getParameterHandler().getParameterObject(), elapsedNanos);
+        }
+    }
+
+    /**
+     * RoutingStatementHandler -> delegate.mappedStatement
+     */
+    private static MappedStatement getMappedStatement(StatementHandler handler) {
+        MetaObject metaObject = SystemMetaObject.forObject(handler);
+        while (metaObject.hasGetter("h")) {
+            metaObject = SystemMetaObject.forObject(metaObject.getValue("h.target"));
+        }
+        return (MappedStatement) metaObject.getValue("delegate.mappedStatement");
+    }
+
+    @Override
+    public Object plugin(Object target) {
+        return Plugin.wrap(target, this);
+    }
+
+    @Override
+    public void setProperties(Properties properties) {
+    }
+}
@@ -0,0 +1,130 @@
+package com.sakury.mybatis;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * SQL 指纹
+ * 将动态SQL归一化为 "语句id + 谓词集合 + 排序"，同一组 if 条件组合得到相同指纹，谓词顺序不影响结果
+ */
+public class SqlFingerprint {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^'\\\\]|\\\\.)*'");
+
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+
+    private static final Pattern MULTI_VALUES = Pattern.compile("(\\([?, ]+\\))(?:\\s*,\\s*\\([?, ]+\\))+");
+
+    private static final String WHERE = " where ";
+
+    private static final String ORDER_BY = " order by ";
+
+    private static final String LIMIT = " limit ";
+
+    private SqlFingerprint() {
+    }
+
+    /**
+     * 计算指纹
+     *
+     * @param statementId MappedStatement id
+     * @param sql         BoundSql 中的SQL（参数为 ?，${} 已展开）
+     * @return 指纹字符串
+     */
+    public static String of(String statementId, String sql) {
+        String normalized = normalize(sql);
+        int whereIndex = indexOfTopLevel(normalized, WHERE, 0);
+        int orderIndex = indexOfTopLevel(normalized, ORDER_BY, Math.max(whereIndex, 0));
+        int limitIndex = indexOfTopLevel(normalized, LIMIT, Math.max(Math.max(whereIndex, orderIndex), 0));
+        int headEnd = firstPositive(whereIndex, orderIndex, limitIndex, normalized.length());
+
+        StringBuilder builder = new StringBuilder(statementId).append(" :: ").append(normalized, 0, headEnd);
+        if (whereIndex >= 0) {
+            int whereEnd = firstPositive(orderIndex, limitIndex, normalized.length());
+            List<String> predicates = splitPredicates(normalized.substring(whereIndex + WHERE.length(), whereEnd));
+            Collections.sort(predicates);
+            builder.append(" where [").append(String.join(" and ", predicates)).append(']');
+        }
+        if (orderIndex >= 0) {
+            int orderEnd = limitIndex > orderIndex ? limitIndex : normalized.length();
+            builder.append(" order by [").append(normalized.substring(orderIndex + ORDER_BY.length(), orderEnd).trim()).append(']');
+        }
+        if (limitIndex >= 0) {
+            builder.append(" limit");
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 去除多余空白并将字面量替换为 ?，批量插入的多组 values 合并为一组
+     */
+    static String normalize(String sql) {
+        String normalized = WHITESPACE.matcher(sql).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+        normalized = STRING_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = MULTI_VALUES.matcher(normalized).replaceAll("$1");
+        return normalized;
+    }
+
+    /**
+     * 按顶层 and 拆分谓词，括号内的 and 不拆分
+     */
+    private static List<String> splitPredicates(String whereClause) {
+        List<String> predicates = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < whereClause.length(); i++) {
+            char c = whereClause.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (depth == 0 && whereClause.startsWith(" and ", i)) {
+                addPredicate(predicates, whereClause.substring(start, i));
+                start = i + " and ".length();
+                i = start - 1;
+            }
+        }
+        addPredicate(predicates, whereClause.substring(start));
+        return predicates;
+    }
+
+    private static void addPredicate(List<String> predicates, String predicate) {
+        String trimmed = predicate.trim();
+        if (trimmed.startsWith("and ")) {
+            trimmed = trimmed.substring(4).trim();
+        }
+        if (!trimmed.isEmpty()) {
+            predicates.add(trimmed);
+        }
+    }
+
+    private static int indexOfTopLevel(String sql, String keyword, int from) {
+        int depth = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (depth == 0 && i >= from && sql.startsWith(keyword, i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int firstPositive(int... values) {
+        for (int value : values) {
+            if (value >= 0) {
+                return value;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,283 @@
+package com.sakury.redis;
+
+import com.sakury.entity.dto.HotKeyReportDto;
+import com.sakury.entity.dto.HotKeyStatDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 热点key探测
+ * <p>
+ * 按采样率记录读取的key，以 Count-Min Sketch 估算当前窗口内的访问次数，估算值达到候选阈值的key进入候选表（heavy hitters）。
+ * 估算QPS达到 threshold-qps 的key立即标记为热点，由 RedisUtils 在本地保留短期副本；
+ * 每个窗口结束时按候选表重新计算QPS，低于 threshold-qps * cool-down-ratio 的热点key降级，随后重置计数。
+ * Count-Min Sketch 只会高估，热点判定可能误报但不会漏报
+ */
+@Component
+public class HotKeyDetector {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotKeyDetector.class);
+
+    public static final String METER_NAME = "vidora.redis.hot_key";
+
+    private static final int SKETCH_DEPTH = 4;
+
+    @Value("${spring.application.name:vidora}")
+    private String appName;
+
+    @Value("${redis.hot-key.enabled:true}")
+    private boolean enabled;
+
+    @Value("${redis.hot-key.sample-rate:1}")
+    private int sampleRate;
+
+    @Value("${redis.hot-key.sketch-width:4096}")
+    private int sketchWidth;
+
+    @Value("${redis.hot-key.window-millis:1000}")
+    private long windowMillis;
+
+    @Value("${redis.hot-key.threshold-qps:500}")
+    private double thresholdQps;
+
+    @Value("${redis.hot-key.cool-down-ratio:0.5}")
+    private double coolDownRatio;
+
+    @Value("${redis.hot-key.max-hot-keys:100}")
+    private int maxHotKeys;
+
+    @Value("${redis.hot-key.max-candidates:1000}")
+    private int maxCandidates;
+
+    @Value("${redis.hot-key.exclude-prefixes:vidora:token:}")
+    private String[] excludePrefixes;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    private final String instance = ManagementFactory.getRuntimeMXBean().getName();
+
+    /**
+     * 当前窗口的计数，窗口结束时整体替换
+     */
+    private volatile AtomicIntegerArray sketch;
+
+    /**
+     * 当前窗口的候选key -> 最近一次的估算次数(采样后)
+     */
+    private volatile Map<String, Integer> candidates = new ConcurrentHashMap<>();
+
+    private final Map<String, HotKey> hotKeys = new ConcurrentHashMap<>();
+
+    /**
+     * 上一个窗口的统计结果，供管理端查看
+     */
+    private volatile List<HotKeyStatDto> lastStats = Collections.emptyList();
+
+    private long windowStart;
+
+    private int promoteCount;
+
+    private int candidateCount;
+
+    private Counter promoteCounter;
+
+    private Counter demoteCounter;
+
+    private Counter localHitCounter;
+
+    @PostConstruct
+    public void init() {
+        sketch = new AtomicIntegerArray(SKETCH_DEPTH * sketchWidth);
+        windowStart = System.currentTimeMillis();
+        double windowCount = thresholdQps * windowMillis / 1000 / sampleRate;
+        promoteCount = Math.max(1, (int) Math.ceil(windowCount));
+        candidateCount = Math.max(1, (int) Math.ceil(windowCount * coolDownRatio));
+        Gauge.builder(METER_NAME + ".count", hotKeys, Map::size)
+                .description("当前热点key数量")
+                .register(meterRegistry);
+        promoteCounter = Counter.builder(METER_NAME + ".promotions").description("热点key升级次数").register(meterRegistry);
+        demoteCounter = Counter.builder(METER_NAME + ".demotions").description("热点key降级次数").register(meterRegistry);
+        localHitCounter = Counter.builder(METER_NAME + ".local_hits").description("热点key本地副本命中次数").register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 记录一次读取，本地副本命中的读取同样需要记录，否则热点key会因计数下降被降级
+     *
+     * @param key 键
+     * @return 是否为热点key
+     */
+    public boolean record(String key) {
+        if (!enabled || key == null || isExcluded(key)) {
+            return false;
+        }
+        if (sampleRate <= 1 || ThreadLocalRandom.current().nextInt(sampleRate) == 0) {
+            int estimate = increment(key);
+            if (estimate >= candidateCount) {
+                addCandidate(key, estimate);
+            }
+            if (estimate >= promoteCount && !hotKeys.containsKey(key)) {
+                promote(key);
+            }
+        }
+        return hotKeys.containsKey(key);
+    }
+
+    public boolean isHot(String key) {
+        return !hotKeys.isEmpty() && hotKeys.containsKey(key);
+    }
+
+    public void recordLocalHit(String key) {
+        HotKey hotKey = hotKeys.get(key);
+        if (hotKey != null) {
+            hotKey.localHits.increment();
+        }
+        localHitCounter.increment();
+    }
+
+    /**
+     * 各行按 h1 + i * h2 取位置，自增后取各行最小值作为估算次数
+     */
+    private int increment(String key) {
+        AtomicIntegerArray current = sketch;
+        int h1 = spread(key.hashCode());
+        int h2 = spread(h1 * 0x9E3779B9) | 1;
+        int estimate = Integer.MAX_VALUE;
+        for (int i = 0; i < SKETCH_DEPTH; i++) {
+            int index = Math.floorMod(h1 + i * h2, sketchWidth);
+            estimate = Math.min(estimate, current.incrementAndGet(i * sketchWidth + index));
+        }
+        return estimate;
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        return hash;
+    }
+
+    /**
+     * 候选表达到上限后新key不再加入，下一个窗口重新竞争
+     */
+    private void addCandidate(String key, int estimate) {
+        Map<String, Integer> current = candidates;
+        if (current.size() < maxCandidates || current.containsKey(key)) {
+            current.merge(key, estimate, Math::max);
+        }
+    }
+
+    private void promote(String key) {
+        if (hotKeys.size() >= maxHotKeys) {
+            return;
+        }
+        if (hotKeys.putIfAbsent(key, new HotKey(System.currentTimeMillis())) == null) {
+            promoteCounter.increment();
+            logger.info("Redis热点key升级:{}", key);
+        }
+    }
+
+    /**
+     * 窗口结束：按候选表计算QPS，降级已冷却的热点key，补充升级遗漏的key，然后重置计数
+     */
+    @Scheduled(fixedRateString = "${redis.hot-key.window-millis:1000}", initialDelayString = "${redis.hot-key.window-millis:1000}")
+    public synchronized void rotate() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        double seconds = Math.max(now - windowStart, 1) / 1000.0;
+        Map<String, Integer> windowCandidates = candidates;
+        candidates = new ConcurrentHashMap<>();
+        sketch = new AtomicIntegerArray(SKETCH_DEPTH * sketchWidth);
+        windowStart = now;
+
+        Map<String, Double> qpsMap = new HashMap<>();
+        windowCandidates.forEach((key, count) -> qpsMap.put(key, count * sampleRate / seconds));
+        for (Map.Entry<String, HotKey> entry : hotKeys.entrySet()) {
+            double qps = qpsMap.getOrDefault(entry.getKey(), 0D);
+            if (qps < thresholdQps * coolDownRatio) {
+                hotKeys.remove(entry.getKey());
+                demoteCounter.increment();
+                logger.info("Redis热点key降级:{}，QPS:{}", entry.getKey(), Math.round(qps));
+            }
+        }
+        qpsMap.forEach((key, qps) -> {
+            if (qps >= thresholdQps && !hotKeys.containsKey(key)) {
+                promote(key);
+            }
+        });
+
+        List<HotKeyStatDto> stats = new ArrayList<>(qpsMap.size());
+        qpsMap.forEach((key, qps) -> {
+            HotKey hotKey = hotKeys.get(key);
+            HotKeyStatDto stat = new HotKeyStatDto();
+            stat.setKey(key);
+            stat.setQps((double) Math.round(qps));
+            stat.setHot(hotKey != null);
+            stat.setPromoteTime(hotKey == null ? null : hotKey.promoteTime);
+            stat.setLocalHitCount(hotKey == null ? 0L : hotKey.localHits.sum());
+            stat.setInstanceCount(1);
+            stats.add(stat);
+        });
+        stats.sort((a, b) -> Double.compare(b.getQps(), a.getQps()));
+        lastStats = stats;
+    }
+
+    private boolean isExcluded(String key) {
+        for (String prefix : excludePrefixes) {
+            if (!prefix.isEmpty() && key.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 生成当前实例的统计快照，包含上一个窗口的全部候选key，按QPS倒序
+     */
+    public HotKeyReportDto getReport() {
+        HotKeyReportDto report = new HotKeyReportDto();
+        report.setAppName(appName);
+        report.setInstance(instance);
+        report.setWindowMillis(windowMillis);
+        report.setThresholdQps(thresholdQps);
+        report.setReportTime(System.currentTimeMillis());
+        report.setStats(lastStats);
+        return report;
+    }
+
+    private static class HotKey {
+
+        private final long promoteTime;
+
+        private final LongAdder localHits = new LongAdder();
+
+        private HotKey(long promoteTime) {
+            this.promoteTime = promoteTime;
+        }
+    }
+}
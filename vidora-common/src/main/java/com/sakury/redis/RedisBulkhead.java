@@ -0,0 +1,63 @@
+package com.sakury.redis;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis 并发隔离，限制同时等待Redis响应的线程数，Redis变慢时多余的请求快速失败而不是占满请求线程
+ */
+@Component
+public class RedisBulkhead {
+
+    public static final String METER_NAME = "vidora.redis.bulkhead";
+
+    @Value("${redis.resilience.bulkhead.max-concurrent:64}")
+    private int maxConcurrent;
+
+    @Value("${redis.resilience.bulkhead.max-wait-millis:20}")
+    private long maxWaitMillis;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    private Semaphore semaphore;
+
+    @PostConstruct
+    public void init() {
+        semaphore = new Semaphore(maxConcurrent);
+        Gauge.builder(METER_NAME + ".active", semaphore, item -> maxConcurrent - item.availablePermits())
+                .description("进行中的Redis调用数")
+                .register(meterRegistry);
+        Gauge.builder(METER_NAME + ".max", () -> maxConcurrent)
+                .description("Redis调用并发上限")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 申请一个并发名额，获准后须调用 release 归还
+     *
+     * @return false 表示在等待时间内没有空余名额
+     */
+    public boolean tryAcquire() {
+        if (semaphore.tryAcquire()) {
+            return true;
+        }
+        try {
+            return semaphore.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public void release() {
+        semaphore.release();
+    }
+}
@@ -0,0 +1,242 @@
+package com.sakury.redis;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Redis 熔断器
+ * <p>
+ * 按最近 window-size 次调用统计失败率与慢调用率，调用数达到 minimum-calls 后任一超过阈值即打开，打开期间调用直接失败；
+ * 经过 open-millis 后进入半开，放行 half-open-calls 次试探调用，全部完成后按其结果关闭或重新打开
+ * <p>
+ * 每次Redis调用都会记录结果：关闭状态下无锁写入环形窗口，只有状态切换与半开统计持锁；
+ * 使用 ReentrantLock 而非 synchronized，虚拟线程竞争锁时不会占住载体线程
+ */
+@Component
+public class RedisCircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisCircuitBreaker.class);
+
+    public static final String METER_NAME = "vidora.redis.circuit";
+
+    private static final int OUTCOME_FAILURE = 1;
+
+    private static final int OUTCOME_SLOW = 2;
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    @Value("${redis.resilience.circuit.window-size:100}")
+    private int windowSize;
+
+    @Value("${redis.resilience.circuit.minimum-calls:20}")
+    private int minimumCalls;
+
+    @Value("${redis.resilience.circuit.failure-rate:0.5}")
+    private double failureRate;
+
+    @Value("${redis.resilience.circuit.slow-call-millis:200}")
+    private long slowCallMillis;
+
+    @Value("${redis.resilience.circuit.slow-call-rate:0.8}")
+    private double slowCallRate;
+
+    @Value("${redis.resilience.circuit.open-millis:5000}")
+    private long openMillis;
+
+    @Value("${redis.resilience.circuit.half-open-calls:10}")
+    private int halfOpenCalls;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile State state = State.CLOSED;
+
+    private long openedAt;
+
+    /**
+     * 关闭状态下最近调用结果的环形窗口，重新关闭时整体替换
+     */
+    private volatile Window window;
+
+    private int halfOpenPermits;
+
+    private int halfOpenFinished;
+
+    private int halfOpenFailureCount;
+
+    private int halfOpenSlowCount;
+
+    private long slowCallNanos;
+
+    private final Map<State, Counter> transitionCounters = new EnumMap<>(State.class);
+
+    @PostConstruct
+    public void init() {
+        window = new Window(windowSize);
+        slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMillis);
+        Gauge.builder(METER_NAME + ".state", this, breaker -> breaker.state.ordinal())
+                .description("Redis熔断器状态 0关闭 1打开 2半开")
+                .register(meterRegistry);
+        for (State item : State.values()) {
+            transitionCounters.put(item, Counter.builder(METER_NAME + ".transitions")
+                    .description("Redis熔断器状态切换次数")
+                    .tag("state", item.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * 申请执行一次调用，获准后须调用 record 记录结果
+     *
+     * @return false 表示熔断中，调用方应直接失败
+     */
+    public boolean tryAcquire() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        lock.lock();
+        try {
+            if (state == State.OPEN) {
+                if (System.currentTimeMillis() - openedAt < openMillis) {
+                    return false;
+                }
+                transitionTo(State.HALF_OPEN);
+            }
+            if (state == State.HALF_OPEN) {
+                if (halfOpenPermits <= 0) {
+                    return false;
+                }
+                halfOpenPermits--;
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 记录一次调用结果
+     *
+     * @param elapsedNanos 耗时（纳秒）
+     * @param failure      是否因连接失败或超时而失败
+     */
+    public void record(long elapsedNanos, boolean failure) {
+        boolean slow = elapsedNanos >= slowCallNanos;
+        State current = state;
+        if (current == State.CLOSED) {
+            recordClosed(failure, slow);
+            return;
+        }
+        if (current == State.OPEN) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (state != State.HALF_OPEN) {
+                return;
+            }
+            halfOpenFinished++;
+            halfOpenFailureCount += failure ? 1 : 0;
+            halfOpenSlowCount += slow ? 1 : 0;
+            if (halfOpenFinished >= halfOpenCalls) {
+                transitionTo(exceeded(halfOpenFailureCount, halfOpenSlowCount, halfOpenFinished) ? State.OPEN : State.CLOSED);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 关闭状态下无锁记录：按序号占用环形窗口的槽位，用 getAndSet 取回被覆盖的旧结果修正计数，
+     * 并发写同一槽位时各自修正的增量之和仍与窗口内容一致；超过阈值时才加锁切换状态
+     */
+    private void recordClosed(boolean failure, boolean slow) {
+        Window current = window;
+        int outcome = (failure ? OUTCOME_FAILURE : 0) | (slow ? OUTCOME_SLOW : 0);
+        long seq = current.calls.getAndIncrement();
+        int old = current.outcomes.getAndSet((int) (seq % windowSize), outcome);
+        int failures = addDelta(current.failureCount, outcome & OUTCOME_FAILURE, old & OUTCOME_FAILURE);
+        int slowCalls = addDelta(current.slowCount, (outcome & OUTCOME_SLOW) >> 1, (old & OUTCOME_SLOW) >> 1);
+        int calls = (int) Math.min(seq + 1, windowSize);
+        if (calls < minimumCalls || !exceeded(failures, slowCalls, calls)) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (state == State.CLOSED && window == current) {
+                transitionTo(State.OPEN);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static int addDelta(AtomicInteger counter, int added, int removed) {
+        return added == removed ? counter.get() : counter.addAndGet(added - removed);
+    }
+
+    private boolean exceeded(int failures, int slowCalls, int calls) {
+        return failures >= failureRate * calls || slowCalls >= slowCallRate * calls;
+    }
+
+    private void transitionTo(State target) {
+        Window current = window;
+        logger.warn("Redis熔断器状态 {} -> {}，失败:{}，慢调用:{}，统计调用数:{}", state, target,
+                state == State.HALF_OPEN ? halfOpenFailureCount : current.failureCount.get(),
+                state == State.HALF_OPEN ? halfOpenSlowCount : current.slowCount.get(),
+                state == State.HALF_OPEN ? halfOpenFinished : Math.min(current.calls.get(), windowSize));
+        state = target;
+        transitionCounters.get(target).increment();
+        if (target == State.OPEN) {
+            openedAt = System.currentTimeMillis();
+        } else if (target == State.HALF_OPEN) {
+            halfOpenPermits = halfOpenCalls;
+            halfOpenFinished = 0;
+            halfOpenFailureCount = 0;
+            halfOpenSlowCount = 0;
+        } else {
+            window = new Window(windowSize);
+        }
+    }
+
+    /**
+     * 关闭状态的统计窗口
+     */
+    private static class Window {
+
+        private final AtomicIntegerArray outcomes;
+
+        private final AtomicLong calls = new AtomicLong();
+
+        private final AtomicInteger failureCount = new AtomicInteger();
+
+        private final AtomicInteger slowCount = new AtomicInteger();
+
+        private Window(int size) {
+            outcomes = new AtomicIntegerArray(size);
+        }
+    }
+}
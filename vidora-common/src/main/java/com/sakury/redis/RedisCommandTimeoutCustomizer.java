@@ -0,0 +1,80 @@
+package com.sakury.redis;
+
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.SocketOptions;
+import io.lettuce.core.TimeoutOptions;
+import io.lettuce.core.cluster.ClusterClientOptions;
+import io.lettuce.core.protocol.CommandType;
+import io.lettuce.core.protocol.ProtocolKeyword;
+import io.lettuce.core.protocol.RedisCommand;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.data.redis.LettuceClientConfigurationBuilderCustomizer;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按命令类型设置Redis命令超时，未单独配置的命令使用 redis.resilience.command-timeout-millis
+ * <p>
+ * 超时由Lettuce在命令发出后计时并取消命令，实际生效值不超过 spring.redis.timeout
+ * <p>
+ * 在Spring Boot已生成的客户端配置上修改，保留连接超时与集群拓扑刷新等设置
+ */
+@Component
+public class RedisCommandTimeoutCustomizer implements LettuceClientConfigurationBuilderCustomizer {
+
+    @Value("${redis.resilience.command-timeout-millis:500}")
+    private long defaultTimeoutMillis;
+
+    /**
+     * 格式 命令:毫秒，逗号分隔，如 KEYS:2000,EVALSHA:1000
+     */
+    @Value("${redis.resilience.command-timeouts:}")
+    private String commandTimeouts;
+
+    @Value("${spring.redis.connect-timeout:}")
+    private Duration connectTimeout;
+
+    @Override
+    public void customize(LettuceClientConfiguration.LettuceClientConfigurationBuilder builder) {
+        Map<ProtocolKeyword, Long> timeoutMap = new HashMap<>();
+        for (String item : commandTimeouts.split(",")) {
+            item = item.trim();
+            if (item.isEmpty()) {
+                continue;
+            }
+            int index = item.indexOf(':');
+            if (index <= 0) {
+                throw new IllegalStateException("redis.resilience.command-timeouts 格式应为 命令:毫秒，多个以逗号分隔");
+            }
+            timeoutMap.put(CommandType.valueOf(item.substring(0, index).trim().toUpperCase()), Long.parseLong(item.substring(index + 1).trim()));
+        }
+        TimeoutOptions timeoutOptions = TimeoutOptions.builder().timeoutSource(new TimeoutOptions.TimeoutSource() {
+            @Override
+            public long getTimeout(RedisCommand<?, ?, ?> command) {
+                return timeoutMap.getOrDefault(command.getType(), defaultTimeoutMillis);
+            }
+
+            @Override
+            public TimeUnit getTimeUnit() {
+                return TimeUnit.MILLISECONDS;
+            }
+        }).build();
+        ClientOptions clientOptions = builder.build().getClientOptions().orElse(null);
+        if (clientOptions instanceof ClusterClientOptions) {
+            builder.clientOptions(((ClusterClientOptions) clientOptions).mutate().timeoutOptions(timeoutOptions).build());
+        } else if (clientOptions != null) {
+            builder.clientOptions(clientOptions.mutate().timeoutOptions(timeoutOptions).build());
+        } else {
+            ClientOptions.Builder optionsBuilder = ClientOptions.builder().timeoutOptions(timeoutOptions);
+            if (connectTimeout != null) {
+                optionsBuilder.socketOptions(SocketOptions.builder().connectTimeout(connectTimeout).build());
+            }
+            builder.clientOptions(optionsBuilder.build());
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.sakury.redis;
+
+import com.sakury.entity.constants.Constants;
+import com.sakury.entity.enums.UserInfoFieldSetEnum;
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ArrayList;
+import java.util.UUID;
+
+/**
+ * Redis键构造，集群部署时需要同一次调用（脚本、MGET、DEL）访问的键必须落在同一个槽
+ * <p>
+ * 约定：同一实体、会被一起访问的键以实体id作为哈希标签 {id}，如用户的各字段集缓存与数据版本；
+ * 用户的会话索引与其全部token以 userId 的哈希分桶作为标签，token会写入cookie，不直接暴露 userId；
+ * 只会单独访问的键（验证码、email/nickName映射、统计上报）不加标签，让数据均匀分布到各节点。
+ * 活跃用户统计的键需要跨日期做 BITOP、PFCOUNT，统一使用 {analytics} 标签，全部落在同一个节点。
+ * 键前缀仍定义在 Constants 中，此处只负责拼接
+ */
+public final class RedisKeys {
+
+    /**
+     * token中用户id与随机部分的分隔符，签名token使用同一字符但不会写入Redis
+     */
+    public static final char TOKEN_SEPARATOR = '.';
+
+    private static final String ANALYTICS_TAG = hashTag("analytics");
+
+    /**
+     * 会话token标签的分桶数，与集群槽数相同，已签发token后不可修改
+     */
+    private static final int TOKEN_TAG_BUCKETS = 16384;
+
+    /**
+     * 用户序号哈希的分桶数，已有数据后不可修改
+     */
+    private static final int ANALYTICS_USER_INDEX_BUCKETS = 65536;
+
+    private RedisKeys() {
+    }
+
+    /**
+     * 哈希标签，集群按花括号内的内容计算槽位
+     */
+    public static String hashTag(String id) {
+        return "{" + id + "}";
+    }
+
+    /**
+     * 键所在的槽位，与 Redis Cluster 的计算方式相同(CRC16 mod 16384)
+     */
+    public static int slot(String key) {
+        return ClusterSlotHashUtil.calculateSlot(key);
+    }
+
+    /**
+     * 按槽位分组，组内与组间均保持传入顺序
+     */
+    public static Map<Integer, List<String>> groupBySlot(Collection<String> keys) {
+        Map<Integer, List<String>> groups = new LinkedHashMap<>();
+        for (String key : keys) {
+            groups.computeIfAbsent(slot(key), slot -> new ArrayList<>()).add(key);
+        }
+        return groups;
+    }
+
+    /**
+     * 会话token的标签：userId 哈希后的桶号，每个桶对应大量用户，无法由token反查出 userId
+     */
+    public static String tokenTag(String userId) {
+        return Integer.toString((userId.hashCode() & 0x7fffffff) % TOKEN_TAG_BUCKETS);
+    }
+
+    /**
+     * 生成会话token，格式 标签.随机串，由token即可得到所属用户会话索引的哈希标签
+     */
+    public static String newSessionToken(String userId) {
+        return tokenTag(userId) + TOKEN_SEPARATOR + UUID.randomUUID().toString().replace("-", "");
+    }
+
+    /**
+     * token键，与用户会话索引同槽：vidora:token:web:{标签}.随机串
+     * 不含分隔符的旧格式token沿用原键名，只在单机部署中存在
+     */
+    public static String token(String token) {
+        int index = token.indexOf(TOKEN_SEPARATOR);
+        if (index <= 0) {
+            return Constants.REDIS_KEY_TOKEN_WEB + token;
+        }
+        return Constants.REDIS_KEY_TOKEN_WEB + hashTag(token.substring(0, index)) + token.substring(index);
+    }
+
+    /**
+     * 用户会话索引：vidora:token:user:{标签}:userId
+     */
+    public static String userTokenIndex(String userId) {
+        return Constants.REDIS_KEY_TOKEN_USER + hashTag(tokenTag(userId)) + ":" + userId;
+    }
+
+    public static String checkCode(String checkCodeKey) {
+        return Constants.REDIS_KEY_CHECK_CODE + checkCodeKey;
+    }
+
+    /**
+     * 用户信息缓存，各字段集与数据版本同槽：vidora:userInfo:{userId}:字段集
+     */
+    public static String userInfo(String userId, UserInfoFieldSetEnum fieldSet) {
+        return Constants.REDIS_KEY_USER_INFO + hashTag(userId) + ":" + fieldSet.name();
+    }
+
+    public static String userInfoVersion(String userId) {
+        return Constants.REDIS_KEY_USER_INFO + hashTag(userId) + ":version";
+    }
+
+    public static String userInfoEmail(String email) {
+        return Constants.REDIS_KEY_USER_INFO + "email:" + email;
+    }
+
+    public static String userInfoNickName(String nickName) {
+        return Constants.REDIS_KEY_USER_INFO + "nickName:" + nickName;
+    }
+
+    public static String userInfoTableVersion() {
+        return Constants.REDIS_KEY_USER_INFO + "tableVersion";
+    }
+
+    /**
+     * 用户稠密序号的分桶哈希：vidora:analytics:{analytics}:userIndex:桶号
+     * 每桶约百余个字段，保持 listpack/ziplist 紧凑编码，比一个大哈希节省数倍内存
+     */
+    public static String analyticsUserIndex(String userId) {
+        return Constants.REDIS_KEY_ANALYTICS + ANALYTICS_TAG + ":userIndex:" + ((userId.hashCode() & 0x7fffffff) % ANALYTICS_USER_INDEX_BUCKETS);
+    }
+
+    /**
+     * 已分配的用户序号数
+     */
+    public static String analyticsUserIndexSeq() {
+        return Constants.REDIS_KEY_ANALYTICS + ANALYTICS_TAG + ":userIndexSeq";
+    }
+
+    /**
+     * 当日活跃用户位图，偏移量为用户序号：vidora:analytics:{analytics}:active:yyyyMMdd
+     */
+    public static String analyticsActive(String day) {
+        return Constants.REDIS_KEY_ANALYTICS + ANALYTICS_TAG + ":active:" + day;
+    }
+
+    /**
+     * 当日首次出现（新分配序号）的用户位图，用作留存分析的同期群
+     */
+    public static String analyticsNew(String day) {
+        return Constants.REDIS_KEY_ANALYTICS + ANALYTICS_TAG + ":new:" + day;
+    }
+
+    /**
+     * 当日活跃用户的 HyperLogLog，用于近似去重计数
+     */
+    public static String analyticsUnique(String day) {
+        return Constants.REDIS_KEY_ANALYTICS + ANALYTICS_TAG + ":unique:" + day;
+    }
+
+    /**
+     * 位运算的临时结果键，只在脚本内使用并删除
+     */
+    public static String analyticsTemp() {
+        return Constants.REDIS_KEY_ANALYTICS + ANALYTICS_TAG + ":tmp";
+    }
+
+    /**
+     * 用户看板汇总哈希：vidora:dashboard:userRollup，字段见 UserRollupServiceImpl
+     */
+    public static String dashboardUserRollup() {
+        return Constants.REDIS_KEY_DASHBOARD + "userRollup";
+    }
+
+    /**
+     * 看板汇总对账锁，多实例只有一个执行
+     */
+    public static String dashboardReconcileLock() {
+        return Constants.REDIS_KEY_DASHBOARD + "reconcileLock";
+    }
+}
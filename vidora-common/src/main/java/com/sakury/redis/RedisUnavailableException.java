@@ -0,0 +1,13 @@
+package com.sakury.redis;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+
+/**
+ * Redis 熔断或并发已满时拒绝执行的异常，调用未发送到Redis
+ */
+public class RedisUnavailableException extends DataAccessResourceFailureException {
+
+    public RedisUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -1,15 +1,35 @@
 package com.sakury.redis;
 
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sakury.metrics.RedisCommandMetrics;
+import com.sakury.utils.SampledLogger;
+import io.lettuce.core.RedisCommandTimeoutException;
+import io.lettuce.core.RedisConnectionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
 
+import javax.annotation.PostConstruct;
 import javax.annotation.Resource;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Component("redisUtils")
@@ -18,8 +38,114 @@ public class RedisUtils<V> {
     @Resource
     private RedisTemplate<String, V> redisTemplate;
 
+    @Resource
+    private RedisCommandMetrics redisCommandMetrics;
+
+    @Resource
+    private RedisBulkhead redisBulkhead;
+
+    @Resource
+    private RedisCircuitBreaker redisCircuitBreaker;
+
+    @Resource
+    private HotKeyDetector hotKeyDetector;
+
+    @Value("${redis.hot-key.local-ttl-millis:1000}")
+    private long hotKeyLocalTtlMillis;
+
+    @Value("${redis.hot-key.max-hot-keys:100}")
+    private int maxHotKeys;
+
+    /**
+     * 热点key的本地副本，过期时间很短；本实例写入时立即清除，其他实例写入后最多在过期时间内读到旧值
+     */
+    private Cache<String, V> hotKeyReplica;
+
+    /**
+     * 是否连接Redis集群，集群下多key命令按槽位拆分
+     */
+    private boolean clusterMode;
+
     private static final Logger logger = LoggerFactory.getLogger(RedisUtils.class);
 
+    /**
+     * 调用失败日志，Redis故障时每次调用都会失败，每秒最多输出10条
+     */
+    private static final SampledLogger failureLogger = SampledLogger.of(logger, 10, 1000);
+
+    @PostConstruct
+    public void init() {
+        hotKeyReplica = Caffeine.newBuilder()
+                .maximumSize(maxHotKeys)
+                .expireAfterWrite(hotKeyLocalTtlMillis, TimeUnit.MILLISECONDS)
+                .build();
+        RedisConnectionFactory connectionFactory = redisTemplate.getConnectionFactory();
+        clusterMode = connectionFactory instanceof LettuceConnectionFactory && ((LettuceConnectionFactory) connectionFactory).isClusterAware();
+    }
+
+    public boolean isClusterMode() {
+        return clusterMode;
+    }
+
+    /**
+     * 集群下按槽位拆分为多组，每组可作为一条多key命令发送；单机下整体作为一组
+     */
+    private Collection<List<String>> splitBySlot(Collection<String> keys) {
+        if (!clusterMode) {
+            return Collections.singletonList(keys instanceof List ? (List<String>) keys : new ArrayList<>(keys));
+        }
+        return RedisKeys.groupBySlot(keys).values();
+    }
+
+    /**
+     * 执行Redis命令并按命令类型记录耗时
+     * 并发已满或熔断中时不发送命令，直接抛出 RedisUnavailableException；连接失败与超时计入熔断统计
+     *
+     * @param command 命令类型
+     * @param action  实际调用
+     * @return 调用结果
+     */
+    private <T> T execute(String command, Supplier<T> action) {
+        if (!redisBulkhead.tryAcquire()) {
+            redisCommandMetrics.recordRejected(command, "bulkhead_full");
+            throw new RedisUnavailableException("Redis并发已满，拒绝执行:" + command);
+        }
+        if (!redisCircuitBreaker.tryAcquire()) {
+            redisBulkhead.release();
+            redisCommandMetrics.recordRejected(command, "circuit_open");
+            throw new RedisUnavailableException("Redis熔断中，拒绝执行:" + command);
+        }
+        long start = System.nanoTime();
+        boolean success = false;
+        boolean failure = false;
+        try {
+            T result = action.get();
+            success = true;
+            return result;
+        } catch (RuntimeException e) {
+            failure = isUnavailable(e);
+            throw e;
+        } finally {
+            long elapsedNanos = System.nanoTime() - start;
+            redisBulkhead.release();
+            redisCircuitBreaker.record(elapsedNanos, failure);
+            redisCommandMetrics.record(command, elapsedNanos, success);
+        }
+    }
+
+    /**
+     * 是否为连接失败或超时，命令本身的错误（如脚本错误、类型错误）不计入熔断
+     */
+    private static boolean isUnavailable(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RedisConnectionFailureException || cause instanceof QueryTimeoutException
+                    || cause instanceof RedisCommandTimeoutException || cause instanceof RedisConnectionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * 删除缓存
      *
@@ -27,16 +153,49 @@ public class RedisUtils<V> {
      */
     public void delete(String... key) {
         if (key != null && key.length > 0) {
+            evictHotKeyReplica(Arrays.asList(key));
             if (key.length == 1) {
-                redisTemplate.delete(key[0]);
-            } else {
-                redisTemplate.delete((Collection<String>) CollectionUtils.arrayToList(key));
+                execute("del", () -> redisTemplate.delete(key[0]));
+                return;
             }
+            Collection<List<String>> groups = splitBySlot((Collection<String>) CollectionUtils.arrayToList(key));
+            if (groups.size() == 1) {
+                execute("del", () -> redisTemplate.delete(groups.iterator().next()));
+                return;
+            }
+            //集群下每个槽位一条DEL，在同一管道中发出，由客户端路由到各节点并行执行
+            execute("del", () -> redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, HV> Object execute(RedisOperations<K, HV> operations) {
+                    RedisOperations<String, V> redisOperations = (RedisOperations<String, V>) operations;
+                    groups.forEach(redisOperations::delete);
+                    return null;
+                }
+            }));
         }
     }
 
+    /**
+     * 读取缓存，热点key优先读取本地副本，未命中时从Redis读取并保存副本
+     */
     public V get(String key) {
-        return key == null ? null : redisTemplate.opsForValue().get(key);
+        if (key == null) {
+            return null;
+        }
+        if (!hotKeyDetector.record(key)) {
+            return execute("get", () -> redisTemplate.opsForValue().get(key));
+        }
+        V value = hotKeyReplica.getIfPresent(key);
+        if (value != null) {
+            hotKeyDetector.recordLocalHit(key);
+            return value;
+        }
+        value = execute("get", () -> redisTemplate.opsForValue().get(key));
+        if (value != null) {
+            hotKeyReplica.put(key, value);
+        }
+        return value;
     }
 
     /**
@@ -47,17 +206,240 @@ public class RedisUtils<V> {
      * @return true成功 false失败
      */
     public boolean set(String key, V value) {
+        evictHotKeyReplica(Collections.singletonList(key));
+        try {
+            execute("set", () -> {
+                redisTemplate.opsForValue().set(key, value);
+                return null;
+            });
+            return true;
+        } catch (Exception e) {
+            failureLogger.error("设置redisKey:{}失败", key, e);
+            return false;
+        }
+    }
+
+    /**
+     * 批量获取，返回值与keys顺序一致，不存在的为null
+     * 热点key优先读取本地副本，其余key一次MGET读取，全部命中本地时不访问Redis
+     */
+    public List<V> multiGet(List<String> keys) {
+        List<V> values = new ArrayList<>(Collections.nCopies(keys.size(), (V) null));
+        List<Integer> redisIndexes = new ArrayList<>(keys.size());
+        boolean[] hot = new boolean[keys.size()];
+        for (int i = 0; i < keys.size(); i++) {
+            String key = keys.get(i);
+            hot[i] = hotKeyDetector.record(key);
+            V value = hot[i] ? hotKeyReplica.getIfPresent(key) : null;
+            if (value != null) {
+                hotKeyDetector.recordLocalHit(key);
+                values.set(i, value);
+            } else {
+                redisIndexes.add(i);
+            }
+        }
+        if (redisIndexes.isEmpty()) {
+            return values;
+        }
+        List<String> redisKeys = redisIndexes.size() == keys.size() ? keys
+                : redisIndexes.stream().map(keys::get).collect(Collectors.toList());
+        List<V> redisValues = mget(redisKeys);
+        for (int i = 0; i < redisIndexes.size(); i++) {
+            int index = redisIndexes.get(i);
+            V value = redisValues.get(i);
+            values.set(index, value);
+            if (hot[index] && value != null) {
+                hotKeyReplica.put(keys.get(index), value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * 集群下按槽位拆分为多条MGET，在同一管道中发出，各节点并行执行，一次等待全部结果
+     */
+    @SuppressWarnings("unchecked")
+    private List<V> mget(List<String> keys) {
+        Collection<List<String>> groups = splitBySlot(keys);
+        if (groups.size() == 1) {
+            return execute("mget", () -> redisTemplate.opsForValue().multiGet(keys));
+        }
+        List<Object> groupValues = execute("mget", () -> redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, HV> Object execute(RedisOperations<K, HV> operations) {
+                ValueOperations<String, V> valueOperations = (ValueOperations<String, V>) operations.opsForValue();
+                groups.forEach(valueOperations::multiGet);
+                return null;
+            }
+        }));
+        Map<String, V> valueMap = new HashMap<>(keys.size() * 2);
+        Iterator<List<String>> groupIterator = groups.iterator();
+        for (Object values : groupValues) {
+            List<String> groupKeys = groupIterator.next();
+            List<V> valueList = (List<V>) values;
+            for (int i = 0; i < groupKeys.size(); i++) {
+                valueMap.put(groupKeys.get(i), valueList.get(i));
+            }
+        }
+        return keys.stream().map(valueMap::get).collect(Collectors.toList());
+    }
+
+    /**
+     * 清除热点key的本地副本，供其他实例的变更通知调用
+     */
+    public void evictHotKeyReplica(Collection<?> keys) {
+        if (hotKeyReplica.estimatedSize() > 0) {
+            hotKeyReplica.invalidateAll(keys);
+        }
+    }
+
+    /**
+     * 通过管道批量写入并设置相同的过期时间，一次往返完成
+     *
+     * @param values 键值
+     * @param time   时间(毫秒) 须大于0
+     */
+    public boolean setexBatch(Map<String, V> values, long time) {
+        evictHotKeyReplica(values.keySet());
         try {
-            redisTemplate.opsForValue().set(key, value);
+            execute("setex", () -> redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, HV> Object execute(RedisOperations<K, HV> operations) {
+                    ValueOperations<String, V> valueOperations = (ValueOperations<String, V>) operations.opsForValue();
+                    values.forEach((key, value) -> valueOperations.set(key, value, time, TimeUnit.MILLISECONDS));
+                    return null;
+                }
+            }));
             return true;
         } catch (Exception e) {
-            logger.error("设置redisKey:{},value:{}失败", key, value);
+            failureLogger.error("批量设置redisKey失败，数量:{}", values.size(), e);
             return false;
         }
     }
 
+    /**
+     * 通过管道依次删除、批量写入并发布消息，一次往返完成，服务端按发送顺序执行
+     *
+     * @param deleteKeys 需删除的键
+     * @param values     需写入的键值
+     * @param time       写入的过期时间(毫秒) 须大于0
+     * @param channel    频道
+     * @param message    消息
+     */
+    public void deleteSetexPublish(Collection<String> deleteKeys, Map<String, V> values, long time, String channel, V message) {
+        evictHotKeyReplica(deleteKeys);
+        evictHotKeyReplica(values.keySet());
+        execute("pipeline", () -> redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, HV> Object execute(RedisOperations<K, HV> operations) {
+                RedisOperations<String, V> redisOperations = (RedisOperations<String, V>) operations;
+                splitBySlot(deleteKeys).forEach(redisOperations::delete);
+                values.forEach((key, value) -> redisOperations.opsForValue().set(key, value, time, TimeUnit.MILLISECONDS));
+                redisOperations.convertAndSend(channel, message);
+                return null;
+            }
+        }));
+    }
+
+    /**
+     * 不存在时写入并设置过期时间
+     *
+     * @return true写入成功 false已存在
+     */
+    public boolean setnx(String key, V value, long time) {
+        evictHotKeyReplica(Collections.singletonList(key));
+        return Boolean.TRUE.equals(execute("setnx", () -> redisTemplate.opsForValue().setIfAbsent(key, value, time, TimeUnit.MILLISECONDS)));
+    }
+
+    /**
+     * 通过管道同时获取值与剩余过期时间，一次往返完成
+     *
+     * @return 第一个元素为值，第二个为剩余时间(毫秒)，key不存在时为负数
+     */
+    public List<Object> getWithExpire(String key) {
+        return execute("get", () -> redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, HV> Object execute(RedisOperations<K, HV> operations) {
+                RedisOperations<String, V> redisOperations = (RedisOperations<String, V>) operations;
+                redisOperations.opsForValue().get(key);
+                redisOperations.getExpire(key, TimeUnit.MILLISECONDS);
+                return null;
+            }
+        }));
+    }
+
+    /**
+     * 通过管道批量获取剩余过期时间(毫秒)，返回值与keys顺序一致
+     */
+    public List<Object> getExpireBatch(List<String> keys) {
+        return execute("pttl", () -> redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, HV> Object execute(RedisOperations<K, HV> operations) {
+                RedisOperations<String, V> redisOperations = (RedisOperations<String, V>) operations;
+                keys.forEach(key -> redisOperations.getExpire(key, TimeUnit.MILLISECONDS));
+                return null;
+            }
+        }));
+    }
+
+    /**
+     * 通过管道批量设置相同的过期时间，只修改TTL不重写值
+     *
+     * @param time 时间(毫秒) 须大于0
+     */
+    public void expireBatch(List<String> keys, long time) {
+        execute("pexpire", () -> redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, HV> Object execute(RedisOperations<K, HV> operations) {
+                RedisOperations<String, V> redisOperations = (RedisOperations<String, V>) operations;
+                keys.forEach(key -> redisOperations.expire(key, time, TimeUnit.MILLISECONDS));
+                return null;
+            }
+        }));
+    }
+
+    /**
+     * 执行Lua脚本，字符串参数按UTF-8原样传入，其余参数按值序列化器序列化
+     * 脚本的键须在同一槽位，单机下同样校验，避免部署到集群后才出现 CROSSSLOT 错误
+     *
+     * @param script 脚本，返回值类型须为 Long/Boolean/List 等可直接转换的类型
+     * @param keys   脚本中使用的键
+     * @param args   脚本参数
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T executeScript(RedisScript<T> script, List<String> keys, Object... args) {
+        return executeScript(script, (RedisSerializer<T>) redisTemplate.getValueSerializer(), keys, args);
+    }
+
+    /**
+     * 执行Lua脚本，返回值中的字符串按指定的序列化器转换，如脚本返回的是未经JSON序列化的原始字符串
+     *
+     * @param script           脚本
+     * @param resultSerializer 返回值序列化器
+     * @param keys             脚本中使用的键
+     * @param args             脚本参数
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T executeScript(RedisScript<T> script, RedisSerializer<T> resultSerializer, List<String> keys, Object... args) {
+        if (keys.size() > 1 && RedisKeys.groupBySlot(keys).size() > 1) {
+            throw new IllegalArgumentException("脚本的键不在同一槽位:" + keys);
+        }
+        evictHotKeyReplica(keys);
+        Object[] argBytes = new Object[args.length];
+        for (int i = 0; i < args.length; i++) {
+            argBytes[i] = args[i] instanceof String ? ((String) args[i]).getBytes(StandardCharsets.UTF_8)
+                    : ((RedisSerializer<Object>) redisTemplate.getValueSerializer()).serialize(args[i]);
+        }
+        return execute("evalsha", () -> redisTemplate.execute(script, RedisSerializer.byteArray(), resultSerializer, keys, argBytes));
+    }
+
     public boolean keyExists(String key) {
-        return redisTemplate.hasKey(key);
+        return execute("exists", () -> redisTemplate.hasKey(key));
     }
 
     /**
@@ -69,15 +451,19 @@ public class RedisUtils<V> {
      * @return true成功 false 失败
      */
     public boolean setex(String key, V value, long time) {
+        evictHotKeyReplica(Collections.singletonList(key));
         try {
             if (time > 0) {
-                redisTemplate.opsForValue().set(key, value, time, TimeUnit.MILLISECONDS);
+                execute("setex", () -> {
+                    redisTemplate.opsForValue().set(key, value, time, TimeUnit.MILLISECONDS);
+                    return null;
+                });
             } else {
                 set(key, value);
             }
             return true;
         } catch (Exception e) {
-            logger.error("设置redisKey:{},value:{}失败", key, value);
+            failureLogger.error("设置redisKey:{}失败", key, e);
             return false;
         }
     }
@@ -85,73 +471,104 @@ public class RedisUtils<V> {
     public boolean expire(String key, long time) {
         try {
             if (time > 0) {
-                redisTemplate.expire(key, time, TimeUnit.MILLISECONDS);
+                execute("expire", () -> redisTemplate.expire(key, time, TimeUnit.MILLISECONDS));
             }
             return true;
         } catch (Exception e) {
-            e.printStackTrace();
+            failureLogger.error("设置redisKey:{}过期时间失败", key, e);
             return false;
         }
     }
 
 
     public List<V> getQueueList(String key) {
-        return redisTemplate.opsForList().range(key, 0, -1);
+        return execute("lrange", () -> redisTemplate.opsForList().range(key, 0, -1));
     }
 
 
     public boolean lpush(String key, V value, Long time) {
         try {
-            redisTemplate.opsForList().leftPush(key, value);
+            execute("lpush", () -> redisTemplate.opsForList().leftPush(key, value));
             if (time != null && time > 0) {
                 expire(key, time);
             }
             return true;
         } catch (Exception e) {
-            e.printStackTrace();
+            failureLogger.error("写入列表redisKey:{}失败", key, e);
             return false;
         }
     }
 
     public long remove(String key, Object value) {
         try {
-            Long remove = redisTemplate.opsForList().remove(key, 1, value);
+            Long remove = execute("lrem", () -> redisTemplate.opsForList().remove(key, 1, value));
             return remove;
         } catch (Exception e) {
-            e.printStackTrace();
+            failureLogger.error("删除列表元素redisKey:{}失败", key, e);
             return 0;
         }
     }
 
+    /**
+     * 左侧写入并截断列表，只保留最新的 size 个元素
+     */
+    public boolean lpushTrim(String key, V value, long size, long time) {
+        try {
+            execute("lpush", () -> redisTemplate.opsForList().leftPush(key, value));
+            execute("ltrim", () -> {
+                redisTemplate.opsForList().trim(key, 0, size - 1);
+                return null;
+            });
+            if (time > 0) {
+                expire(key, time);
+            }
+            return true;
+        } catch (Exception e) {
+            failureLogger.error("写入列表redisKey:{}失败", key, e);
+            return false;
+        }
+    }
+
     public boolean lpushAll(String key, List<V> values, long time) {
         try {
-            redisTemplate.opsForList().leftPushAll(key, values);
+            execute("lpush", () -> redisTemplate.opsForList().leftPushAll(key, values));
             if (time > 0) {
                 expire(key, time);
             }
             return true;
         } catch (Exception e) {
-            e.printStackTrace();
+            failureLogger.error("写入列表redisKey:{}失败", key, e);
             return false;
         }
     }
 
     public V rpop(String key) {
         try {
-            return redisTemplate.opsForList().rightPop(key);
+            return execute("rpop", () -> redisTemplate.opsForList().rightPop(key));
         } catch (Exception e) {
-            e.printStackTrace();
+            failureLogger.error("读取列表redisKey:{}失败", key, e);
             return null;
         }
     }
 
     public Long increment(String key) {
-        Long count = redisTemplate.opsForValue().increment(key, 1);
+        Long count = execute("incrby", () -> redisTemplate.opsForValue().increment(key, 1));
         return count;
     }
 
+    /**
+     * 多个 HyperLogLog 合并后的近似基数（PFCOUNT），集群下各键须在同一槽位
+     */
+    public long pfcount(Collection<String> keys) {
+        if (keys.size() > 1 && RedisKeys.groupBySlot(keys).size() > 1) {
+            throw new IllegalArgumentException("PFCOUNT的键不在同一槽位:" + keys);
+        }
+        Long count = execute("pfcount", () -> redisTemplate.opsForHyperLogLog().size(keys.toArray(new String[0])));
+        return count == null ? 0 : count;
+    }
+
     public Long incrementex(String key, long milliseconds) {
-        Long count = redisTemplate.opsForValue().increment(key, 1);
+        Long count = execute("incrby", () -> redisTemplate.opsForValue().increment(key, 1));
         if (count == 1) {
             //设置过期时间1天
             expire(key, milliseconds);
@@ -160,37 +577,111 @@ public class RedisUtils<V> {
     }
 
     public Long decrement(String key) {
-        Long count = redisTemplate.opsForValue().increment(key, -1);
+        Long count = execute("incrby", () -> redisTemplate.opsForValue().increment(key, -1));
         if (count <= 0) {
-            redisTemplate.delete(key);
+            execute("del", () -> redisTemplate.delete(key));
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("key:{},减少数量{}", key, count);
         }
-        logger.info("key:{},减少数量{}", key, count);
         return count;
     }
 
 
     public Set<String> getByKeyPrefix(String keyPrifix) {
-        Set<String> keyList = redisTemplate.keys(keyPrifix + "*");
+        Set<String> keyList = execute("keys", () -> redisTemplate.keys(keyPrifix + "*"));
         return keyList;
     }
 
 
+    /**
+     * 按前缀读取全部键值，集群下KEYS在各主节点执行后合并，MGET按槽位拆分
+     */
     public Map<String, V> getBatch(String keyPrifix) {
-        Set<String> keySet = redisTemplate.keys(keyPrifix + "*");
+        Set<String> keySet = execute("keys", () -> redisTemplate.keys(keyPrifix + "*"));
         List<String> keyList = new ArrayList<>(keySet);
-        List<V> keyValueList = redisTemplate.opsForValue().multiGet(keyList);
-        Map<String, V> resultMap = keyList.stream().collect(Collectors.toMap(key -> key, value -> keyValueList.get(keyList.indexOf(value))));
+        if (keyList.isEmpty()) {
+            return new HashMap<>();
+        }
+        List<V> keyValueList = mget(keyList);
+        Map<String, V> resultMap = new HashMap<>(keyList.size() * 2);
+        for (int i = 0; i < keyList.size(); i++) {
+            resultMap.put(keyList.get(i), keyValueList.get(i));
+        }
         return resultMap;
     }
 
     public void zaddCount(String key, V v) {
-        redisTemplate.opsForZSet().incrementScore(key, v, 1);
+        execute("zincrby", () -> redisTemplate.opsForZSet().incrementScore(key, v, 1));
     }
 
 
+    public boolean zadd(String key, V value, double score, long time) {
+        try {
+            execute("zadd", () -> redisTemplate.opsForZSet().add(key, value, score));
+            if (time > 0) {
+                expire(key, time);
+            }
+            return true;
+        } catch (Exception e) {
+            failureLogger.error("设置redisKey:{}失败", key, e);
+            return false;
+        }
+    }
+
+    public Long zremRangeByScore(String key, double min, double max) {
+        return execute("zremrangebyscore", () -> redisTemplate.opsForZSet().removeRangeByScore(key, min, max));
+    }
+
+    public Set<ZSetOperations.TypedTuple<V>> zrangeByScoreWithScores(String key, double min, double max) {
+        return execute("zrangebyscore", () -> redisTemplate.opsForZSet().rangeByScoreWithScores(key, min, max));
+    }
+
     public List<V> getZSetList(String key, Integer count) {
-        Set<V> topElements = redisTemplate.opsForZSet().reverseRange(key, 0, count);
+        Set<V> topElements = execute("zrevrange", () -> redisTemplate.opsForZSet().reverseRange(key, 0, count));
         List<V> list = new ArrayList<>(topElements);
         return list;
     }
+
+    /**
+     * 向频道发布消息
+     */
+    public void publish(String channel, V message) {
+        execute("publish", () -> {
+            redisTemplate.convertAndSend(channel, message);
+            return null;
+        });
+    }
+
+    public boolean hset(String key, String field, V value, long time) {
+        try {
+            execute("hset", () -> {
+                redisTemplate.opsForHash().put(key, field, value);
+                return null;
+            });
+            if (time > 0) {
+                expire(key, time);
+            }
+            return true;
+        } catch (Exception e) {
+            failureLogger.error("设置redisKey:{},field:{}失败", key, field, e);
+            return false;
+        }
+    }
+
+    public Map<String, V> hgetAll(String key) {
+        return execute("hgetall", () -> redisTemplate.<String, V>opsForHash().entries(key));
+    }
+
+    public Set<String> hkeys(String key) {
+        return execute("hkeys", () -> redisTemplate.<String, V>opsForHash().keys(key));
+    }
+
+    public Long hdel(String key, String... fields) {
+        return execute("hdel", () -> redisTemplate.opsForHash().delete(key, (Object[]) fields));
+    }
+
+    public List<V> hvals(String key) {
+        return execute("hvals", () -> redisTemplate.<String, V>opsForHash().values(key));
+    }
 }
@@ -0,0 +1,43 @@
+package com.sakury.service;
+
+import com.sakury.entity.dto.ActiveUserStatsDto;
+import com.sakury.entity.dto.DayOverDayDto;
+import com.sakury.entity.dto.RetentionDto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+
+/**
+ * 活跃用户统计 业务接口
+ * <p>
+ * 数据全部在Redis中（按日位图与HyperLogLog），查询不访问数据库
+ */
+public interface ActiveUserService {
+
+    /**
+     * 记录用户今日活跃，不访问Redis，由后台定时批量写入，失败只记录日志，不影响调用方
+     *
+     * @param userId 用户id
+     */
+    void recordActive(String userId);
+
+    /**
+     * 截至某日的日/周/月活跃用户数
+     */
+    ActiveUserStatsDto getActiveUserStats(LocalDate date);
+
+    /**
+     * 以 cohortDate 为最后一日的连续 cohortCount 个同期群的留存
+     *
+     * @param cohortDate  最后一个同期群的日期
+     * @param cohortCount 同期群个数
+     * @param days        第N天，如 1、7、30
+     */
+    List<RetentionDto> getRetention(LocalDate cohortDate, int cohortCount, List<Integer> days);
+
+    /**
+     * 当日与前一日活跃用户对比
+     */
+    DayOverDayDto getDayOverDay(LocalDate date);
+}
@@ -0,0 +1,21 @@
+package com.sakury.service;
+
+import com.sakury.entity.dto.HotKeyStatDto;
+
+import java.util.List;
+
+
+/**
+ * Redis热点key统计 业务接口
+ */
+public interface HotKeyService {
+
+    /**
+     * 汇总应用各实例上报的热点key，QPS按实例累加，按QPS倒序取前N条
+     *
+     * @param appName 应用名
+     * @param hotOnly 是否只返回已升级的热点key
+     * @param top     条数
+     */
+    List<HotKeyStatDto> findHotKeyList(String appName, Boolean hotOnly, Integer top);
+}
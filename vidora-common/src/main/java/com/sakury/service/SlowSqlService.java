@@ -0,0 +1,21 @@
+package com.sakury.service;
+
+import com.sakury.entity.dto.SlowSqlStatDto;
+
+import java.util.List;
+
+
+/**
+ * 慢SQL统计 业务接口
+ */
+public interface SlowSqlService {
+
+    /**
+     * 汇总应用各实例上报的指纹统计，按指定维度倒序取前N条
+     *
+     * @param appName   应用名
+     * @param orderType 排序维度 total/avg/max/p99/count/slow
+     * @param top       条数
+     */
+    List<SlowSqlStatDto> findTopList(String appName, String orderType, Integer top);
+}
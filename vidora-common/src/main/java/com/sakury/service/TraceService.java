@@ -0,0 +1,27 @@
+package com.sakury.service;
+
+import com.sakury.entity.dto.TraceDto;
+
+import java.util.List;
+
+
+/**
+ * 调用链 业务接口
+ */
+public interface TraceService {
+
+    /**
+     * 查询最近的调用链，最新的在前，列表中不含片段明细
+     *
+     * @param appName 应用名
+     * @param uri     请求路径模式，为空时不过滤
+     * @param reason  导出原因 sampled/slow/error，为空时不过滤
+     * @param limit   条数
+     */
+    List<TraceDto> findTraceList(String appName, String uri, String reason, Integer limit);
+
+    /**
+     * 根据traceId查询调用链，含片段明细
+     */
+    TraceDto getTraceByTraceId(String appName, String traceId);
+}
@@ -0,0 +1,24 @@
+package com.sakury.service;
+
+import com.sakury.entity.enums.ExportFormatEnum;
+import com.sakury.entity.query.UserInfoQuery;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+
+/**
+ * 用户信息导出 业务接口
+ */
+public interface UserInfoExportService {
+
+    /**
+     * 按条件流式导出，不含密码；分页参数被忽略
+     *
+     * @param query  查询条件
+     * @param format 导出格式
+     * @param output 输出流，由调用方关闭
+     * @return 导出行数
+     */
+    long exportUserInfo(UserInfoQuery query, ExportFormatEnum format, OutputStream output) throws IOException;
+}
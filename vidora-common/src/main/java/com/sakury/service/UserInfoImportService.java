@@ -0,0 +1,43 @@
+package com.sakury.service;
+
+import com.sakury.entity.dto.ImportTaskDto;
+import com.sakury.entity.enums.ImportFormatEnum;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+
+/**
+ * 用户信息批量导入 业务接口
+ */
+public interface UserInfoImportService {
+
+    /**
+     * 同步导入，逐行读取输入流，按批次提交
+     *
+     * @param input     输入流，由调用方关闭
+     * @param format    数据格式
+     * @param upsert    存在则更新
+     * @param batchSize 每批行数，为空时使用配置值
+     * @return 导入结果
+     */
+    ImportTaskDto importUserInfo(InputStream input, ImportFormatEnum format, Boolean upsert, Integer batchSize) throws IOException;
+
+    /**
+     * 提交后台导入任务，进度保存在Redis，导入结束后删除文件
+     *
+     * @param file      已落盘的导入文件
+     * @param fileName  原始文件名
+     * @param format    数据格式
+     * @param upsert    存在则更新
+     * @param batchSize 每批行数，为空时使用配置值
+     * @return 任务信息，包含taskId
+     */
+    ImportTaskDto submitImport(File file, String fileName, ImportFormatEnum format, Boolean upsert, Integer batchSize);
+
+    /**
+     * 查询导入任务进度
+     */
+    ImportTaskDto getImportTask(String taskId);
+}
@@ -4,6 +4,7 @@ import java.util.List;
 
 import com.sakury.entity.dto.UserInfoTokenDto;
 import com.sakury.entity.query.UserInfoQuery;
+import com.sakury.entity.enums.UserInfoFieldSetEnum;
 import com.sakury.entity.po.UserInfo;
 import com.sakury.entity.vo.PaginationResultVO;
 
@@ -54,9 +55,28 @@ public interface UserInfoService {
     Integer deleteByParam(UserInfoQuery param);
 
     /**
-     * 根据UserId查询对象
+     * 根据UserId查询对象，fieldSet为空时查询全部列
      */
-    UserInfo getUserInfoByUserId(String userId);
+    UserInfo getUserInfoByUserId(String userId, UserInfoFieldSetEnum fieldSet);
+
+
+    /**
+     * 根据UserId批量查询，先批量读缓存，未命中的合并为IN查询后回填缓存
+     * 按传入顺序返回，重复的userId只返回一次，不存在的忽略；fieldSet为空时按DETAIL处理
+     */
+    List<UserInfo> getUserInfoByUserIds(List<String> userIds, UserInfoFieldSetEnum fieldSet);
+
+
+    /**
+     * 获取用户的数据版本，用户信息变更后改变
+     */
+    String getUserInfoVersion(String userId);
+
+
+    /**
+     * 获取用户表的数据版本，任一用户变更后改变
+     */
+    String getUserInfoTableVersion();
 
 
     /**
@@ -72,9 +92,9 @@ public interface UserInfoService {
 
 
     /**
-     * 根据Email查询对象
+     * 根据Email查询对象，fieldSet为空时查询全部列
      */
-    UserInfo getUserInfoByEmail(String email);
+    UserInfo getUserInfoByEmail(String email, UserInfoFieldSetEnum fieldSet);
 
 
     /**
@@ -90,9 +110,9 @@ public interface UserInfoService {
 
 
     /**
-     * 根据NickName查询对象
+     * 根据NickName查询对象，fieldSet为空时查询全部列
      */
-    UserInfo getUserInfoByNickName(String nickName);
+    UserInfo getUserInfoByNickName(String nickName, UserInfoFieldSetEnum fieldSet);
 
 
     /**
@@ -114,5 +134,10 @@ public interface UserInfoService {
     /**
      * 用户登录
      */
-    UserInfoTokenDto login(String email, String password, String ip);
+    UserInfoTokenDto login(String email, String password, String ip, String userAgent, String oldToken);
+
+    /**
+     * 修改用户状态，禁用时注销其全部会话
+     */
+    void changeUserStatus(String userId, Integer status);
 }
\ No newline at end of file
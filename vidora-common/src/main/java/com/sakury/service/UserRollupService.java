@@ -0,0 +1,67 @@
+package com.sakury.service;
+
+import com.sakury.entity.dto.UserDashboardDto;
+import com.sakury.entity.po.UserInfo;
+
+import java.util.List;
+
+
+/**
+ * 用户看板汇总 业务接口
+ * <p>
+ * 汇总在写入用户数据时增量更新，每晚与数据库对账一次，看板读取不访问数据库
+ */
+public interface UserRollupService {
+
+    /**
+     * 新用户注册或新增后计入汇总，注册人数按行的注册时间计入，失败只记录日志，由对账修正
+     */
+    void onRegister(UserInfo userInfo);
+
+    /**
+     * 用户状态变更后调整各状态人数，失败只记录日志，由对账修正
+     */
+    void onStatusChange(Integer oldStatus, Integer newStatus);
+
+    /**
+     * 用户数据修改后按修改前后的差值调整汇总（状态、性别、硬币、注册日），失败只记录日志，由对账修正
+     *
+     * @param before 修改前的行，须包含状态、性别、硬币数与注册时间；为空时不处理
+     * @param after  修改后的行
+     */
+    void onUpdate(UserInfo before, UserInfo after);
+
+    /**
+     * 用户删除后从汇总中减去，失败只记录日志，由对账修正
+     *
+     * @param before 删除前的行，须包含状态、性别、硬币数与注册时间；为空时不处理
+     */
+    void onDelete(UserInfo before);
+
+    /**
+     * 批量新增/修改/删除后合并为一次更新，两个列表按下标对应：before 为空表示新增，after 为空表示删除
+     *
+     * @param beforeList 修改前的行
+     * @param afterList  修改后的行
+     */
+    void onBatchChange(List<UserInfo> beforeList, List<UserInfo> afterList);
+
+    /**
+     * 读取看板
+     *
+     * @param days 返回最近多少天的注册人数
+     */
+    UserDashboardDto getDashboard(int days);
+
+    /**
+     * 按数据库重新计算并整体替换汇总
+     */
+    void reconcile();
+
+    /**
+     * 获取对账锁后在后台线程执行对账，与每晚的定时对账互斥
+     *
+     * @return 是否已提交；对账正在进行（锁被占用）时返回false
+     */
+    boolean submitReconcile();
+}
@@ -0,0 +1,193 @@
+package com.sakury.service.impl;
+
+import com.sakury.component.RedisComponent;
+import com.sakury.entity.constants.Constants;
+import com.sakury.entity.dto.ActiveUserStatsDto;
+import com.sakury.entity.dto.DayOverDayDto;
+import com.sakury.entity.dto.RetentionDto;
+import com.sakury.redis.RedisKeys;
+import com.sakury.service.ActiveUserService;
+import com.sakury.utils.SampledLogger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+
+/**
+ * 活跃用户统计 业务接口实现
+ * <p>
+ * 用户首次活跃时分配从0开始的稠密序号，每日一个以序号为偏移量的位图，千万用户每日约1.2MB；
+ * 日/周/月活跃为对应日期位图的 BITOP OR 后 BITCOUNT，耗时只与位图大小有关，与记录条数无关，同时以 HyperLogLog 给出近似值。
+ * 同期群为当日首次出现（新分配序号）的用户，上线前已有的用户在首次活跃当天计入同期群。
+ * 记录活跃只写入本地待写集合，由定时任务按 analytics.flush-interval-ms 批量写入Redis，登录、自动登录不因此多一次Redis往返，
+ * 同一用户在一个周期内多次活跃只写一次；每 analytics.flush-batch-size 个用户一次脚本调用，写入失败的用户放回待写集合下周期重试
+ */
+@Service("activeUserService")
+public class ActiveUserServiceImpl implements ActiveUserService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActiveUserServiceImpl.class);
+
+    private static final SampledLogger recordFailureLogger = SampledLogger.of(logger, 10, 1000);
+
+    private static final int WEEK_DAYS = 7;
+
+    private static final int MONTH_DAYS = 30;
+
+    private static final String OPERATION_AND = "AND";
+
+    private static final String OPERATION_OR = "OR";
+
+    @Resource
+    private RedisComponent redisComponent;
+
+    /**
+     * 日期 -> 待写入的userId
+     */
+    private final Map<String, Set<String>> pendingMap = new ConcurrentHashMap<>();
+
+    @Value("${analytics.retention-days:120}")
+    private int retentionDays;
+
+    @Value("${analytics.flush-batch-size:500}")
+    private int flushBatchSize;
+
+    @Override
+    public void recordActive(String userId) {
+        pendingMap.computeIfAbsent(toDay(LocalDate.now()), day -> ConcurrentHashMap.newKeySet()).add(userId);
+    }
+
+    /**
+     * 待写集合取出后按批写入Redis，写入期间新记录的活跃留到下一周期；
+     * 某批写入失败时该批及之后未写的用户放回待写集合并结束本次写入，Redis恢复后由下一周期补写；已过去日期的空集合一并移除
+     */
+    @Scheduled(fixedDelayString = "${analytics.flush-interval-ms:1000}", initialDelayString = "${analytics.flush-interval-ms:1000}")
+    @PreDestroy
+    public void flush() {
+        String today = toDay(LocalDate.now());
+        long expireMillis = (long) retentionDays * Constants.REDIS_KEY_EXPIRES_ONE_DAY;
+        for (Map.Entry<String, Set<String>> entry : pendingMap.entrySet()) {
+            List<String> userIds = drain(entry.getValue());
+            for (int from = 0; from < userIds.size(); from += flushBatchSize) {
+                List<String> batch = userIds.subList(from, Math.min(from + flushBatchSize, userIds.size()));
+                try {
+                    redisComponent.recordActiveUsers(batch, entry.getKey(), expireMillis);
+                } catch (Exception e) {
+                    recordFailureLogger.warn("记录活跃用户失败，{}个用户放回待写集合，日期:{}", userIds.size() - from, entry.getKey(), e);
+                    pendingMap.computeIfAbsent(entry.getKey(), day -> ConcurrentHashMap.newKeySet()).addAll(userIds.subList(from, userIds.size()));
+                    return;
+                }
+            }
+            if (!entry.getKey().equals(today)) {
+                pendingMap.computeIfPresent(entry.getKey(), (day, pending) -> pending.isEmpty() ? null : pending);
+            }
+        }
+    }
+
+    /**
+     * 逐个移除并取出待写用户，取出后新加入的留在集合中
+     */
+    private static List<String> drain(Set<String> pending) {
+        List<String> userIds = new ArrayList<>(pending.size());
+        Iterator<String> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            userIds.add(iterator.next());
+            iterator.remove();
+        }
+        return userIds;
+    }
+
+    @Override
+    public ActiveUserStatsDto getActiveUserStats(LocalDate date) {
+        ActiveUserStatsDto stats = new ActiveUserStatsDto();
+        stats.setDate(date.toString());
+        stats.setDau(redisComponent.countBitmap(OPERATION_OR, lastDays(date, 1, RedisKeys::analyticsActive)));
+        stats.setWau(redisComponent.countBitmap(OPERATION_OR, lastDays(date, WEEK_DAYS, RedisKeys::analyticsActive)));
+        stats.setMau(redisComponent.countBitmap(OPERATION_OR, lastDays(date, MONTH_DAYS, RedisKeys::analyticsActive)));
+        stats.setApproxDau(redisComponent.countUnique(lastDays(date, 1, RedisKeys::analyticsUnique)));
+        stats.setApproxWau(redisComponent.countUnique(lastDays(date, WEEK_DAYS, RedisKeys::analyticsUnique)));
+        stats.setApproxMau(redisComponent.countUnique(lastDays(date, MONTH_DAYS, RedisKeys::analyticsUnique)));
+        stats.setNewUsers(redisComponent.countBitmap(OPERATION_OR, lastDays(date, 1, RedisKeys::analyticsNew)));
+        stats.setTotalUsers(redisComponent.getIndexedUserCount());
+        return stats;
+    }
+
+    @Override
+    public List<RetentionDto> getRetention(LocalDate cohortDate, int cohortCount, List<Integer> days) {
+        LocalDate today = LocalDate.now();
+        List<RetentionDto> result = new ArrayList<>(cohortCount);
+        for (int i = cohortCount - 1; i >= 0; i--) {
+            LocalDate cohort = cohortDate.minusDays(i);
+            String cohortKey = RedisKeys.analyticsNew(toDay(cohort));
+            long cohortSize = redisComponent.countBitmap(OPERATION_OR, Arrays.asList(cohortKey));
+            Map<Integer, Long> retained = new LinkedHashMap<>();
+            Map<Integer, Double> rates = new LinkedHashMap<>();
+            for (Integer day : days) {
+                LocalDate target = cohort.plusDays(day);
+                if (target.isAfter(today)) {
+                    continue;
+                }
+                long count = cohortSize == 0 ? 0
+                        : redisComponent.countBitmap(OPERATION_AND, Arrays.asList(cohortKey, RedisKeys.analyticsActive(toDay(target))));
+                retained.put(day, count);
+                rates.put(day, cohortSize == 0 ? 0 : (double) count / cohortSize);
+            }
+            RetentionDto retention = new RetentionDto();
+            retention.setCohortDate(cohort.toString());
+            retention.setCohortSize(cohortSize);
+            retention.setRetained(retained);
+            retention.setRates(rates);
+            result.add(retention);
+        }
+        return result;
+    }
+
+    @Override
+    public DayOverDayDto getDayOverDay(LocalDate date) {
+        String activeKey = RedisKeys.analyticsActive(toDay(date));
+        String previousKey = RedisKeys.analyticsActive(toDay(date.minusDays(1)));
+        long dau = redisComponent.countBitmap(OPERATION_OR, Arrays.asList(activeKey));
+        long previousDau = redisComponent.countBitmap(OPERATION_OR, Arrays.asList(previousKey));
+        long retained = redisComponent.countBitmap(OPERATION_AND, Arrays.asList(activeKey, previousKey));
+        DayOverDayDto dayOverDay = new DayOverDayDto();
+        dayOverDay.setDate(date.toString());
+        dayOverDay.setDau(dau);
+        dayOverDay.setPreviousDau(previousDau);
+        dayOverDay.setChange(dau - previousDau);
+        dayOverDay.setChangeRate(previousDau == 0 ? null : (double) (dau - previousDau) / previousDau);
+        dayOverDay.setRetained(retained);
+        dayOverDay.setNewUsers(redisComponent.countBitmap(OPERATION_OR, Arrays.asList(RedisKeys.analyticsNew(toDay(date)))));
+        dayOverDay.setChurned(previousDau - retained);
+        return dayOverDay;
+    }
+
+    /**
+     * 截至 date 的最近 count 天的键
+     */
+    private static List<String> lastDays(LocalDate date, int count, Function<String, String> keyFunction) {
+        List<String> keys = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            keys.add(keyFunction.apply(toDay(date.minusDays(i))));
+        }
+        return keys;
+    }
+
+    private static String toDay(LocalDate date) {
+        return date.format(DateTimeFormatter.BASIC_ISO_DATE);
+    }
+}
@@ -0,0 +1,100 @@
+package com.sakury.service.impl;
+
+import com.sakury.component.RedisComponent;
+import com.sakury.entity.dto.HotKeyReportDto;
+import com.sakury.entity.dto.HotKeyStatDto;
+import com.sakury.redis.HotKeyDetector;
+import com.sakury.service.HotKeyService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.Resource;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+
+/**
+ * Redis热点key统计 业务接口实现
+ */
+@Service("hotKeyService")
+public class HotKeyServiceImpl implements HotKeyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotKeyServiceImpl.class);
+
+    private static final int MAX_TOP = 200;
+
+    @Resource
+    private RedisComponent redisComponent;
+
+    @Resource
+    private HotKeyDetector hotKeyDetector;
+
+    /**
+     * 超过两个上报周期未更新的实例视为已下线
+     */
+    @Value("${redis.hot-key.report-interval-ms:10000}")
+    private long reportIntervalMs;
+
+    @Override
+    public List<HotKeyStatDto> findHotKeyList(String appName, Boolean hotOnly, Integer top) {
+        int limit = top == null || top <= 0 ? 50 : Math.min(top, MAX_TOP);
+        long activeAfter = System.currentTimeMillis() - reportIntervalMs * 2;
+        Map<String, HotKeyStatDto> merged = new LinkedHashMap<>();
+        for (HotKeyReportDto report : redisComponent.getHotKeyReportList(appName)) {
+            if (report.getReportTime() == null || report.getReportTime() < activeAfter || report.getStats() == null) {
+                continue;
+            }
+            for (HotKeyStatDto stat : report.getStats()) {
+                merged.merge(stat.getKey(), stat, this::mergeStat);
+            }
+        }
+        return merged.values().stream()
+                .filter(stat -> !Boolean.TRUE.equals(hotOnly) || stat.getHot())
+                .sorted(Comparator.comparing(HotKeyStatDto::getQps).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 合并不同实例的同一key，任一实例已升级即视为热点
+     */
+    private HotKeyStatDto mergeStat(HotKeyStatDto a, HotKeyStatDto b) {
+        HotKeyStatDto stat = new HotKeyStatDto();
+        stat.setKey(a.getKey());
+        stat.setQps(a.getQps() + b.getQps());
+        stat.setHot(a.getHot() || b.getHot());
+        if (a.getPromoteTime() == null || b.getPromoteTime() == null) {
+            stat.setPromoteTime(a.getPromoteTime() == null ? b.getPromoteTime() : a.getPromoteTime());
+        } else {
+            stat.setPromoteTime(Math.min(a.getPromoteTime(), b.getPromoteTime()));
+        }
+        stat.setLocalHitCount(a.getLocalHitCount() + b.getLocalHitCount());
+        stat.setInstanceCount(a.getInstanceCount() + b.getInstanceCount());
+        return stat;
+    }
+
+    /**
+     * 定时上报当前实例的统计，没有候选key时跳过
+     */
+    @Scheduled(fixedDelayString = "${redis.hot-key.report-interval-ms:10000}", initialDelayString = "${redis.hot-key.report-interval-ms:10000}")
+    public void publish() {
+        if (!hotKeyDetector.isEnabled()) {
+            return;
+        }
+        HotKeyReportDto report = hotKeyDetector.getReport();
+        if (report.getStats().isEmpty()) {
+            return;
+        }
+        try {
+            redisComponent.saveHotKeyReport(report);
+        } catch (Exception e) {
+            logger.warn("上报热点key统计失败", e);
+        }
+    }
+}
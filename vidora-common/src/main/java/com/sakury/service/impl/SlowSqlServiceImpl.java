@@ -0,0 +1,103 @@
+package com.sakury.service.impl;
+
+import com.sakury.component.RedisComponent;
+import com.sakury.entity.dto.SlowSqlReportDto;
+import com.sakury.entity.dto.SlowSqlSampleDto;
+import com.sakury.entity.dto.SlowSqlStatDto;
+import com.sakury.exception.BusinessException;
+import com.sakury.service.SlowSqlService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+
+/**
+ * 慢SQL统计 业务接口实现
+ */
+@Service("slowSqlService")
+public class SlowSqlServiceImpl implements SlowSqlService {
+
+    private static final int MAX_TOP = 100;
+
+    private static final int MAX_SAMPLES = 10;
+
+    private static final Map<String, Function<SlowSqlStatDto, Double>> ORDER_TYPES = new LinkedHashMap<>();
+
+    static {
+        ORDER_TYPES.put("total", SlowSqlStatDto::getTotalMs);
+        ORDER_TYPES.put("avg", SlowSqlStatDto::getAvgMs);
+        ORDER_TYPES.put("max", SlowSqlStatDto::getMaxMs);
+        ORDER_TYPES.put("p99", SlowSqlStatDto::getP99Ms);
+        ORDER_TYPES.put("count", stat -> stat.getCount().doubleValue());
+        ORDER_TYPES.put("slow", stat -> stat.getSlowCount().doubleValue());
+    }
+
+    @Resource
+    private RedisComponent redisComponent;
+
+    /**
+     * 超过两个上报周期未更新的实例视为已下线
+     */
+    @Value("${slow-sql.report-interval-ms:30000}")
+    private long reportIntervalMs;
+
+    @Override
+    public List<SlowSqlStatDto> findTopList(String appName, String orderType, Integer top) {
+        Function<SlowSqlStatDto, Double> orderBy = ORDER_TYPES.get(orderType == null ? "total" : orderType);
+        if (orderBy == null) {
+            throw new BusinessException("排序维度仅支持:" + String.join("/", ORDER_TYPES.keySet()));
+        }
+        int limit = top == null || top <= 0 ? 20 : Math.min(top, MAX_TOP);
+
+        long activeAfter = System.currentTimeMillis() - reportIntervalMs * 2;
+        Map<String, SlowSqlStatDto> merged = new LinkedHashMap<>();
+        for (SlowSqlReportDto report : redisComponent.getSlowSqlReportList(appName)) {
+            if (report.getReportTime() == null || report.getReportTime() < activeAfter || report.getStats() == null) {
+                continue;
+            }
+            for (SlowSqlStatDto stat : report.getStats()) {
+                merged.merge(stat.getFingerprintId(), stat, this::mergeStat);
+            }
+        }
+        return merged.values().stream()
+                .sorted(Comparator.comparing(orderBy).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 合并不同实例的同一指纹，百分位取各实例最大值作为近似
+     */
+    private SlowSqlStatDto mergeStat(SlowSqlStatDto a, SlowSqlStatDto b) {
+        SlowSqlStatDto stat = new SlowSqlStatDto();
+        stat.setFingerprintId(a.getFingerprintId());
+        stat.setStatementId(a.getStatementId());
+        stat.setFingerprint(a.getFingerprint());
+        stat.setCount(a.getCount() + b.getCount());
+        stat.setSlowCount(a.getSlowCount() + b.getSlowCount());
+        stat.setTotalMs(a.getTotalMs() + b.getTotalMs());
+        stat.setAvgMs(stat.getTotalMs() / stat.getCount());
+        stat.setMaxMs(Math.max(a.getMaxMs(), b.getMaxMs()));
+        stat.setP95Ms(Math.max(a.getP95Ms(), b.getP95Ms()));
+        stat.setP99Ms(Math.max(a.getP99Ms(), b.getP99Ms()));
+        List<SlowSqlSampleDto> samples = new ArrayList<>();
+        if (a.getSamples() != null) {
+            samples.addAll(a.getSamples());
+        }
+        if (b.getSamples() != null) {
+            samples.addAll(b.getSamples());
+        }
+        samples.sort(Comparator.comparing(SlowSqlSampleDto::getTime).reversed());
+        stat.setSamples(samples.size() > MAX_SAMPLES ? new ArrayList<>(samples.subList(0, MAX_SAMPLES)) : samples);
+        stat.setExplain(a.getExplain() != null ? a.getExplain() : b.getExplain());
+        return stat;
+    }
+}
@@ -0,0 +1,44 @@
+package com.sakury.service.impl;
+
+import com.sakury.component.RedisComponent;
+import com.sakury.entity.dto.TraceDto;
+import com.sakury.entity.enums.ResponseCodeEnum;
+import com.sakury.exception.BusinessException;
+import com.sakury.service.TraceService;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.Resource;
+import java.util.List;
+import java.util.stream.Collectors;
+
+
+/**
+ * 调用链 业务接口实现
+ */
+@Service("traceService")
+public class TraceServiceImpl implements TraceService {
+
+    private static final int MAX_LIMIT = 200;
+
+    @Resource
+    private RedisComponent redisComponent;
+
+    @Override
+    public List<TraceDto> findTraceList(String appName, String uri, String reason, Integer limit) {
+        int size = limit == null || limit <= 0 ? 50 : Math.min(limit, MAX_LIMIT);
+        return redisComponent.getTraceList(appName).stream()
+                .filter(trace -> uri == null || uri.equals(trace.getUri()))
+                .filter(trace -> reason == null || reason.equals(trace.getReason()))
+                .limit(size)
+                .peek(trace -> trace.setSpans(null))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public TraceDto getTraceByTraceId(String appName, String traceId) {
+        return redisComponent.getTraceList(appName).stream()
+                .filter(trace -> trace.getTraceId().equals(traceId))
+                .findFirst()
+                .orElseThrow(() -> new BusinessException(ResponseCodeEnum.CODE_404));
+    }
+}
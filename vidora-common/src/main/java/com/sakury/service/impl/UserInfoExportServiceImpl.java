@@ -0,0 +1,86 @@
+package com.sakury.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sakury.bulk.CsvUserInfoWriter;
+import com.sakury.bulk.JsonLinesUserInfoWriter;
+import com.sakury.bulk.UserInfoRecordWriter;
+import com.sakury.entity.enums.ExportFormatEnum;
+import com.sakury.entity.po.UserInfo;
+import com.sakury.entity.query.UserInfoQuery;
+import com.sakury.mappers.UserInfoMapper;
+import com.sakury.service.UserInfoExportService;
+import org.apache.ibatis.cursor.Cursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+
+/**
+ * 用户信息导出 业务接口实现
+ * 在只读事务内通过游标逐行读取并直接写出，内存占用与导出行数无关
+ */
+@Service("userInfoExportService")
+public class UserInfoExportServiceImpl implements UserInfoExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserInfoExportServiceImpl.class);
+
+    /**
+     * 每写出多少行刷新一次输出流，让客户端尽早收到数据
+     */
+    private static final int FLUSH_ROWS = 1000;
+
+    @Resource
+    private UserInfoMapper<UserInfo, UserInfoQuery> userInfoMapper;
+
+    @Resource
+    private PlatformTransactionManager transactionManager;
+
+    @Resource
+    private ObjectMapper objectMapper;
+
+    private TransactionTemplate readOnlyTransactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public long exportUserInfo(UserInfoQuery query, ExportFormatEnum format, OutputStream output) throws IOException {
+        UserInfoRecordWriter writer = format == ExportFormatEnum.CSV ? new CsvUserInfoWriter(output)
+                : new JsonLinesUserInfoWriter(output, objectMapper);
+        long start = System.currentTimeMillis();
+        try {
+            //游标依赖所在的 SqlSession，需在事务内读取完毕
+            Long rows = readOnlyTransactionTemplate.execute(status -> {
+                long count = 0;
+                try (Cursor<UserInfo> cursor = userInfoMapper.selectCursor(query)) {
+                    for (UserInfo userInfo : cursor) {
+                        writer.write(userInfo);
+                        if (++count % FLUSH_ROWS == 0) {
+                            writer.finish();
+                            output.flush();
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return count;
+            });
+            writer.finish();
+            logger.info("导出用户{}行，格式:{}，耗时{}ms", rows, format.getType(), System.currentTimeMillis() - start);
+            return rows;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
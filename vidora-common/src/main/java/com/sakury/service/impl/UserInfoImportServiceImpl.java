@@ -0,0 +1,363 @@
+package com.sakury.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sakury.bulk.CsvUserInfoReader;
+import com.sakury.bulk.ImportRow;
+import com.sakury.bulk.JsonUserInfoReader;
+import com.sakury.bulk.UserInfoRecordReader;
+import com.sakury.component.RedisComponent;
+import com.sakury.component.UserInfoCache;
+import com.sakury.entity.constants.Constants;
+import com.sakury.entity.dto.ImportErrorDto;
+import com.sakury.entity.dto.ImportTaskDto;
+import com.sakury.entity.enums.ImportFormatEnum;
+import com.sakury.entity.enums.ImportStatusEnum;
+import com.sakury.entity.enums.UserInfoFieldSetEnum;
+import com.sakury.entity.enums.UserSexEnum;
+import com.sakury.entity.enums.UserStatusEnum;
+import com.sakury.entity.po.UserInfo;
+import com.sakury.entity.query.UserInfoQuery;
+import com.sakury.exception.BusinessException;
+import com.sakury.mappers.UserInfoMapper;
+import com.sakury.service.UserInfoImportService;
+import com.sakury.service.UserRollupService;
+import com.sakury.utils.StringTools;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+
+/**
+ * 用户信息批量导入 业务接口实现
+ * 使用 ExecutorType.BATCH 的 SqlSession 逐行写入固定列语句，每批在独立事务中提交；
+ * 某一批提交失败时回滚该批并逐行重试，定位失败行，其余行正常入库。
+ * 每批提交后把成功行的变化合并为一次看板汇总更新；更新模式下写入前按userId读取原有行，
+ * 按email/nickName唯一键命中其他用户的行不计入差值，由对账修正
+ */
+@Service("userInfoImportService")
+public class UserInfoImportServiceImpl implements UserInfoImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserInfoImportServiceImpl.class);
+
+    private static final int MAX_BATCH_SIZE = 5000;
+
+    private static final int MAX_MESSAGE_LENGTH = 200;
+
+    @Resource
+    private SqlSessionFactory sqlSessionFactory;
+
+    @Resource
+    private TransactionTemplate transactionTemplate;
+
+    @Resource
+    private ObjectMapper objectMapper;
+
+    @Resource
+    private RedisComponent redisComponent;
+
+    @Resource
+    private UserInfoCache userInfoCache;
+
+    @Resource
+    private UserInfoMapper<UserInfo, UserInfoQuery> userInfoMapper;
+
+    @Resource
+    private UserRollupService userRollupService;
+
+    @Value("${bulk.import.batch-size:500}")
+    private int defaultBatchSize;
+
+    @Value("${bulk.import.max-errors:100}")
+    private int maxErrors;
+
+    @Value("${bulk.import.max-waiting-tasks:4}")
+    private int maxWaitingTasks;
+
+    private SqlSessionTemplate batchSqlSessionTemplate;
+
+    private ThreadPoolExecutor importExecutor;
+
+    @PostConstruct
+    public void init() {
+        batchSqlSessionTemplate = new SqlSessionTemplate(sqlSessionFactory, ExecutorType.BATCH);
+        //导入任务串行执行，避免多个大批量事务同时占用连接
+        importExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(maxWaitingTasks),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "user-import");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        importExecutor.shutdownNow();
+    }
+
+    @Override
+    public ImportTaskDto importUserInfo(InputStream input, ImportFormatEnum format, Boolean upsert, Integer batchSize) throws IOException {
+        ImportTaskDto task = newTask(null, format, upsert, batchSize);
+        try (UserInfoRecordReader reader = openReader(input, format)) {
+            runImport(task, reader, false);
+        }
+        return task;
+    }
+
+    @Override
+    public ImportTaskDto submitImport(File file, String fileName, ImportFormatEnum format, Boolean upsert, Integer batchSize) {
+        ImportTaskDto task = newTask(fileName, format, upsert, batchSize);
+        redisComponent.saveImportTask(task);
+        try {
+            importExecutor.execute(() -> {
+                try (InputStream input = new FileInputStream(file);
+                     UserInfoRecordReader reader = openReader(input, format)) {
+                    runImport(task, reader, true);
+                } catch (Exception e) {
+                    logger.error("导入任务{}失败", task.getTaskId(), e);
+                    task.setStatus(ImportStatusEnum.FAILED.getStatus());
+                    task.setMessage(abbreviate(e.getMessage()));
+                    task.setEndTime(System.currentTimeMillis());
+                    redisComponent.saveImportTask(task);
+                } finally {
+                    if (!file.delete()) {
+                        logger.warn("删除导入文件失败:{}", file.getAbsolutePath());
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            file.delete();
+            redisComponent.deleteImportTask(task.getTaskId());
+            throw new BusinessException("排队中的导入任务过多，请稍后再试");
+        }
+        return task;
+    }
+
+    @Override
+    public ImportTaskDto getImportTask(String taskId) {
+        ImportTaskDto task = redisComponent.getImportTask(taskId);
+        if (task == null) {
+            throw new BusinessException("导入任务不存在或已过期");
+        }
+        return task;
+    }
+
+    private ImportTaskDto newTask(String fileName, ImportFormatEnum format, Boolean upsert, Integer batchSize) {
+        if (format == null) {
+            throw new BusinessException("导入格式仅支持 csv/json");
+        }
+        ImportTaskDto task = new ImportTaskDto();
+        task.setTaskId(UUID.randomUUID().toString());
+        task.setFileName(fileName);
+        task.setFormat(format.getType());
+        task.setUpsert(Boolean.TRUE.equals(upsert));
+        task.setBatchSize(batchSize == null || batchSize <= 0 ? defaultBatchSize : Math.min(batchSize, MAX_BATCH_SIZE));
+        task.setStatus(ImportStatusEnum.WAITING.getStatus());
+        return task;
+    }
+
+    private UserInfoRecordReader openReader(InputStream input, ImportFormatEnum format) throws IOException {
+        return format == ImportFormatEnum.CSV ? new CsvUserInfoReader(input, objectMapper) : new JsonUserInfoReader(input, objectMapper);
+    }
+
+    /**
+     * 逐行读取、校验并按批次提交
+     *
+     * @param saveProgress 每批提交后是否把进度写入Redis
+     */
+    private void runImport(ImportTaskDto task, UserInfoRecordReader reader, boolean saveProgress) throws IOException {
+        task.setStatus(ImportStatusEnum.RUNNING.getStatus());
+        task.setStartTime(System.currentTimeMillis());
+        boolean upsert = task.getUpsert();
+        Date now = new Date();
+        List<ImportRow> chunk = new ArrayList<>(task.getBatchSize());
+        ImportRow row;
+        while ((row = reader.next()) != null) {
+            task.setTotalRows(task.getTotalRows() + 1);
+            String error = row.getError() != null ? row.getError() : checkAndFill(row.getBean(), now, upsert);
+            if (error != null) {
+                addError(task, row.getRowNumber(), error);
+                continue;
+            }
+            chunk.add(row);
+            if (chunk.size() >= task.getBatchSize()) {
+                commitChunk(task, chunk, upsert, now);
+                chunk.clear();
+                if (saveProgress) {
+                    redisComponent.saveImportTask(task);
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            commitChunk(task, chunk, upsert, now);
+        }
+        task.setStatus(ImportStatusEnum.FINISHED.getStatus());
+        task.setEndTime(System.currentTimeMillis());
+        if (saveProgress) {
+            redisComponent.saveImportTask(task);
+        }
+        logger.info("导入完成，taskId:{}，读取{}行，成功{}行，失败{}行，耗时{}ms", task.getTaskId(), task.getTotalRows(),
+                task.getSuccessRows(), task.getFailedRows(), task.getEndTime() - task.getStartTime());
+    }
+
+    private void commitChunk(ImportTaskDto task, List<ImportRow> chunk, boolean upsert, Date now) {
+        List<UserInfo> beanList = chunk.stream().map(ImportRow::getBean).collect(Collectors.toList());
+        Map<String, UserInfo> dbMap = upsert ? findExisting(beanList) : Collections.emptyMap();
+        List<UserInfo> successList;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (UserInfo bean : beanList) {
+                    write(bean, upsert);
+                }
+                batchSqlSessionTemplate.flushStatements();
+            });
+            task.setSuccessRows(task.getSuccessRows() + chunk.size());
+            task.setCommitCount(task.getCommitCount() + 1);
+            successList = beanList;
+        } catch (Exception e) {
+            //整批已回滚，逐行重试以定位失败行
+            successList = new ArrayList<>(chunk.size());
+            for (ImportRow row : chunk) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        write(row.getBean(), upsert);
+                        batchSqlSessionTemplate.flushStatements();
+                    });
+                    task.setSuccessRows(task.getSuccessRows() + 1);
+                    task.setCommitCount(task.getCommitCount() + 1);
+                    successList.add(row.getBean());
+                } catch (Exception rowException) {
+                    addError(task, row.getRowNumber(), ExceptionUtils.getRootCauseMessage(rowException));
+                }
+            }
+        }
+        userInfoCache.evict(beanList);
+        List<UserInfo> beforeList = new ArrayList<>(successList.size());
+        List<UserInfo> afterList = new ArrayList<>(successList.size());
+        for (UserInfo bean : successList) {
+            UserInfo before = dbMap.get(bean.getUserId());
+            beforeList.add(before);
+            afterList.add(upsert ? mergeUpsert(before, bean, now) : bean);
+        }
+        userRollupService.onBatchChange(beforeList, afterList);
+    }
+
+    /**
+     * 更新模式下读取本批已存在的行，包含看板汇总用到的状态、性别、硬币数与注册时间
+     */
+    private Map<String, UserInfo> findExisting(List<UserInfo> beanList) {
+        List<String> userIds = beanList.stream().map(UserInfo::getUserId).collect(Collectors.toList());
+        return userInfoMapper.selectByUserIds(userIds, UserInfoFieldSetEnum.DETAIL).stream()
+                .collect(Collectors.toMap(UserInfo::getUserId, Function.identity(), (first, second) -> first));
+    }
+
+    /**
+     * 按 insertOrUpdateForBatch 的规则得到写入后的行：新增时为空的列取注册默认值，更新时为空的列保留原值；只合并看板汇总用到的字段
+     */
+    private static UserInfo mergeUpsert(UserInfo before, UserInfo bean, Date now) {
+        UserInfo after = new UserInfo();
+        after.setUserId(bean.getUserId());
+        after.setStatus(bean.getStatus() != null ? bean.getStatus() : before != null ? before.getStatus() : UserStatusEnum.ENABLE.getStatus());
+        after.setSex(bean.getSex() != null ? bean.getSex() : before != null ? before.getSex() : UserSexEnum.UNKNOWN.getType());
+        after.setTotalCoinCount(bean.getTotalCoinCount() != null ? bean.getTotalCoinCount()
+                : before != null ? before.getTotalCoinCount() : Constants.ZERO);
+        after.setCurrentCoinCount(bean.getCurrentCoinCount() != null ? bean.getCurrentCoinCount()
+                : before != null ? before.getCurrentCoinCount() : Constants.ZERO);
+        after.setRegisterTime(bean.getRegisterTime() != null ? bean.getRegisterTime() : before != null ? before.getRegisterTime() : now);
+        return after;
+    }
+
+    /**
+     * mapper 在 MapperFactoryBean 初始化时才注册到 Configuration，因此使用时再获取
+     */
+    private void write(UserInfo bean, boolean upsert) {
+        UserInfoMapper<UserInfo, UserInfoQuery> batchMapper = batchSqlSessionTemplate.getMapper(UserInfoMapper.class);
+        if (upsert) {
+            batchMapper.insertOrUpdateForBatch(bean);
+        } else {
+            batchMapper.insertForBatch(bean);
+        }
+    }
+
+    /**
+     * 校验必填项并按注册逻辑补全默认值
+     * 更新模式下默认值由SQL在新增时补全，已存在的行只更新传入的列，因此不在此处补默认值
+     *
+     * @return 错误信息，校验通过返回 null
+     */
+    private String checkAndFill(UserInfo bean, Date now, boolean upsert) {
+        if (StringTools.isEmpty(bean.getUserId())) {
+            if (upsert) {
+                return "更新模式下userId不能为空";
+            }
+            bean.setUserId(StringTools.getRandomNumber(Constants.LENGTH_USERID));
+        } else if (bean.getUserId().length() > Constants.LENGTH_USERID) {
+            return "userId长度不能超过" + Constants.LENGTH_USERID;
+        }
+        //数据库为严格模式，INSERT ... ON DUPLICATE KEY UPDATE 同样要求非空列有值
+        if (StringTools.isEmpty(bean.getNickName()) || StringTools.isEmpty(bean.getEmail()) || StringTools.isEmpty(bean.getPassword())) {
+            return "nickName、email、password不能为空";
+        }
+        if (upsert) {
+            return null;
+        }
+        if (bean.getRegisterTime() == null) {
+            bean.setRegisterTime(now);
+        }
+        if (bean.getStatus() == null) {
+            bean.setStatus(UserStatusEnum.ENABLE.getStatus());
+        }
+        if (bean.getSex() == null) {
+            bean.setSex(UserSexEnum.UNKNOWN.getType());
+        }
+        if (bean.getTheme() == null) {
+            bean.setTheme(Constants.ONE);
+        }
+        if (bean.getTotalCoinCount() == null) {
+            bean.setTotalCoinCount(Constants.ZERO);
+        }
+        if (bean.getCurrentCoinCount() == null) {
+            bean.setCurrentCoinCount(Constants.ZERO);
+        }
+        return null;
+    }
+
+    private void addError(ImportTaskDto task, long rowNumber, String message) {
+        task.setFailedRows(task.getFailedRows() + 1);
+        if (task.getErrors().size() < maxErrors) {
+            task.getErrors().add(new ImportErrorDto(rowNumber, abbreviate(message)));
+        }
+    }
+
+    private static String abbreviate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > MAX_MESSAGE_LENGTH ? message.substring(0, MAX_MESSAGE_LENGTH) + "..." : message;
+    }
+}
@@ -1,17 +1,28 @@
 package com.sakury.service.impl;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import javax.annotation.Resource;
 
 import com.sakury.component.RedisComponent;
+import com.sakury.component.UserInfoCache;
 import com.sakury.entity.constants.Constants;
 import com.sakury.entity.dto.UserInfoTokenDto;
+import com.sakury.entity.dto.UserSessionDto;
+import com.sakury.entity.enums.ResponseCodeEnum;
 import com.sakury.entity.enums.UserSexEnum;
+import com.sakury.entity.enums.UserInfoFieldSetEnum;
 import com.sakury.entity.enums.UserStatusEnum;
 import com.sakury.exception.BusinessException;
 import com.sakury.utils.CopyTools;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.sakury.entity.enums.PageSize;
@@ -21,6 +32,8 @@ import com.sakury.entity.vo.PaginationResultVO;
 import com.sakury.entity.query.SimplePage;
 import com.sakury.mappers.UserInfoMapper;
 import com.sakury.service.UserInfoService;
+import com.sakury.service.UserRollupService;
+import com.sakury.token.TokenManager;
 import com.sakury.utils.StringTools;
 
 
@@ -30,12 +43,26 @@ import com.sakury.utils.StringTools;
 @Service("userInfoService")
 public class UserInfoServiceImpl implements UserInfoService {
 
+    private static final int USER_AGENT_MAX_LENGTH = 200;
+
     @Resource
     private UserInfoMapper<UserInfo, UserInfoQuery> userInfoMapper;
 
     @Resource
     private RedisComponent redisComponent;
 
+    @Resource
+    private UserInfoCache userInfoCache;
+
+    @Resource
+    private TokenManager tokenManager;
+
+    @Resource
+    private UserRollupService userRollupService;
+
+    @Value("${bulk.import.batch-size:500}")
+    private int batchSize;
+
     /**
      * 用户注册功能
      * 验证邮箱和昵称的唯一性，创建新用户并保存到数据库
@@ -46,13 +73,13 @@ public class UserInfoServiceImpl implements UserInfoService {
      */
     @Override
     public void register(String email, String nickName, String registerPassword) {
-        // 检查邮箱是否已存在
-        UserInfo userInfo = this.userInfoMapper.selectByEmail(email);
+        // 检查邮箱是否已存在，仅判断存在性，只查询卡片字段
+        UserInfo userInfo = this.userInfoMapper.selectByEmail(email, UserInfoFieldSetEnum.CARD);
         if (null != userInfo) {
             throw new BusinessException("邮箱账号已存在");
         }
         // 检查昵称是否已存在
-        userInfo = this.userInfoMapper.selectByNickName(nickName);
+        userInfo = this.userInfoMapper.selectByNickName(nickName, UserInfoFieldSetEnum.CARD);
         if (null != userInfo) {
             throw new BusinessException("昵称已存在");
         }
@@ -70,24 +97,28 @@ public class UserInfoServiceImpl implements UserInfoService {
         //TODO 初始化用户的硬币数
         userInfo.setTotalCoinCount(Constants.ZERO);
         userInfo.setCurrentCoinCount(Constants.ZERO);
-        // 将新用户信息插入数据库
+        // 将新用户信息插入数据库，并清除注册前可能缓存的空值
         this.userInfoMapper.insert(userInfo);
+        userInfoCache.evict(userInfo);
+        userRollupService.onRegister(userInfo);
     }
 
     /**
      * 用户登录方法
      * 验证用户邮箱和密码，更新登录信息，并生成用户令牌
      *
-     * @param email    用户邮箱地址
-     * @param password 用户密码
-     * @param ip       用户登录IP地址
+     * @param email     用户邮箱地址
+     * @param password  用户密码
+     * @param ip        用户登录IP地址
+     * @param userAgent 登录设备的User-Agent
+     * @param oldToken  客户端当前持有的旧token，登录成功后注销，可为空
      * @return 包含用户信息的令牌DTO对象
      * @throws BusinessException 当账号密码错误或用户被禁用时抛出异常
      */
     @Override
-    public UserInfoTokenDto login(String email, String password, String ip) {
+    public UserInfoTokenDto login(String email, String password, String ip, String userAgent, String oldToken) {
         // 查询用户信息并验证账号密码
-        UserInfo userInfo = this.userInfoMapper.selectByEmail(email);
+        UserInfo userInfo = this.userInfoMapper.selectByEmail(email, null);
         if (null == userInfo || !userInfo.getPassword().equals(password)) {
             throw new BusinessException("账号或密码错误");
         }
@@ -95,18 +126,57 @@ public class UserInfoServiceImpl implements UserInfoService {
         if (UserStatusEnum.DISABLE.getStatus().equals(userInfo.getStatus())) {
             throw new BusinessException("用户已被禁用");
         }
-        // 更新用户的最后登录时间和IP地址
+        // 更新用户的最后登录时间和IP地址，这两列不属于任何缓存字段集，无需清除缓存，也不改变用户表数据版本
         UserInfo updateInfo = new UserInfo();
         updateInfo.setLastLoginTime(new Date());
         updateInfo.setLastLoginIp(ip);
         this.userInfoMapper.updateByUserId(updateInfo, userInfo.getUserId());
 
-        // 复制用户信息到令牌DTO并保存到Redis
+        // 复制用户信息到令牌DTO并生成token，同时记录登录设备并注销旧token
         UserInfoTokenDto userInfoTokenDto = CopyTools.copy(userInfo, UserInfoTokenDto.class);
-        redisComponent.saveTokenInfo(userInfoTokenDto);
+        UserSessionDto session = new UserSessionDto();
+        session.setIp(ip);
+        session.setUserAgent(userAgent == null || userAgent.length() <= USER_AGENT_MAX_LENGTH ? userAgent
+                : userAgent.substring(0, USER_AGENT_MAX_LENGTH));
+        session.setLoginTime(System.currentTimeMillis());
+        tokenManager.createToken(userInfoTokenDto, session, oldToken);
         return userInfoTokenDto;
     }
 
+    /**
+     * 修改用户状态
+     * 以原状态为条件更新，并发修改同一用户时只有实际改变了状态的一次计入看板汇总；
+     * 禁用时立即注销该用户的全部会话，已登录的设备随即失效
+     *
+     * @param userId 用户id
+     * @param status 用户状态
+     */
+    @Override
+    public void changeUserStatus(String userId, Integer status) {
+        if (UserStatusEnum.getByStatus(status) == null) {
+            throw new BusinessException(ResponseCodeEnum.CODE_600);
+        }
+        UserInfo dbInfo = this.userInfoMapper.selectByUserId(userId, UserInfoFieldSetEnum.LIST);
+        if (dbInfo == null) {
+            throw new BusinessException("用户不存在");
+        }
+        UserInfo updateInfo = new UserInfo();
+        updateInfo.setStatus(status);
+        UserInfoQuery query = new UserInfoQuery();
+        query.setUserId(userId);
+        query.setStatus(dbInfo.getStatus());
+        if (this.userInfoMapper.updateByParam(updateInfo, query) == 0) {
+            throw new BusinessException("用户状态已被修改，请刷新后重试");
+        }
+        userInfoCache.evict(dbInfo, updateInfo);
+        if (!status.equals(dbInfo.getStatus())) {
+            userRollupService.onStatusChange(dbInfo.getStatus(), status);
+        }
+        if (UserStatusEnum.DISABLE.getStatus().equals(status)) {
+            tokenManager.deleteUserTokens(userId);
+        }
+    }
+
 
     /**
      * 根据条件查询列表
@@ -140,33 +210,56 @@ public class UserInfoServiceImpl implements UserInfoService {
     }
 
     /**
-     * 新增
+     * 新增，未传的列取数据库默认值，插入后按userId读回再计入看板汇总
      */
     @Override
     public Integer add(UserInfo bean) {
-        return this.userInfoMapper.insert(bean);
+        Integer count = this.userInfoMapper.insert(bean);
+        userInfoCache.evict(bean);
+        if (bean.getUserId() != null) {
+            UserInfo dbInfo = this.userInfoMapper.selectByUserId(bean.getUserId(), UserInfoFieldSetEnum.DETAIL);
+            if (dbInfo != null) {
+                userRollupService.onRegister(dbInfo);
+            }
+        }
+        return count;
     }
 
     /**
-     * 批量新增
+     * 批量新增，按批次拆分为多条语句，避免单条SQL超过 max_allowed_packet
      */
     @Override
     public Integer addBatch(List<UserInfo> listBean) {
         if (listBean == null || listBean.isEmpty()) {
             return 0;
         }
-        return this.userInfoMapper.insertBatch(listBean);
+        int count = 0;
+        for (int i = 0; i < listBean.size(); i += batchSize) {
+            List<UserInfo> chunk = listBean.subList(i, Math.min(i + batchSize, listBean.size()));
+            count += this.userInfoMapper.insertBatch(chunk);
+            userRollupService.onBatchChange(Collections.nCopies(chunk.size(), null), chunk);
+        }
+        userInfoCache.evict(listBean);
+        return count;
     }
 
     /**
-     * 批量新增或者修改
+     * 批量新增或者修改，按批次拆分为多条语句；已存在的行整行覆盖，每批写入前按userId读取原有行用于计算看板汇总的差值
      */
     @Override
     public Integer addOrUpdateBatch(List<UserInfo> listBean) {
         if (listBean == null || listBean.isEmpty()) {
             return 0;
         }
-        return this.userInfoMapper.insertOrUpdateBatch(listBean);
+        int count = 0;
+        for (int i = 0; i < listBean.size(); i += batchSize) {
+            List<UserInfo> chunk = listBean.subList(i, Math.min(i + batchSize, listBean.size()));
+            List<UserInfo> beforeList = findBeforeList(chunk);
+            count += this.userInfoMapper.insertOrUpdateBatch(chunk);
+            userRollupService.onBatchChange(beforeList, chunk);
+        }
+        userInfoCache.evict(listBean);
+        return count;
     }
 
     /**
@@ -175,7 +268,12 @@ public class UserInfoServiceImpl implements UserInfoService {
     @Override
     public Integer updateByParam(UserInfo bean, UserInfoQuery param) {
         StringTools.checkParam(param);
-        return this.userInfoMapper.updateByParam(bean, param);
+        List<UserInfo> dbList = findBeforeList(param);
+        Integer count = this.userInfoMapper.updateByParam(bean, param);
+        userRollupService.onBatchChange(dbList, dbList.stream().map(dbInfo -> merge(dbInfo, bean)).collect(Collectors.toList()));
+        dbList.add(bean);
+        userInfoCache.evict(dbList);
+        return count;
     }
 
     /**
@@ -184,15 +282,96 @@ public class UserInfoServiceImpl implements UserInfoService {
     @Override
     public Integer deleteByParam(UserInfoQuery param) {
         StringTools.checkParam(param);
-        return this.userInfoMapper.deleteByParam(param);
+        List<UserInfo> dbList = findBeforeList(param);
+        Integer count = this.userInfoMapper.deleteByParam(param);
+        userRollupService.onBatchChange(dbList, Collections.nCopies(dbList.size(), null));
+        userInfoCache.evict(dbList);
+        return count;
+    }
+
+    /**
+     * 查询将被条件更新/删除的记录，用于变更后清除缓存与计算看板汇总的差值，取包含状态、性别、硬币数与注册时间的 DETAIL 字段集
+     */
+    private List<UserInfo> findBeforeList(UserInfoQuery param) {
+        UserInfoFieldSetEnum fieldSet = param.getFieldSet();
+        SimplePage simplePage = param.getSimplePage();
+        param.setFieldSet(UserInfoFieldSetEnum.DETAIL);
+        param.setSimplePage(null);
+        try {
+            return this.userInfoMapper.selectList(param);
+        } finally {
+            param.setFieldSet(fieldSet);
+            param.setSimplePage(simplePage);
+        }
+    }
+
+    /**
+     * 按userId读取批量写入前已存在的行，与传入列表按下标对应，不存在的为null
+     */
+    private List<UserInfo> findBeforeList(List<UserInfo> listBean) {
+        List<String> userIds = listBean.stream().map(UserInfo::getUserId).filter(Objects::nonNull).collect(Collectors.toList());
+        Map<String, UserInfo> dbMap = userIds.isEmpty() ? Collections.emptyMap()
+                : this.userInfoMapper.selectByUserIds(userIds, UserInfoFieldSetEnum.DETAIL).stream()
+                .collect(Collectors.toMap(UserInfo::getUserId, Function.identity(), (first, second) -> first));
+        return listBean.stream().map(bean -> bean.getUserId() == null ? null : dbMap.get(bean.getUserId())).collect(Collectors.toList());
     }
 
     /**
-     * 根据UserId获取对象
+     * 按更新语句的规则（非空字段覆盖原值）得到更新后的行，只合并看板汇总用到的字段
+     */
+    private static UserInfo merge(UserInfo dbInfo, UserInfo bean) {
+        UserInfo after = CopyTools.copy(dbInfo, UserInfo.class);
+        if (bean.getStatus() != null) {
+            after.setStatus(bean.getStatus());
+        }
+        if (bean.getSex() != null) {
+            after.setSex(bean.getSex());
+        }
+        if (bean.getTotalCoinCount() != null) {
+            after.setTotalCoinCount(bean.getTotalCoinCount());
+        }
+        if (bean.getCurrentCoinCount() != null) {
+            after.setCurrentCoinCount(bean.getCurrentCoinCount());
+        }
+        if (bean.getRegisterTime() != null) {
+            after.setRegisterTime(bean.getRegisterTime());
+        }
+        return after;
+    }
+
+    /**
+     * 根据UserId获取对象，全部列包含密码，只供内部使用，不走缓存
+     */
+    @Override
+    public UserInfo getUserInfoByUserId(String userId, UserInfoFieldSetEnum fieldSet) {
+        return fieldSet == null ? this.userInfoMapper.selectByUserId(userId, null) : userInfoCache.get(userId, fieldSet);
+    }
+
+    /**
+     * 根据UserId批量查询
      */
     @Override
-    public UserInfo getUserInfoByUserId(String userId) {
-        return this.userInfoMapper.selectByUserId(userId);
+    public List<UserInfo> getUserInfoByUserIds(List<String> userIds, UserInfoFieldSetEnum fieldSet) {
+        if (userIds == null || userIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return userInfoCache.getAll(userIds, fieldSet == null ? UserInfoFieldSetEnum.DETAIL : fieldSet);
+    }
+
+    /**
+     * 获取用户的数据版本
+     */
+    @Override
+    public String getUserInfoVersion(String userId) {
+        return userInfoCache.getVersion(userId);
+    }
+
+    /**
+     * 获取用户表的数据版本
+     */
+    @Override
+    public String getUserInfoTableVersion() {
+        return userInfoCache.getTableVersion();
     }
 
     /**
@@ -200,7 +379,13 @@ public class UserInfoServiceImpl implements UserInfoService {
      */
     @Override
     public Integer updateUserInfoByUserId(UserInfo bean, String userId) {
-        return this.userInfoMapper.updateByUserId(bean, userId);
+        UserInfo dbInfo = this.userInfoMapper.selectByUserId(userId, UserInfoFieldSetEnum.DETAIL);
+        Integer count = this.userInfoMapper.updateByUserId(bean, userId);
+        userInfoCache.evict(dbInfo, bean);
+        if (count > 0) {
+            userRollupService.onUpdate(dbInfo, merge(dbInfo, bean));
+        }
+        return count;
     }
 
     /**
@@ -208,15 +393,21 @@ public class UserInfoServiceImpl implements UserInfoService {
      */
     @Override
     public Integer deleteUserInfoByUserId(String userId) {
-        return this.userInfoMapper.deleteByUserId(userId);
+        UserInfo dbInfo = this.userInfoMapper.selectByUserId(userId, UserInfoFieldSetEnum.DETAIL);
+        Integer count = this.userInfoMapper.deleteByUserId(userId);
+        userInfoCache.evict(dbInfo);
+        if (count > 0) {
+            userRollupService.onDelete(dbInfo);
+        }
+        return count;
     }
 
     /**
-     * 根据Email获取对象
+     * 根据Email获取对象，fieldSet为空时不走缓存
      */
     @Override
-    public UserInfo getUserInfoByEmail(String email) {
-        return this.userInfoMapper.selectByEmail(email);
+    public UserInfo getUserInfoByEmail(String email, UserInfoFieldSetEnum fieldSet) {
+        return fieldSet == null ? this.userInfoMapper.selectByEmail(email, null) : userInfoCache.getByEmail(email, fieldSet);
     }
 
     /**
@@ -224,7 +415,13 @@ public class UserInfoServiceImpl implements UserInfoService {
      */
     @Override
     public Integer updateUserInfoByEmail(UserInfo bean, String email) {
-        return this.userInfoMapper.updateByEmail(bean, email);
+        UserInfo dbInfo = this.userInfoMapper.selectByEmail(email, UserInfoFieldSetEnum.DETAIL);
+        Integer count = this.userInfoMapper.updateByEmail(bean, email);
+        userInfoCache.evict(dbInfo, bean);
+        if (count > 0) {
+            userRollupService.onUpdate(dbInfo, merge(dbInfo, bean));
+        }
+        return count;
     }
 
     /**
@@ -232,15 +429,21 @@ public class UserInfoServiceImpl implements UserInfoService {
      */
     @Override
     public Integer deleteUserInfoByEmail(String email) {
-        return this.userInfoMapper.deleteByEmail(email);
+        UserInfo dbInfo = this.userInfoMapper.selectByEmail(email, UserInfoFieldSetEnum.DETAIL);
+        Integer count = this.userInfoMapper.deleteByEmail(email);
+        userInfoCache.evict(dbInfo);
+        if (count > 0) {
+            userRollupService.onDelete(dbInfo);
+        }
+        return count;
     }
 
     /**
-     * 根据NickName获取对象
+     * 根据NickName获取对象，fieldSet为空时不走缓存
      */
     @Override
-    public UserInfo getUserInfoByNickName(String nickName) {
-        return this.userInfoMapper.selectByNickName(nickName);
+    public UserInfo getUserInfoByNickName(String nickName, UserInfoFieldSetEnum fieldSet) {
+        return fieldSet == null ? this.userInfoMapper.selectByNickName(nickName, null) : userInfoCache.getByNickName(nickName, fieldSet);
     }
 
     /**
@@ -248,7 +451,13 @@ public class UserInfoServiceImpl implements UserInfoService {
      */
     @Override
     public Integer updateUserInfoByNickName(UserInfo bean, String nickName) {
-        return this.userInfoMapper.updateByNickName(bean, nickName);
+        UserInfo dbInfo = this.userInfoMapper.selectByNickName(nickName, UserInfoFieldSetEnum.DETAIL);
+        Integer count = this.userInfoMapper.updateByNickName(bean, nickName);
+        userInfoCache.evict(dbInfo, bean);
+        if (count > 0) {
+            userRollupService.onUpdate(dbInfo, merge(dbInfo, bean));
+        }
+        return count;
     }
 
     /**
@@ -256,7 +465,13 @@ public class UserInfoServiceImpl implements UserInfoService {
      */
     @Override
     public Integer deleteUserInfoByNickName(String nickName) {
-        return this.userInfoMapper.deleteByNickName(nickName);
+        UserInfo dbInfo = this.userInfoMapper.selectByNickName(nickName, UserInfoFieldSetEnum.DETAIL);
+        Integer count = this.userInfoMapper.deleteByNickName(nickName);
+        userInfoCache.evict(dbInfo);
+        if (count > 0) {
+            userRollupService.onDelete(dbInfo);
+        }
+        return count;
     }
 
 }
\ No newline at end of file
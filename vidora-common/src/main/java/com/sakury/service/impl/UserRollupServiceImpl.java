@@ -0,0 +1,301 @@
+package com.sakury.service.impl;
+
+import com.sakury.component.RedisComponent;
+import com.sakury.entity.dto.RegisterDailyCountDto;
+import com.sakury.entity.dto.UserDashboardDto;
+import com.sakury.entity.dto.UserRollupGroupDto;
+import com.sakury.entity.po.UserInfo;
+import com.sakury.entity.query.UserInfoQuery;
+import com.sakury.mappers.UserInfoMapper;
+import com.sakury.service.UserRollupService;
+import com.sakury.utils.SampledLogger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * 用户看板汇总 业务接口实现
+ * <p>
+ * 汇总保存在一个Redis哈希中，字段：users 用户总数、status:状态 与 sex:性别 的人数、coin:total 与 coin:current 硬币总数、
+ * register:yyyyMMdd 当日注册人数、reconcileTime 最近对账时间。注册、状态变更、修改、删除与批量导入时按写入前后的行计算差值，
+ * 以 HINCRBY 增量更新，批量写入每批合并为一次调用，看板读取为一次 HGETALL。
+ * 写入前的行在写入前读取，同一用户的并发修改可能重复计入差值；对账查询期间发生的增量会被对账结果覆盖，误差在下次对账时修正。
+ * 对账时注册人数只保留最近 register-days 天，哈希大小不随时间增长
+ */
+@Service("userRollupService")
+public class UserRollupServiceImpl implements UserRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserRollupServiceImpl.class);
+
+    private static final SampledLogger updateFailureLogger = SampledLogger.of(logger, 10, 1000);
+
+    private static final String FIELD_USERS = "users";
+
+    private static final String FIELD_STATUS = "status:";
+
+    private static final String FIELD_SEX = "sex:";
+
+    private static final String FIELD_COIN_TOTAL = "coin:total";
+
+    private static final String FIELD_COIN_CURRENT = "coin:current";
+
+    private static final String FIELD_REGISTER = "register:";
+
+    private static final String FIELD_RECONCILE_TIME = "reconcileTime";
+
+    @Resource
+    private UserInfoMapper<UserInfo, UserInfoQuery> userInfoMapper;
+
+    @Resource
+    private RedisComponent redisComponent;
+
+    @Value("${dashboard.rollup.register-days:90}")
+    private int registerDays;
+
+    @Value("${dashboard.rollup.reconcile-lock-millis:600000}")
+    private long reconcileLockMillis;
+
+    private ThreadPoolExecutor reconcileExecutor;
+
+    @PostConstruct
+    public void init() {
+        //手动对账在后台线程执行，同一时间只有一个（由对账锁保证），不排队
+        reconcileExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "user-rollup-reconcile");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        reconcileExecutor.shutdownNow();
+    }
+
+    @Override
+    public void onRegister(UserInfo userInfo) {
+        Map<String, Long> deltas = new LinkedHashMap<>();
+        addRow(deltas, userInfo, 1);
+        increment(deltas);
+    }
+
+    @Override
+    public void onStatusChange(Integer oldStatus, Integer newStatus) {
+        Map<String, Long> deltas = new LinkedHashMap<>();
+        deltas.put(FIELD_STATUS + oldStatus, -1L);
+        deltas.put(FIELD_STATUS + newStatus, 1L);
+        increment(deltas);
+    }
+
+    @Override
+    public void onUpdate(UserInfo before, UserInfo after) {
+        if (before == null || after == null) {
+            return;
+        }
+        Map<String, Long> deltas = new LinkedHashMap<>();
+        addRow(deltas, before, -1);
+        addRow(deltas, after, 1);
+        increment(deltas);
+    }
+
+    @Override
+    public void onDelete(UserInfo before) {
+        if (before == null) {
+            return;
+        }
+        Map<String, Long> deltas = new LinkedHashMap<>();
+        addRow(deltas, before, -1);
+        increment(deltas);
+    }
+
+    @Override
+    public void onBatchChange(List<UserInfo> beforeList, List<UserInfo> afterList) {
+        Map<String, Long> deltas = new LinkedHashMap<>();
+        for (int i = 0; i < afterList.size(); i++) {
+            UserInfo before = beforeList.get(i);
+            UserInfo after = afterList.get(i);
+            if (before != null) {
+                addRow(deltas, before, -1);
+            }
+            if (after != null) {
+                addRow(deltas, after, 1);
+            }
+        }
+        increment(deltas);
+    }
+
+    @Override
+    public UserDashboardDto getDashboard(int days) {
+        Map<String, Object> rollup = redisComponent.getUserRollup();
+        Map<Integer, Long> statusCounts = new TreeMap<>();
+        Map<Integer, Long> sexCounts = new TreeMap<>();
+        for (Map.Entry<String, Object> entry : rollup.entrySet()) {
+            String field = entry.getKey();
+            if (field.startsWith(FIELD_STATUS)) {
+                putCount(statusCounts, field.substring(FIELD_STATUS.length()), entry.getValue());
+            } else if (field.startsWith(FIELD_SEX)) {
+                putCount(sexCounts, field.substring(FIELD_SEX.length()), entry.getValue());
+            }
+        }
+        Map<String, Long> registrations = new LinkedHashMap<>();
+        LocalDate today = LocalDate.now();
+        for (int i = Math.min(days, registerDays) - 1; i >= 0; i--) {
+            LocalDate date = today.minusDays(i);
+            registrations.put(date.toString(), toLong(rollup.get(FIELD_REGISTER + toDay(date))));
+        }
+        UserDashboardDto dashboard = new UserDashboardDto();
+        dashboard.setUserCount(toLong(rollup.get(FIELD_USERS)));
+        dashboard.setStatusCounts(statusCounts);
+        dashboard.setSexCounts(sexCounts);
+        dashboard.setTotalCoinCount(toLong(rollup.get(FIELD_COIN_TOTAL)));
+        dashboard.setCurrentCoinCount(toLong(rollup.get(FIELD_COIN_CURRENT)));
+        dashboard.setRegistrations(registrations);
+        dashboard.setReconcileTime(rollup.containsKey(FIELD_RECONCILE_TIME) ? toLong(rollup.get(FIELD_RECONCILE_TIME)) : null);
+        return dashboard;
+    }
+
+    @Override
+    public void reconcile() {
+        long start = System.currentTimeMillis();
+        Map<String, Long> values = new LinkedHashMap<>();
+        long users = 0;
+        long totalCoin = 0;
+        long currentCoin = 0;
+        for (UserRollupGroupDto group : userInfoMapper.selectRollupGroups()) {
+            users += group.getUserCount();
+            totalCoin += group.getTotalCoinCount();
+            currentCoin += group.getCurrentCoinCount();
+            values.merge(FIELD_STATUS + group.getStatus(), group.getUserCount(), Long::sum);
+            values.merge(FIELD_SEX + group.getSex(), group.getUserCount(), Long::sum);
+        }
+        values.put(FIELD_USERS, users);
+        values.put(FIELD_COIN_TOTAL, totalCoin);
+        values.put(FIELD_COIN_CURRENT, currentCoin);
+        LocalDate registerStart = LocalDate.now().minusDays(registerDays - 1);
+        for (RegisterDailyCountDto daily : userInfoMapper.selectRegisterCountByDay(registerStart.toString())) {
+            values.put(FIELD_REGISTER + daily.getDay(), daily.getUserCount());
+        }
+        values.put(FIELD_RECONCILE_TIME, System.currentTimeMillis());
+        redisComponent.replaceUserRollup(values);
+        logger.info("用户看板汇总对账完成，用户数:{}，耗时{}ms", users, System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public boolean submitReconcile() {
+        Long lockId = redisComponent.tryLockUserRollupReconcile(reconcileLockMillis);
+        if (lockId == null) {
+            return false;
+        }
+        try {
+            reconcileExecutor.execute(() -> reconcileLocked(lockId));
+        } catch (RejectedExecutionException e) {
+            redisComponent.unlockUserRollupReconcile(lockId);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 每晚对账，多实例通过Redis锁只执行一次；cron 为 - 时不执行
+     */
+    @Scheduled(cron = "${dashboard.rollup.reconcile-cron:0 30 3 * * ?}")
+    public void scheduledReconcile() {
+        try {
+            Long lockId = redisComponent.tryLockUserRollupReconcile(reconcileLockMillis);
+            if (lockId != null) {
+                reconcileLocked(lockId);
+            }
+        } catch (Exception e) {
+            logger.error("用户看板汇总对账失败", e);
+        }
+    }
+
+    /**
+     * 持有对账锁时执行对账，结束后释放锁
+     */
+    private void reconcileLocked(long lockId) {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            logger.error("用户看板汇总对账失败", e);
+        } finally {
+            try {
+                redisComponent.unlockUserRollupReconcile(lockId);
+            } catch (Exception e) {
+                logger.warn("释放用户看板汇总对账锁失败，到期后自动释放", e);
+            }
+        }
+    }
+
+    /**
+     * 把一行计入差值：sign 为1时加上，为-1时减去；状态、性别为空的行与对账一样不计入分布，注册时间早于保留天数的不计入注册人数
+     */
+    private void addRow(Map<String, Long> deltas, UserInfo userInfo, long sign) {
+        deltas.merge(FIELD_USERS, sign, Long::sum);
+        if (userInfo.getStatus() != null) {
+            deltas.merge(FIELD_STATUS + userInfo.getStatus(), sign, Long::sum);
+        }
+        if (userInfo.getSex() != null) {
+            deltas.merge(FIELD_SEX + userInfo.getSex(), sign, Long::sum);
+        }
+        if (userInfo.getTotalCoinCount() != null) {
+            deltas.merge(FIELD_COIN_TOTAL, sign * userInfo.getTotalCoinCount(), Long::sum);
+        }
+        if (userInfo.getCurrentCoinCount() != null) {
+            deltas.merge(FIELD_COIN_CURRENT, sign * userInfo.getCurrentCoinCount(), Long::sum);
+        }
+        if (userInfo.getRegisterTime() != null) {
+            LocalDate day = userInfo.getRegisterTime().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+            if (!day.isBefore(LocalDate.now().minusDays(registerDays - 1))) {
+                deltas.merge(FIELD_REGISTER + toDay(day), sign, Long::sum);
+            }
+        }
+    }
+
+    private void increment(Map<String, Long> deltas) {
+        deltas.values().removeIf(delta -> delta == 0);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            redisComponent.incrementUserRollup(deltas);
+        } catch (Exception e) {
+            updateFailureLogger.warn("更新用户看板汇总失败，字段:{}", deltas.keySet(), e);
+        }
+    }
+
+    private static void putCount(Map<Integer, Long> counts, String key, Object value) {
+        try {
+            counts.put(Integer.valueOf(key), toLong(value));
+        } catch (NumberFormatException e) {
+            // 状态或性别为空的记录不计入分布
+        }
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+
+    private static String toDay(LocalDate date) {
+        return date.format(DateTimeFormatter.BASIC_ISO_DATE);
+    }
+}
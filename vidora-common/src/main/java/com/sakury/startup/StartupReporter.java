@@ -0,0 +1,171 @@
+package com.sakury.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.util.ClassUtils;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 启动耗时报告
+ * <p>
+ * 启动期间由 BufferingApplicationStartup 记录各步骤，应用就绪后输出：JVM启动到就绪的总耗时、
+ * 按来源（定义bean的自动配置类，或组件扫描bean所在的包）汇总的实例化耗时、耗时最长的bean。
+ * 耗时为bean自身耗时，不含其依赖的bean，各项相加不会重复计算。报告输出后清空记录
+ */
+public class StartupReporter implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupReporter.class);
+
+    private static final String BEAN_INSTANTIATE_STEP = "spring.beans.instantiate";
+
+    /**
+     * 启动步骤记录上限，超出后不再记录，几百个bean的应用约产生数千条
+     */
+    private static final int BUFFER_CAPACITY = 20000;
+
+    private final BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(BUFFER_CAPACITY);
+
+    /**
+     * 为应用开启启动步骤记录，并在就绪后输出报告
+     */
+    public static void attach(SpringApplication application) {
+        StartupReporter reporter = new StartupReporter();
+        application.setApplicationStartup(reporter.applicationStartup);
+        application.addListeners(reporter);
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        StartupTimeline timeline = applicationStartup.drainBufferedTimeline();
+        Environment environment = event.getApplicationContext().getEnvironment();
+        if (!environment.getProperty("startup.report.enabled", Boolean.class, true) || !logger.isInfoEnabled()) {
+            return;
+        }
+        int top = environment.getProperty("startup.report.top", Integer.class, 20);
+        logger.info(buildReport(timeline, event.getApplicationContext(), top));
+    }
+
+    private String buildReport(StartupTimeline timeline, ConfigurableApplicationContext context, int top) {
+        List<StartupTimeline.TimelineEvent> events = timeline.getEvents();
+        Map<Long, Long> childNanos = new HashMap<>();
+        for (StartupTimeline.TimelineEvent item : events) {
+            Long parentId = item.getStartupStep().getParentId();
+            if (parentId != null) {
+                childNanos.merge(parentId, item.getDuration().toNanos(), Long::sum);
+            }
+        }
+        ConfigurableListableBeanFactory beanFactory = context.getBeanFactory();
+        Map<String, Cost> sources = new HashMap<>();
+        List<Cost> beans = new ArrayList<>();
+        long beanNanos = 0;
+        for (StartupTimeline.TimelineEvent item : events) {
+            StartupStep step = item.getStartupStep();
+            if (!BEAN_INSTANTIATE_STEP.equals(step.getName())) {
+                continue;
+            }
+            String beanName = getTag(step, "beanName");
+            long selfNanos = Math.max(0, item.getDuration().toNanos() - childNanos.getOrDefault(step.getId(), 0L));
+            beanNanos += selfNanos;
+            beans.add(new Cost(beanName, selfNanos));
+            sources.computeIfAbsent(getSource(beanFactory, beanName), Cost::new).add(selfNanos);
+        }
+        List<Cost> sourceList = new ArrayList<>(sources.values());
+        sourceList.sort((a, b) -> Long.compare(b.nanos, a.nanos));
+        beans.sort((a, b) -> Long.compare(b.nanos, a.nanos));
+
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        StringBuilder builder = new StringBuilder();
+        builder.append("启动耗时报告：JVM启动至就绪").append(uptime).append("ms，实例化bean ").append(beans.size())
+                .append(" 个共").append(toMillis(beanNanos)).append("ms");
+        builder.append("\n按来源汇总(前").append(top).append(")：");
+        for (int i = 0; i < Math.min(top, sourceList.size()); i++) {
+            Cost cost = sourceList.get(i);
+            builder.append(String.format("%n%10.1fms %4d个  %s", cost.nanos / 1e6, cost.count, cost.name));
+        }
+        builder.append("\n耗时最长的bean(前").append(top).append(")：");
+        for (int i = 0; i < Math.min(top, beans.size()); i++) {
+            Cost cost = beans.get(i);
+            builder.append(String.format("%n%10.1fms  %s", cost.nanos / 1e6, cost.name));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * bean的来源：自动配置类（含其内部配置类与@Bean方法定义的bean）；其余@Bean方法定义的bean取所在的配置类；组件扫描的bean取其类所在的包
+     */
+    private static String getSource(ConfigurableListableBeanFactory beanFactory, String beanName) {
+        if (beanName == null) {
+            return "unknown";
+        }
+        try {
+            BeanDefinition definition = beanFactory.getMergedBeanDefinition(beanName);
+            String factoryBeanName = definition.getFactoryBeanName();
+            Class<?> type = beanFactory.getType(factoryBeanName != null ? factoryBeanName : beanName);
+            if (type == null) {
+                return factoryBeanName != null ? factoryBeanName : "unknown";
+            }
+            String name = ClassUtils.getUserClass(type).getName();
+            //自动配置的内部配置类归入外层自动配置类
+            if (name.contains(".autoconfigure.")) {
+                int nestedIndex = name.indexOf('$');
+                return nestedIndex > 0 ? name.substring(0, nestedIndex) : name;
+            }
+            return factoryBeanName != null ? name : ClassUtils.getPackageName(type);
+        } catch (NoSuchBeanDefinitionException e) {
+            return "unknown";
+        }
+    }
+
+    private static String getTag(StartupStep step, String key) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if (key.equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static String toMillis(long nanos) {
+        return String.format("%.1f", nanos / 1e6);
+    }
+
+    private static class Cost {
+
+        private final String name;
+
+        private long nanos;
+
+        private int count;
+
+        Cost(String name) {
+            this.name = name;
+        }
+
+        Cost(String name, long nanos) {
+            this.name = name;
+            this.nanos = nanos;
+            this.count = 1;
+        }
+
+        void add(long selfNanos) {
+            nanos += selfNanos;
+            count++;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.sakury.token;
+
+import com.sakury.component.RedisComponent;
+import com.sakury.entity.dto.UserInfoTokenDto;
+import com.sakury.entity.dto.UserSessionDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.List;
+
+/**
+ * 随机token，登录用户信息存于Redis，每次校验读取一次Redis
+ * <p>
+ * 每个用户的token登记在会话索引中，注销全部会话无需扫描键空间，续期只重置过期时间；
+ * 登录时旧token的注销与新token的写入由一次脚本调用完成
+ */
+@Component("tokenManager")
+@ConditionalOnProperty(name = "token.mode", havingValue = "redis", matchIfMissing = true)
+public class RedisTokenManager implements TokenManager {
+
+    @Resource
+    private RedisComponent redisComponent;
+
+    @Value("${token.session.max-per-user:5}")
+    private int maxSessionsPerUser;
+
+    @Override
+    public void createToken(UserInfoTokenDto userInfoTokenDto, UserSessionDto session, String oldToken) {
+        redisComponent.saveTokenInfo(userInfoTokenDto, session, maxSessionsPerUser, oldToken);
+    }
+
+    @Override
+    public void renewToken(UserInfoTokenDto userInfoTokenDto) {
+        redisComponent.renewTokenInfo(userInfoTokenDto);
+    }
+
+    @Override
+    public UserInfoTokenDto getTokenInfo(String token) {
+        return redisComponent.getTokenInfo(token);
+    }
+
+    @Override
+    public void deleteToken(String token) {
+        redisComponent.deleteTokenInfo(token);
+    }
+
+    @Override
+    public void deleteUserTokens(String userId) {
+        redisComponent.deleteUserTokenInfo(userId);
+    }
+
+    @Override
+    public List<UserSessionDto> getUserSessionList(String userId) {
+        return redisComponent.getUserSessionList(userId);
+    }
+}
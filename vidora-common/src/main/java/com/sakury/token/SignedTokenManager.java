@@ -0,0 +1,192 @@
+package com.sakury.token;
+
+import com.sakury.entity.constants.Constants;
+import com.sakury.entity.dto.UserInfoTokenDto;
+import com.sakury.entity.dto.UserSessionDto;
+import com.sakury.utils.StringTools;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HMAC-SHA256 签名的自包含token，校验只在本地计算签名，不读取Redis
+ * <p>
+ * 格式：kid.userId.过期时间(36进制毫秒).tokenId.签名(base64url)，签名覆盖签名前的全部内容。
+ * 注销时把 tokenId 加入吊销列表，保留到token自然过期；注销用户全部token时记录吊销时间，此前签发的token均失效。
+ * <p>
+ * 密钥轮换：先把新密钥加入 token.signed.keys 发布到所有实例（此时新旧密钥都可校验），
+ * 再把 token.signed.active-kid 切换为新密钥，旧密钥签发的token最长7天后全部过期，之后从配置中移除
+ */
+@Component("tokenManager")
+@ConditionalOnProperty(name = "token.mode", havingValue = "signed")
+public class SignedTokenManager implements TokenManager {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private static final int MIN_SECRET_LENGTH = 32;
+
+    private static final int TOKEN_ID_LENGTH = 12;
+
+    private static final int TOKEN_PARTS = 5;
+
+    @Value("${token.signed.keys:}")
+    private String keys;
+
+    @Value("${token.signed.active-kid:}")
+    private String activeKid;
+
+    @Resource
+    private TokenRevocationSet tokenRevocationSet;
+
+    /**
+     * 每个密钥一个已初始化的 Mac 原型，只用于 clone，本身不参与计算；
+     * Mac 非线程安全，ThreadLocal 在虚拟线程下每个请求都要重新 getInstance + init，克隆原型只需复制内部状态
+     */
+    private final Map<String, Mac> macMap = new HashMap<>();
+
+    @PostConstruct
+    public void init() {
+        for (String item : keys.split(",")) {
+            item = item.trim();
+            if (item.isEmpty()) {
+                continue;
+            }
+            int index = item.indexOf(':');
+            if (index <= 0) {
+                throw new IllegalStateException("token.signed.keys 格式应为 kid:base64密钥，多个以逗号分隔");
+            }
+            String kid = item.substring(0, index);
+            if (!kid.matches("[A-Za-z0-9]+")) {
+                throw new IllegalStateException("token签名密钥id只能包含字母和数字:" + kid);
+            }
+            byte[] secret = Base64.getDecoder().decode(item.substring(index + 1));
+            if (secret.length < MIN_SECRET_LENGTH) {
+                throw new IllegalStateException("token签名密钥长度至少" + MIN_SECRET_LENGTH + "字节:" + kid);
+            }
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(new SecretKeySpec(secret, ALGORITHM));
+                //启动时确认当前Provider支持克隆
+                mac.clone();
+                macMap.put(kid, mac);
+            } catch (GeneralSecurityException | CloneNotSupportedException e) {
+                throw new IllegalStateException("token签名密钥初始化失败:" + kid, e);
+            }
+        }
+        if (!macMap.containsKey(activeKid)) {
+            throw new IllegalStateException("token.signed.active-kid 未在 token.signed.keys 中配置:" + activeKid);
+        }
+    }
+
+    /**
+     * 签名token不记录会话，设备信息忽略，旧token加入吊销列表
+     */
+    @Override
+    public void createToken(UserInfoTokenDto userInfoTokenDto, UserSessionDto session, String oldToken) {
+        if (oldToken != null) {
+            deleteToken(oldToken);
+        }
+        long expireTime = System.currentTimeMillis() + Constants.REDIS_KEY_EXPIRES_TOKEN;
+        String content = activeKid + "." + userInfoTokenDto.getUserId() + "." + Long.toString(expireTime, 36) + "."
+                + StringTools.getRandomString(TOKEN_ID_LENGTH);
+        userInfoTokenDto.setExpireTime(expireTime);
+        userInfoTokenDto.setToken(content + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(sign(activeKid, content)));
+    }
+
+    /**
+     * 签名token无法延长有效期，续期即签发新token，旧token加入吊销列表，避免新旧token同时有效
+     */
+    @Override
+    public void renewToken(UserInfoTokenDto userInfoTokenDto) {
+        createToken(userInfoTokenDto, null, userInfoTokenDto.getToken());
+    }
+
+    /**
+     * 签名校验通过的token只携带 userId 与过期时间
+     */
+    @Override
+    public UserInfoTokenDto getTokenInfo(String token) {
+        String[] parts = verify(token);
+        if (parts == null) {
+            return null;
+        }
+        long expireTime = Long.parseLong(parts[2], 36);
+        if (tokenRevocationSet.isRevoked(parts[3], parts[1], expireTime - Constants.REDIS_KEY_EXPIRES_TOKEN)) {
+            return null;
+        }
+        UserInfoTokenDto userInfoTokenDto = new UserInfoTokenDto();
+        userInfoTokenDto.setUserId(parts[1]);
+        userInfoTokenDto.setExpireTime(expireTime);
+        userInfoTokenDto.setToken(token);
+        return userInfoTokenDto;
+    }
+
+    @Override
+    public void deleteToken(String token) {
+        String[] parts = verify(token);
+        if (parts != null) {
+            tokenRevocationSet.revoke(parts[3], Long.parseLong(parts[2], 36));
+        }
+    }
+
+    /**
+     * 吊销该用户此前签发的全部token，条目保留到这些token中最晚的过期时间
+     */
+    @Override
+    public void deleteUserTokens(String userId) {
+        tokenRevocationSet.revokeUser(userId);
+    }
+
+    /**
+     * 签名token不记录会话
+     */
+    @Override
+    public List<UserSessionDto> getUserSessionList(String userId) {
+        return Collections.emptyList();
+    }
+
+    /**
+     * 校验格式、密钥、签名与过期时间
+     *
+     * @return 拆分后的各部分，无效返回null
+     */
+    private String[] verify(String token) {
+        if (StringTools.isEmpty(token)) {
+            return null;
+        }
+        String[] parts = token.split("\\.");
+        if (parts.length != TOKEN_PARTS || !macMap.containsKey(parts[0])) {
+            return null;
+        }
+        try {
+            byte[] signature = Base64.getUrlDecoder().decode(parts[4]);
+            if (!MessageDigest.isEqual(sign(parts[0], token.substring(0, token.lastIndexOf('.'))), signature)) {
+                return null;
+            }
+            return Long.parseLong(parts[2], 36) > System.currentTimeMillis() ? parts : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private byte[] sign(String kid, String content) {
+        try {
+            return ((Mac) macMap.get(kid).clone()).doFinal(content.getBytes(StandardCharsets.UTF_8));
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
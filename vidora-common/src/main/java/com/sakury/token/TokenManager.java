@@ -0,0 +1,58 @@
+package com.sakury.token;
+
+import com.sakury.entity.dto.UserInfoTokenDto;
+import com.sakury.entity.dto.UserSessionDto;
+
+import java.util.List;
+
+/**
+ * 登录token管理，由 token.mode 选择实现
+ */
+public interface TokenManager {
+
+    /**
+     * 生成token，写入 token 与 expireTime，同时注销同一客户端的旧token
+     *
+     * @param userInfoTokenDto 登录用户信息
+     * @param session          登录设备信息
+     * @param oldToken         客户端当前持有的旧token，可为空
+     */
+    void createToken(UserInfoTokenDto userInfoTokenDto, UserSessionDto session, String oldToken);
+
+    /**
+     * 续期token，续期后的 token 与 expireTime 写回 userInfoTokenDto
+     *
+     * @param userInfoTokenDto 当前登录用户信息
+     */
+    void renewToken(UserInfoTokenDto userInfoTokenDto);
+
+    /**
+     * 校验token并获取登录用户信息
+     *
+     * @param token token
+     * @return 登录用户信息，token无效、过期或已注销返回null
+     */
+    UserInfoTokenDto getTokenInfo(String token);
+
+    /**
+     * 注销token
+     *
+     * @param token token
+     */
+    void deleteToken(String token);
+
+    /**
+     * 注销用户的全部token，用于禁用账号等场景
+     *
+     * @param userId 用户id
+     */
+    void deleteUserTokens(String userId);
+
+    /**
+     * 获取用户当前有效的会话
+     *
+     * @param userId 用户id
+     * @return 会话设备信息，不记录会话的实现返回空列表
+     */
+    List<UserSessionDto> getUserSessionList(String userId);
+}
@@ -0,0 +1,146 @@
+package com.sakury.token;
+
+import com.sakury.entity.constants.Constants;
+import com.sakury.redis.RedisUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 签名token的吊销列表
+ * <p>
+ * 已注销的 tokenId 及其过期时间存于Redis有序集合（分值为过期时间），并在本地保留一份，校验时只查本地；
+ * 注销用户全部token时成员为 u:userId，记录吊销时间，该时间及之前签发的token均失效，条目保留一个token有效期；
+ * 注销通过频道通知各实例，另定时与Redis全量同步以补偿丢失的消息，过期的条目同时清理，列表只包含未过期的token
+ */
+@Component
+@ConditionalOnProperty(name = "token.mode", havingValue = "signed")
+public class TokenRevocationSet implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationSet.class);
+
+    private static final String MESSAGE_SEPARATOR = ":";
+
+    private static final String USER_MEMBER_PREFIX = "u:";
+
+    @Resource
+    private RedisUtils<Object> redisUtils;
+
+    @Resource
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Resource
+    private RedisMessageListenerContainer container;
+
+    /**
+     * tokenId -> 过期时间
+     */
+    private final Map<String, Long> revokedMap = new ConcurrentHashMap<>();
+
+    /**
+     * userId -> 条目过期时间，吊销时间 = 条目过期时间 - token有效期
+     */
+    private final Map<String, Long> revokedUserMap = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        container.addMessageListener(this, new ChannelTopic(Constants.REDIS_CHANNEL_TOKEN_REVOKE));
+        sync();
+    }
+
+    /**
+     * token是否已吊销
+     *
+     * @param tokenId   tokenId
+     * @param userId    token所属用户
+     * @param issueTime token签发时间
+     */
+    public boolean isRevoked(String tokenId, String userId, long issueTime) {
+        if (revokedMap.containsKey(tokenId)) {
+            return true;
+        }
+        Long userExpireTime = revokedUserMap.get(userId);
+        return userExpireTime != null && issueTime <= userExpireTime - Constants.REDIS_KEY_EXPIRES_TOKEN;
+    }
+
+    /**
+     * 吊销token
+     *
+     * @param tokenId    tokenId
+     * @param expireTime token过期时间，到期后条目自动清理
+     */
+    public void revoke(String tokenId, long expireTime) {
+        revokedMap.put(tokenId, expireTime);
+        save(tokenId, expireTime);
+    }
+
+    /**
+     * 吊销用户当前时间及之前签发的全部token
+     *
+     * @param userId 用户id
+     */
+    public void revokeUser(String userId) {
+        long expireTime = System.currentTimeMillis() + Constants.REDIS_KEY_EXPIRES_TOKEN;
+        revokedUserMap.put(userId, expireTime);
+        save(USER_MEMBER_PREFIX + userId, expireTime);
+    }
+
+    private void save(String member, long expireTime) {
+        redisUtils.zadd(Constants.REDIS_KEY_TOKEN_REVOKED, member, expireTime, Constants.REDIS_KEY_EXPIRES_TOKEN);
+        redisUtils.publish(Constants.REDIS_CHANNEL_TOKEN_REVOKE, member + MESSAGE_SEPARATOR + expireTime);
+    }
+
+    private void put(String member, long expireTime) {
+        if (member.startsWith(USER_MEMBER_PREFIX)) {
+            revokedUserMap.merge(member.substring(USER_MEMBER_PREFIX.length()), expireTime, Math::max);
+        } else {
+            revokedMap.put(member, expireTime);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object body = redisTemplate.getValueSerializer().deserialize(message.getBody());
+        if (!(body instanceof String)) {
+            return;
+        }
+        String value = (String) body;
+        int index = value.lastIndexOf(MESSAGE_SEPARATOR);
+        if (index > 0) {
+            put(value.substring(0, index), Long.parseLong(value.substring(index + 1)));
+        }
+    }
+
+    /**
+     * 清理过期条目并从Redis加载全部未过期条目
+     */
+    @Scheduled(fixedDelayString = "${token.signed.revocation-sync-ms:60000}", initialDelayString = "${token.signed.revocation-sync-ms:60000}")
+    public void sync() {
+        long now = System.currentTimeMillis();
+        revokedMap.values().removeIf(expireTime -> expireTime <= now);
+        revokedUserMap.values().removeIf(expireTime -> expireTime <= now);
+        try {
+            redisUtils.zremRangeByScore(Constants.REDIS_KEY_TOKEN_REVOKED, 0, now);
+            Set<ZSetOperations.TypedTuple<Object>> tuples = redisUtils.zrangeByScoreWithScores(Constants.REDIS_KEY_TOKEN_REVOKED, now, Double.MAX_VALUE);
+            for (ZSetOperations.TypedTuple<Object> tuple : tuples) {
+                put((String) tuple.getValue(), tuple.getScore().longValue());
+            }
+        } catch (Exception e) {
+            logger.error("同步token吊销列表失败，当前本地条目数:{}", revokedMap.size() + revokedUserMap.size(), e);
+        }
+    }
+}
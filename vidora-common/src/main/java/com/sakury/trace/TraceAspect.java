@@ -0,0 +1,88 @@
+package com.sakury.trace;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 调用链切面
+ * 为 controller、service、component、mapper 及 RedisUtils 的方法记录片段，当前线程没有进行中的请求时直接放行
+ */
+@Aspect
+@Component
+public class TraceAspect {
+
+    private final Map<Method, String> spanNames = new ConcurrentHashMap<>();
+
+    @Around("within(@org.springframework.web.bind.annotation.RestController *)")
+    public Object traceController(ProceedingJoinPoint point) throws Throwable {
+        return trace(point, "controller");
+    }
+
+    @Around("within(com.sakury.service..*)")
+    public Object traceService(ProceedingJoinPoint point) throws Throwable {
+        return trace(point, "service");
+    }
+
+    @Around("within(com.sakury.component..*)")
+    public Object traceComponent(ProceedingJoinPoint point) throws Throwable {
+        return trace(point, "component");
+    }
+
+    @Around("execution(* com.sakury.mappers..*.*(..))")
+    public Object traceMapper(ProceedingJoinPoint point) throws Throwable {
+        return trace(point, "mapper");
+    }
+
+    @Around("execution(public * com.sakury.redis.RedisUtils.*(..))")
+    public Object traceRedis(ProceedingJoinPoint point) throws Throwable {
+        return trace(point, "redis");
+    }
+
+    private Object trace(ProceedingJoinPoint point, String kind) throws Throwable {
+        TraceContext context = TraceContext.current();
+        if (context == null) {
+            return point.proceed();
+        }
+        int index = context.enter(kind, getSpanName(point));
+        long start = System.nanoTime();
+        Throwable error = null;
+        try {
+            return point.proceed();
+        } catch (Throwable e) {
+            error = e;
+            throw e;
+        } finally {
+            context.exit(index, System.nanoTime() - start, error);
+        }
+    }
+
+    /**
+     * 片段名为 "类名.方法名"，mapper 为 JDK 代理，取其实现的 mapper 接口名
+     */
+    private String getSpanName(ProceedingJoinPoint point) {
+        Method method = ((MethodSignature) point.getSignature()).getMethod();
+        String name = spanNames.get(method);
+        if (name != null) {
+            return name;
+        }
+        Class<?> targetClass = point.getTarget() == null ? method.getDeclaringClass() : point.getTarget().getClass();
+        if (Proxy.isProxyClass(targetClass) && targetClass.getInterfaces().length > 0) {
+            targetClass = targetClass.getInterfaces()[0];
+        }
+        //mapper 方法可能声明在 BaseMapper，按实际 mapper 区分，因此不缓存代理对象的片段名
+        String spanName = ClassUtils.getUserClass(targetClass).getSimpleName() + "." + method.getName();
+        if (method.getDeclaringClass() == targetClass || !method.getDeclaringClass().isInterface()) {
+            spanNames.put(method, spanName);
+        }
+        return spanName;
+    }
+}
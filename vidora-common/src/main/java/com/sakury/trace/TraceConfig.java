@@ -0,0 +1,36 @@
+package com.sakury.trace;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+public class TraceConfig {
+
+    /**
+     * 注册调用链入口过滤器，排在接口耗时过滤器之后，默认只跟踪 /account 下的接口
+     *
+     * @param traceExporter   调用链导出
+     * @param sampleRate      头部采样率 0~1
+     * @param slowThresholdMs 慢请求阈值(毫秒)，超过后无论是否采样都导出
+     * @param maxSpans        单个请求记录的片段上限
+     * @param urlPatterns     需要跟踪的路径，逗号分隔
+     * @return 过滤器注册对象
+     */
+    @Bean
+    @ConditionalOnProperty(name = "trace.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<TraceFilter> traceFilter(TraceExporter traceExporter,
+                                                           @Value("${trace.sample-rate:0.01}") double sampleRate,
+                                                           @Value("${trace.slow-threshold-ms:500}") long slowThresholdMs,
+                                                           @Value("${trace.max-spans:200}") int maxSpans,
+                                                           @Value("${trace.url-patterns:/account/*}") String[] urlPatterns) {
+        FilterRegistrationBean<TraceFilter> registration = new FilterRegistrationBean<>(
+                new TraceFilter(traceExporter, sampleRate, slowThresholdMs, maxSpans));
+        registration.addUrlPatterns(urlPatterns);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
@@ -0,0 +1,115 @@
+package com.sakury.trace;
+
+import com.sakury.entity.dto.TraceDto;
+import com.sakury.entity.dto.TraceSpanDto;
+
+import java.util.ArrayList;
+
+/**
+ * 当前线程的调用链上下文
+ * 由 TraceFilter 在请求开始时创建，切面进入方法时压栈、退出时出栈，同一请求内只在本线程访问，无需加锁
+ */
+public class TraceContext {
+
+    private static final ThreadLocal<TraceContext> CURRENT = new ThreadLocal<>();
+
+    private final TraceDto trace;
+
+    private final long startNanos;
+
+    private final int maxSpans;
+
+    private final boolean sampled;
+
+    private final int[] stack = new int[64];
+
+    private int depth;
+
+    private int droppedSpans;
+
+    private boolean error;
+
+    private TraceContext(TraceDto trace, int maxSpans, boolean sampled) {
+        this.trace = trace;
+        this.startNanos = System.nanoTime();
+        this.maxSpans = maxSpans;
+        this.sampled = sampled;
+        trace.setSpans(new ArrayList<>());
+    }
+
+    static TraceContext begin(TraceDto trace, int maxSpans, boolean sampled) {
+        TraceContext context = new TraceContext(trace, maxSpans, sampled);
+        CURRENT.set(context);
+        return context;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * 当前线程没有进行中的请求时返回 null
+     */
+    public static TraceContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 开始一个片段
+     *
+     * @return 片段下标，超出片段上限或嵌套过深时返回 -1，调用方仍需传给 exit
+     */
+    int enter(String kind, String name) {
+        if (trace.getSpans().size() >= maxSpans || depth >= stack.length) {
+            droppedSpans++;
+            return -1;
+        }
+        TraceSpanDto span = new TraceSpanDto();
+        int index = trace.getSpans().size();
+        span.setSpanId(index + 1);
+        span.setParentId(depth == 0 ? 0 : stack[depth - 1] + 1);
+        span.setKind(kind);
+        span.setName(name);
+        span.setStartMs(toMillis(System.nanoTime() - startNanos));
+        trace.getSpans().add(span);
+        stack[depth++] = index;
+        return index;
+    }
+
+    void exit(int index, long durationNanos, Throwable throwable) {
+        if (index < 0) {
+            return;
+        }
+        TraceSpanDto span = trace.getSpans().get(index);
+        span.setDurationMs(toMillis(durationNanos));
+        if (throwable != null) {
+            span.setError(throwable.getClass().getSimpleName());
+            error = true;
+        }
+        depth--;
+    }
+
+    TraceDto getTrace() {
+        return trace;
+    }
+
+    long getStartNanos() {
+        return startNanos;
+    }
+
+    boolean isSampled() {
+        return sampled;
+    }
+
+    boolean isError() {
+        return error;
+    }
+
+    int getDroppedSpans() {
+        return droppedSpans;
+    }
+
+    static double toMillis(long nanos) {
+        return Math.round(nanos / 1000.0) / 1000.0;
+    }
+}
@@ -0,0 +1,88 @@
+package com.sakury.trace;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sakury.component.RedisComponent;
+import com.sakury.entity.dto.TraceDto;
+import com.sakury.utils.SampledLogger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 调用链导出
+ * 在独立线程中写入本地滚动文件（logger: trace，见 logback-spring.xml）并追加到Redis定长列表供管理端查看，队列满时直接丢弃
+ */
+@Component("traceExporter")
+public class TraceExporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TraceExporter.class);
+
+    /**
+     * Redis不可用时每条调用链都会导出失败，每秒最多输出10条
+     */
+    private static final SampledLogger exportFailureLogger = SampledLogger.of(logger, 10, 1000);
+
+    private static final Logger traceLogger = LoggerFactory.getLogger("trace");
+
+    @Resource
+    private RedisComponent redisComponent;
+
+    @Resource
+    private ObjectMapper objectMapper;
+
+    @Value("${spring.application.name:vidora}")
+    private String appName;
+
+    @Value("${trace.redis.enabled:true}")
+    private boolean redisEnabled;
+
+    @Value("${trace.redis.max-size:500}")
+    private int redisMaxSize;
+
+    private final String instance = ManagementFactory.getRuntimeMXBean().getName();
+
+    private final LongAdder droppedTraces = new LongAdder();
+
+    private final ThreadPoolExecutor exportExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1024), runnable -> {
+        Thread thread = new Thread(runnable, "trace-exporter");
+        thread.setDaemon(true);
+        return thread;
+    }, (runnable, executor) -> droppedTraces.increment());
+
+    public void export(TraceDto trace) {
+        trace.setAppName(appName);
+        trace.setInstance(instance);
+        exportExecutor.execute(() -> {
+            try {
+                traceLogger.info(objectMapper.writeValueAsString(trace));
+                if (redisEnabled) {
+                    redisComponent.saveTrace(trace, redisMaxSize);
+                }
+            } catch (Exception e) {
+                exportFailureLogger.warn("导出调用链失败，traceId:{}", trace.getTraceId(), e);
+            }
+        });
+    }
+
+    /**
+     * 导出队列已满被丢弃的调用链数量
+     */
+    public long getDroppedTraces() {
+        return droppedTraces.sum();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        exportExecutor.shutdown();
+    }
+}
@@ -0,0 +1,90 @@
+package com.sakury.trace;
+
+import com.sakury.entity.dto.TraceDto;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 调用链入口过滤器
+ * 请求开始时按采样率做头部采样，所有请求都记录片段，结束时未采样但超过慢请求阈值或出错的请求同样导出（尾部捕获）
+ */
+public class TraceFilter extends OncePerRequestFilter {
+
+    public static final String TRACE_ID_HEADER = "X-Trace-Id";
+
+    public static final String REASON_SAMPLED = "sampled";
+
+    public static final String REASON_SLOW = "slow";
+
+    public static final String REASON_ERROR = "error";
+
+    private final TraceExporter traceExporter;
+
+    private final double sampleRate;
+
+    private final long slowThresholdNanos;
+
+    private final int maxSpans;
+
+    public TraceFilter(TraceExporter traceExporter, double sampleRate, long slowThresholdMs, int maxSpans) {
+        this.traceExporter = traceExporter;
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+        this.maxSpans = maxSpans;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        TraceDto trace = new TraceDto();
+        trace.setTraceId(Long.toHexString(random.nextLong() | Long.MIN_VALUE));
+        trace.setMethod(request.getMethod());
+        trace.setStartTime(System.currentTimeMillis());
+        response.setHeader(TRACE_ID_HEADER, trace.getTraceId());
+
+        TraceContext context = TraceContext.begin(trace, maxSpans, random.nextDouble() < sampleRate);
+        int rootIndex = context.enter("http", request.getRequestURI());
+        Throwable error = null;
+        try {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            long durationNanos = System.nanoTime() - context.getStartNanos();
+            context.exit(rootIndex, durationNanos, error);
+            TraceContext.end();
+            finish(context, request, response, durationNanos);
+        }
+    }
+
+    private void finish(TraceContext context, HttpServletRequest request, HttpServletResponse response, long durationNanos) {
+        String reason;
+        if (context.isError() || response.getStatus() >= 500) {
+            reason = REASON_ERROR;
+        } else if (durationNanos >= slowThresholdNanos) {
+            reason = REASON_SLOW;
+        } else if (context.isSampled()) {
+            reason = REASON_SAMPLED;
+        } else {
+            return;
+        }
+        TraceDto trace = context.getTrace();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        trace.setUri(pattern == null ? request.getRequestURI() : pattern.toString());
+        trace.setStatus(response.getStatus());
+        trace.setDurationMs(TraceContext.toMillis(durationNanos));
+        trace.setReason(reason);
+        trace.setDroppedSpans(context.getDroppedSpans());
+        traceExporter.export(trace);
+    }
+}
@@ -1,45 +1,50 @@
 package com.sakury.utils;
 
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * 日期格式化与解析，格式按 DateTimeFormatter 规则解释（项目中使用的 yyyy-MM-dd HH:mm:ss 等与 SimpleDateFormat 一致）
+ * DateTimeFormatter 不可变且线程安全，每个格式只创建一次，所有线程共用
+ */
 public class DateUtil {
 
-    private static final Object lockObj = new Object();
-    private static Map<String, ThreadLocal<SimpleDateFormat>> sdfMap = new HashMap<String, ThreadLocal<SimpleDateFormat>>();
+    private static final Map<String, DateTimeFormatter> formatterMap = new ConcurrentHashMap<>();
 
-    private static SimpleDateFormat getSdf(final String pattern) {
-        ThreadLocal<SimpleDateFormat> tl = sdfMap.get(pattern);
-        if (tl == null) {
-            synchronized (lockObj) {
-                tl = sdfMap.get(pattern);
-                if (tl == null) {
-                    tl = new ThreadLocal<SimpleDateFormat>() {
-                        @Override
-                        protected SimpleDateFormat initialValue() {
-                            return new SimpleDateFormat(pattern);
-                        }
-                    };
-                    sdfMap.put(pattern, tl);
-                }
-            }
+    /**
+     * 取得格式对应的formatter，时区为系统默认时区
+     */
+    public static DateTimeFormatter getFormatter(String pattern) {
+        DateTimeFormatter formatter = formatterMap.get(pattern);
+        if (formatter == null) {
+            formatter = formatterMap.computeIfAbsent(pattern, key -> DateTimeFormatter.ofPattern(key).withZone(ZoneId.systemDefault()));
         }
-
-        return tl.get();
+        return formatter;
     }
 
     public static String format(Date date, String pattern) {
-        return getSdf(pattern).format(date);
+        return getFormatter(pattern).format(date.toInstant());
     }
 
+    /**
+     * 解析日期，格式不含时分秒时取当天0点
+     */
     public static Date parse(String dateStr, String pattern) {
         try {
-            return getSdf(pattern).parse(dateStr);
-        } catch (ParseException e) {
+            DateTimeFormatter formatter = getFormatter(pattern);
+            TemporalAccessor parsed = formatter.parse(dateStr);
+            LocalDateTime dateTime = parsed.isSupported(ChronoField.HOUR_OF_DAY) ? LocalDateTime.from(parsed) : LocalDate.from(parsed).atStartOfDay();
+            return Date.from(dateTime.atZone(formatter.getZone()).toInstant());
+        } catch (DateTimeException e) {
             e.printStackTrace();
         }
         return new Date();
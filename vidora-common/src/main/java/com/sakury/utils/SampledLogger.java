@@ -0,0 +1,124 @@
+package com.sakury.utils;
+
+import org.slf4j.Logger;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 限频日志，用于请求路径上可能被大量触发的日志（如Redis不可用时每次调用都失败）
+ * <p>
+ * 每个周期最多输出 permitsPerPeriod 条，其余只计数；下一条输出的日志末尾附带此前省略的条数。
+ * 未开启对应级别时不做任何计数
+ */
+public final class SampledLogger {
+
+    private final Logger logger;
+
+    private final int permitsPerPeriod;
+
+    private final long periodMillis;
+
+    private final AtomicLong periodStart = new AtomicLong();
+
+    private final AtomicInteger permitsUsed = new AtomicInteger();
+
+    private final AtomicLong suppressed = new AtomicLong();
+
+    private final AtomicLong suppressedTotal = new AtomicLong();
+
+    private SampledLogger(Logger logger, int permitsPerPeriod, long periodMillis) {
+        this.logger = logger;
+        this.permitsPerPeriod = permitsPerPeriod;
+        this.periodMillis = periodMillis;
+    }
+
+    /**
+     * @param logger           实际输出的logger
+     * @param permitsPerPeriod 每个周期最多输出的条数
+     * @param periodMillis     周期(毫秒)
+     */
+    public static SampledLogger of(Logger logger, int permitsPerPeriod, long periodMillis) {
+        return new SampledLogger(logger, permitsPerPeriod, periodMillis);
+    }
+
+    public void info(String format, Object... args) {
+        if (!logger.isInfoEnabled()) {
+            return;
+        }
+        long skipped = acquire();
+        if (skipped >= 0) {
+            logger.info(withSkipped(format, skipped), withSkipped(args, skipped));
+        }
+    }
+
+    public void warn(String format, Object... args) {
+        if (!logger.isWarnEnabled()) {
+            return;
+        }
+        long skipped = acquire();
+        if (skipped >= 0) {
+            logger.warn(withSkipped(format, skipped), withSkipped(args, skipped));
+        }
+    }
+
+    public void error(String format, Object... args) {
+        if (!logger.isErrorEnabled()) {
+            return;
+        }
+        long skipped = acquire();
+        if (skipped >= 0) {
+            logger.error(withSkipped(format, skipped), withSkipped(args, skipped));
+        }
+    }
+
+    /**
+     * 累计省略的条数
+     */
+    public long getSuppressedCount() {
+        return suppressedTotal.get();
+    }
+
+    /**
+     * 申请输出一条日志
+     *
+     * @return -1 本周期已满，应省略；否则为上次输出以来省略的条数
+     */
+    private long acquire() {
+        long now = System.currentTimeMillis();
+        long start = periodStart.get();
+        if (now - start >= periodMillis && periodStart.compareAndSet(start, now)) {
+            permitsUsed.set(0);
+        }
+        if (permitsUsed.incrementAndGet() > permitsPerPeriod) {
+            suppressed.incrementAndGet();
+            suppressedTotal.incrementAndGet();
+            return -1;
+        }
+        return suppressed.getAndSet(0);
+    }
+
+    private static String withSkipped(String format, long skipped) {
+        return skipped == 0 ? format : format + "（此前省略{}条）";
+    }
+
+    /**
+     * 省略条数插入到异常参数之前，异常仍作为最后一个参数输出堆栈
+     */
+    private static Object[] withSkipped(Object[] args, long skipped) {
+        if (skipped == 0) {
+            return args;
+        }
+        Object[] result = new Object[args.length + 1];
+        int last = args.length - 1;
+        if (last >= 0 && args[last] instanceof Throwable) {
+            System.arraycopy(args, 0, result, 0, last);
+            result[last] = skipped;
+            result[last + 1] = args[last];
+        } else {
+            System.arraycopy(args, 0, result, 0, args.length);
+            result[args.length] = skipped;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,292 @@
+package com.sakury.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.sakury.component.UserInfoCache;
+import com.sakury.entity.enums.ResponseCodeEnum;
+import com.sakury.entity.enums.UserInfoFieldSetEnum;
+import com.sakury.entity.po.UserInfo;
+import com.sakury.entity.vo.PaginationResultVO;
+import com.sakury.entity.vo.ResponseVO;
+import com.sakury.token.TokenManager;
+import com.sakury.utils.StringTools;
+import com.wf.captcha.ArithmeticCaptcha;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 流量进入前的预热
+ * <p>
+ * 作为 ApplicationRunner 执行，Spring Boot 在所有 ApplicationRunner 结束后才发布 ReadinessState.ACCEPTING_TRAFFIC，
+ * 预热期间 /actuator/health/readiness 返回 503，负载均衡不会转发流量。依次执行：
+ * <ol>
+ *     <li>填充连接池：数据库连接建到 minimum-idle，Redis连接执行一次 PING</li>
+ *     <li>预加载热点数据：warmup.preload-user-ids 中的用户按各字段集读入两级缓存</li>
+ *     <li>按轮以合成数据执行热点路径（token查询、按userId/email查询、JSON序列化、验证码生成），每轮记录各路径耗时的中位数，
+ *     连续 stable-rounds 轮没有路径比此前最低值再降低 stable-ratio 以上时结束</li>
+ * </ol>
+ * 超过 max-duration-ms 仍未稳定也结束预热，避免实例一直不就绪；某个路径执行失败（如Redis不可用）时只记录日志并跳过该路径。
+ * 每次预热只生成 SYNTHETIC_KEYS 个合成的 token、userId、email 循环使用（配置了预加载用户时按userId查询改用这些用户），
+ * 首轮未命中后各轮走的是缓存命中路径，不会每次都查库、在Redis与本地缓存留下大量空值挤掉真实数据；
+ * 合成的 userId、email 不会与真实数据重复，未命中只在Redis留下少量短期空值
+ */
+@Component
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmupRunner.class);
+
+    private static final String SYNTHETIC_PREFIX = "warmup";
+
+    /**
+     * 每次预热使用的合成token、userId、email个数
+     */
+    private static final int SYNTHETIC_KEYS = 8;
+
+    @Resource
+    private DataSource dataSource;
+
+    @Resource
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Resource
+    private TokenManager tokenManager;
+
+    @Resource
+    private UserInfoCache userInfoCache;
+
+    @Resource
+    private ObjectMapper objectMapper;
+
+    @Value("${warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${warmup.iterations-per-round:50}")
+    private int iterationsPerRound;
+
+    @Value("${warmup.min-rounds:3}")
+    private int minRounds;
+
+    @Value("${warmup.stable-rounds:2}")
+    private int stableRounds;
+
+    @Value("${warmup.stable-ratio:0.1}")
+    private double stableRatio;
+
+    @Value("${warmup.max-duration-ms:30000}")
+    private long maxDurationMillis;
+
+    @Value("${warmup.pool-connections:5}")
+    private int poolConnections;
+
+    @Value("${warmup.preload-user-ids:}")
+    private String[] preloadUserIds;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        fillPools();
+        preload();
+        Map<String, Runnable> tasks = buildTasks();
+        Map<String, Long> bestMedians = new LinkedHashMap<>();
+        Map<String, Long> medians = new LinkedHashMap<>();
+        int round = 0;
+        int stableCount = 0;
+        while (!tasks.isEmpty() && System.currentTimeMillis() - start < maxDurationMillis) {
+            round++;
+            medians = runRound(tasks);
+            stableCount = updateBest(bestMedians, medians) ? stableCount + 1 : 0;
+            if (round >= minRounds && stableCount >= stableRounds) {
+                logger.info("预热完成，耗时{}ms，共{}轮，各路径耗时中位数(μs):{}", System.currentTimeMillis() - start, round, toMicros(medians));
+                return;
+            }
+        }
+        logger.warn("预热{}ms内未稳定，共{}轮，仍开始接收流量，各路径耗时中位数(μs):{}", System.currentTimeMillis() - start, round, toMicros(medians));
+    }
+
+    /**
+     * 数据库连接池启动后由后台线程补足空闲连接，这里同时持有 minimum-idle 个连接，确保预热结束时连接都已建立
+     */
+    private void fillPools() {
+        int count = dataSource instanceof HikariDataSource ? ((HikariDataSource) dataSource).getMinimumIdle() : poolConnections;
+        List<Connection> connections = new ArrayList<>();
+        try {
+            for (int i = 0; i < count; i++) {
+                connections.add(dataSource.getConnection());
+            }
+        } catch (SQLException e) {
+            logger.warn("预热数据库连接池失败", e);
+        } finally {
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    logger.warn("归还数据库连接失败", e);
+                }
+            }
+        }
+        try {
+            redisTemplate.execute((RedisCallback<String>) RedisConnection::ping);
+        } catch (Exception e) {
+            logger.warn("预热Redis连接失败", e);
+        }
+    }
+
+    private void preload() {
+        if (preloadUserIds.length == 0) {
+            return;
+        }
+        List<String> userIds = Arrays.asList(preloadUserIds);
+        try {
+            for (UserInfoFieldSetEnum fieldSet : UserInfoFieldSetEnum.values()) {
+                userInfoCache.getAll(userIds, fieldSet);
+            }
+            logger.info("预加载热点用户{}个", userIds.size());
+        } catch (Exception e) {
+            logger.warn("预加载热点用户失败", e);
+        }
+    }
+
+    private Map<String, Runnable> buildTasks() {
+        ResponseVO<PaginationResultVO<UserInfo>> responseVO = buildSyntheticResponse();
+        ObjectWriter writer = objectMapper.writerWithView(UserInfoFieldSetEnum.DETAIL.getView());
+        List<String> tokens = new ArrayList<>();
+        List<String> userIds = new ArrayList<>();
+        List<String> emails = new ArrayList<>();
+        for (int i = 0; i < SYNTHETIC_KEYS; i++) {
+            tokens.add(SYNTHETIC_PREFIX + StringTools.getRandomString(26));
+            userIds.add(syntheticUserId());
+            emails.add(SYNTHETIC_PREFIX + "." + StringTools.getRandomString(16) + "@warmup.invalid");
+        }
+        Supplier<String> token = cycle(tokens);
+        Supplier<String> userId = cycle(preloadUserIds.length == 0 ? userIds : Arrays.asList(preloadUserIds));
+        Supplier<String> email = cycle(emails);
+        Map<String, Runnable> tasks = new LinkedHashMap<>();
+        tasks.put("token", () -> tokenManager.getTokenInfo(token.get()));
+        tasks.put("selectByUserId", () -> userInfoCache.get(userId.get(), UserInfoFieldSetEnum.CARD));
+        tasks.put("selectByEmail", () -> userInfoCache.getByEmail(email.get(), UserInfoFieldSetEnum.DETAIL));
+        tasks.put("json", () -> {
+            try {
+                writer.writeValueAsString(responseVO);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        tasks.put("captcha", () -> {
+            ArithmeticCaptcha captcha = new ArithmeticCaptcha(100, 42);
+            captcha.text();
+            captcha.toBase64();
+        });
+        return tasks;
+    }
+
+    /**
+     * 执行一轮，返回各路径耗时中位数(纳秒)；执行失败的路径从任务中移除
+     */
+    private Map<String, Long> runRound(Map<String, Runnable> tasks) {
+        Map<String, Long> medians = new LinkedHashMap<>();
+        tasks.entrySet().removeIf(entry -> {
+            long[] costs = new long[iterationsPerRound];
+            try {
+                for (int i = 0; i < iterationsPerRound; i++) {
+                    long begin = System.nanoTime();
+                    entry.getValue().run();
+                    costs[i] = System.nanoTime() - begin;
+                }
+            } catch (Exception e) {
+                logger.warn("预热路径{}执行失败，跳过该路径", entry.getKey(), e);
+                return true;
+            }
+            Arrays.sort(costs);
+            medians.put(entry.getKey(), costs[costs.length / 2]);
+            return false;
+        });
+        return medians;
+    }
+
+    /**
+     * 更新各路径的最低耗时中位数，返回本轮是否稳定：没有路径比此前最低值再快 stable-ratio 以上，即JIT编译、缓存填充带来的提升已趋于平缓。
+     * 不要求相邻两轮接近，偶发的变慢（GC、其他进程争用CPU）不会推迟结束
+     */
+    private boolean updateBest(Map<String, Long> bestMedians, Map<String, Long> medians) {
+        boolean stable = !bestMedians.isEmpty();
+        for (Map.Entry<String, Long> entry : medians.entrySet()) {
+            Long best = bestMedians.get(entry.getKey());
+            if (best == null || entry.getValue() < best * (1 - stableRatio)) {
+                stable = false;
+            }
+            if (best == null || entry.getValue() < best) {
+                bestMedians.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return stable;
+    }
+
+    /**
+     * 按顺序循环取值，预热在单个线程中执行
+     */
+    private static Supplier<String> cycle(List<String> values) {
+        int[] next = {0};
+        return () -> {
+            String value = values.get(next[0]);
+            next[0] = (next[0] + 1) % values.size();
+            return value;
+        };
+    }
+
+    /**
+     * 真实 userId 为纯数字，合成的含字母不会与之重复
+     */
+    private static String syntheticUserId() {
+        return SYNTHETIC_PREFIX + StringTools.getRandomString(4);
+    }
+
+    private static ResponseVO<PaginationResultVO<UserInfo>> buildSyntheticResponse() {
+        List<UserInfo> list = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            UserInfo userInfo = new UserInfo();
+            userInfo.setUserId(syntheticUserId());
+            userInfo.setNickName(SYNTHETIC_PREFIX + i);
+            userInfo.setEmail(SYNTHETIC_PREFIX + i + "@warmup.invalid");
+            userInfo.setSex(i % 3);
+            userInfo.setRegisterTime(new Date());
+            userInfo.setStatus(1);
+            userInfo.setTheme(1);
+            list.add(userInfo);
+        }
+        ResponseVO<PaginationResultVO<UserInfo>> responseVO = new ResponseVO<>();
+        responseVO.setStatus("success");
+        responseVO.setCode(ResponseCodeEnum.CODE_200.getCode());
+        responseVO.setInfo(ResponseCodeEnum.CODE_200.getMsg());
+        responseVO.setData(new PaginationResultVO<>(list.size(), 15, 1, list));
+        return responseVO;
+    }
+
+    private static Map<String, Long> toMicros(Map<String, Long> nanos) {
+        Map<String, Long> micros = new LinkedHashMap<>();
+        nanos.forEach((key, value) -> micros.put(key, value / 1000));
+        return micros;
+    }
+}
@@ -0,0 +1,11 @@
+-- 多个位图按位运算后计数，结果写入临时键，计数后删除
+-- KEYS[1] 临时结果键  KEYS[2..n] 参与运算的位图，不存在的视为全0
+-- ARGV[1] 运算 AND/OR
+-- 返回结果中1的个数
+if #KEYS == 2 then
+    return redis.call('BITCOUNT', KEYS[2])
+end
+redis.call('BITOP', ARGV[1], KEYS[1], unpack(KEYS, 2))
+local count = redis.call('BITCOUNT', KEYS[1])
+redis.call('DEL', KEYS[1])
+return count
@@ -0,0 +1,24 @@
+-- 批量记录用户当日活跃：首次出现的用户自增分配稠密序号并记入当日新用户位图，再置位当日活跃位图、加入当日HyperLogLog
+-- KEYS[1] 序号计数器  KEYS[2] 当日活跃位图  KEYS[3] 当日新用户位图  KEYS[4] 当日HyperLogLog  KEYS[4+i] 第i个用户的序号分桶哈希
+-- ARGV[1] 按日数据保留秒数  ARGV[1+i] 第i个userId
+-- 返回本批新分配序号的用户数
+local created = 0
+for i = 2, #ARGV do
+    local userId = ARGV[i]
+    local indexKey = KEYS[i + 3]
+    local index = redis.call('HGET', indexKey, userId)
+    if not index then
+        index = redis.call('INCR', KEYS[1]) - 1
+        redis.call('HSET', indexKey, userId, index)
+        redis.call('SETBIT', KEYS[3], index, 1)
+        created = created + 1
+    end
+    redis.call('SETBIT', KEYS[2], index, 1)
+    redis.call('PFADD', KEYS[4], userId)
+end
+redis.call('EXPIRE', KEYS[2], ARGV[1])
+redis.call('EXPIRE', KEYS[4], ARGV[1])
+if created > 0 then
+    redis.call('EXPIRE', KEYS[3], ARGV[1])
+end
+return created
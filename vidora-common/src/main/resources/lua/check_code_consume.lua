@@ -0,0 +1,7 @@
+-- 读取并删除验证码，保证每个验证码只能被校验一次（等同 GETDEL，兼容6.2以下版本）
+-- KEYS[1] 验证码键
+local value = redis.call('GET', KEYS[1])
+if value then
+    redis.call('DEL', KEYS[1])
+end
+return value
@@ -0,0 +1,7 @@
+-- 按字段增减看板汇总值
+-- KEYS[1] 汇总哈希
+-- ARGV 字段与增量交替排列：field1 delta1 field2 delta2 ...
+for i = 1, #ARGV, 2 do
+    redis.call('HINCRBY', KEYS[1], ARGV[i], ARGV[i + 1])
+end
+return #ARGV / 2
@@ -0,0 +1,8 @@
+-- 以对账结果整体替换看板汇总，替换期间的读取不会看到部分写入的结果
+-- KEYS[1] 汇总哈希
+-- ARGV 字段与值交替排列：field1 value1 field2 value2 ...
+redis.call('DEL', KEYS[1])
+for i = 1, #ARGV, 2 do
+    redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1])
+end
+return #ARGV / 2
@@ -0,0 +1,6 @@
+-- 释放锁：值与获取时的标识一致才删除，避免删除已过期后被其他实例重新获取的锁
+-- KEYS[1] 锁键  ARGV[1] 获取锁时写入的标识（值按JSON序列化，数字标识与其字符串形式一致）
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('DEL', KEYS[1])
+end
+return 0
@@ -0,0 +1,40 @@
+-- 轮换登录会话：注销旧token，写入新token并登记到用户会话索引，超出上限时移除最早登录的会话
+-- KEYS[1] 新token键  KEYS[2] 用户会话索引  KEYS[3] 旧token键，可省略
+-- ARGV[1] token信息  ARGV[2] 新token  ARGV[3] 设备信息  ARGV[4] 有效期(毫秒)  ARGV[5] 会话数上限
+-- ARGV[6] 旧token，为空表示没有  ARGV[7] userId
+-- 只访问KEYS中声明的键，由调用方保证同槽；被移除会话的token键不在KEYS中，返回给调用方删除
+-- 返回：第一项为1表示旧token属于其他用户、未在脚本中注销，之后为被移除会话的token
+local result = { 0 }
+if KEYS[3] then
+    local old = redis.call('GET', KEYS[3])
+    local ok, info = false, nil
+    if old then
+        ok, info = pcall(cjson.decode, old)
+    end
+    if old and not (ok and info.userId == ARGV[7]) then
+        result[1] = 1
+    else
+        redis.call('DEL', KEYS[3])
+        redis.call('HDEL', KEYS[2], ARGV[6])
+    end
+end
+redis.call('PSETEX', KEYS[1], ARGV[4], ARGV[1])
+redis.call('HSET', KEYS[2], ARGV[2], ARGV[3])
+redis.call('PEXPIRE', KEYS[2], ARGV[4])
+local max = tonumber(ARGV[5])
+if redis.call('HLEN', KEYS[2]) <= max then
+    return result
+end
+local entries = redis.call('HGETALL', KEYS[2])
+local sessions = {}
+for i = 1, #entries, 2 do
+    local ok, session = pcall(cjson.decode, entries[i + 1])
+    local loginTime = ok and tonumber(session.loginTime) or 0
+    table.insert(sessions, { token = entries[i], loginTime = loginTime })
+end
+table.sort(sessions, function(a, b) return a.loginTime < b.loginTime end)
+for i = 1, #sessions - max do
+    redis.call('HDEL', KEYS[2], sessions[i].token)
+    table.insert(result, sessions[i].token)
+end
+return result
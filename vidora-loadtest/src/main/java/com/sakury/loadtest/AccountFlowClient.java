@@ -0,0 +1,228 @@
+package com.sakury.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sakury.entity.constants.Constants;
+import com.sakury.redis.RedisKeys;
+import io.lettuce.core.AbstractRedisClient;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisStringCommands;
+import io.lettuce.core.cluster.RedisClusterClient;
+import io.lettuce.core.cluster.api.StatefulRedisClusterConnection;
+import io.lettuce.core.codec.ByteArrayCodec;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 账号完整流程：checkCode → register → checkCode → login → autoLogin
+ * <p>
+ * 图片验证码的答案直接从内嵌Redis中读取，读取本身不计入接口延迟
+ */
+public class AccountFlowClient implements AutoCloseable {
+
+    public static final String CHECK_CODE = "checkCode";
+    public static final String REGISTER = "register";
+    public static final String LOGIN = "login";
+    public static final String AUTO_LOGIN = "autoLogin";
+    public static final String FLOW = "flow";
+
+    private static final String PASSWORD = "Vidora12345";
+
+    private final LoadTestConfig config;
+
+    private final String baseUrl;
+
+    private final LoadReport report;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final RedisSerializer<Object> valueSerializer = RedisSerializer.json();
+
+    private final AbstractRedisClient redisClient;
+
+    private final StatefulConnection<byte[], byte[]> redisConnection;
+
+    private final RedisStringCommands<byte[], byte[]> redisCommands;
+
+    private final String runId = Long.toString(ThreadLocalRandom.current().nextLong(36L * 36 * 36 * 36), 36);
+
+    private final AtomicLong userSequence = new AtomicLong();
+
+    public AccountFlowClient(LoadTestConfig config, String baseUrl, LoadReport report) {
+        this.config = config;
+        this.baseUrl = baseUrl;
+        this.report = report;
+        if (config.isRedisCluster()) {
+            RedisClusterClient clusterClient = RedisClusterClient.create("redis://127.0.0.1:" + config.getRedisPort());
+            StatefulRedisClusterConnection<byte[], byte[]> connection = clusterClient.connect(ByteArrayCodec.INSTANCE);
+            this.redisClient = clusterClient;
+            this.redisConnection = connection;
+            this.redisCommands = connection.sync();
+        } else {
+            RedisClient client = RedisClient.create("redis://127.0.0.1:" + config.getRedisPort());
+            StatefulRedisConnection<byte[], byte[]> connection = client.connect(ByteArrayCodec.INSTANCE);
+            this.redisClient = client;
+            this.redisConnection = connection;
+            this.redisCommands = connection.sync();
+        }
+    }
+
+    /**
+     * 执行一次完整流程
+     *
+     * @param intendedStartNanos 流程计划开始时间，open模式下用于计入排队等待，避免协调遗漏
+     * @return 流程是否全部成功
+     */
+    public boolean runFlow(long intendedStartNanos) {
+        long sequence = userSequence.incrementAndGet();
+        String nickName = "lt" + runId + "_" + sequence;
+        String email = nickName + "@loadtest.vidora";
+
+        Map<String, String> captcha = checkCode(intendedStartNanos);
+        if (captcha == null) {
+            return flowFailed();
+        }
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("email", email);
+        params.put("nickName", nickName);
+        params.put("registerPassword", PASSWORD);
+        params.putAll(captcha);
+        if (call(REGISTER, "/account/register", params, null, System.nanoTime()) == null) {
+            return flowFailed();
+        }
+
+        captcha = checkCode(System.nanoTime());
+        if (captcha == null) {
+            return flowFailed();
+        }
+        params = new LinkedHashMap<>();
+        params.put("email", email);
+        params.put("password", DigestUtils.md5Hex(PASSWORD));
+        params.putAll(captcha);
+        Map<?, ?> loginData = call(LOGIN, "/account/login", params, null, System.nanoTime());
+        if (loginData == null) {
+            return flowFailed();
+        }
+        String token = (String) loginData.get("token");
+
+        for (int i = 0; i < config.getAutoLoginPerFlow(); i++) {
+            if (call(AUTO_LOGIN, "/account/autoLogin", new LinkedHashMap<>(), token, System.nanoTime()) == null) {
+                return flowFailed();
+            }
+        }
+        report.getStats(FLOW).recordSuccess(System.nanoTime() - intendedStartNanos);
+        return true;
+    }
+
+    private boolean flowFailed() {
+        report.getStats(FLOW).recordError();
+        return false;
+    }
+
+    /**
+     * 获取验证码并从Redis读取答案
+     */
+    private Map<String, String> checkCode(long startNanos) {
+        Map<?, ?> data = call(CHECK_CODE, "/account/checkCode", new LinkedHashMap<>(), null, startNanos);
+        if (data == null) {
+            return null;
+        }
+        String checkCodeKey = (String) data.get("checkCodeKey");
+        byte[] value = redisCommands.get(RedisKeys.checkCode(checkCodeKey).getBytes(StandardCharsets.UTF_8));
+        if (value == null) {
+            return null;
+        }
+        Map<String, String> captcha = new LinkedHashMap<>();
+        captcha.put("checkCode", String.valueOf(valueSerializer.deserialize(value)));
+        captcha.put("checkCodeKey", checkCodeKey);
+        return captcha;
+    }
+
+    /**
+     * 发送表单请求并记录延迟，返回ResponseVO中的data；失败返回null
+     */
+    private Map<?, ?> call(String endpoint, String path, Map<String, String> params, String token, long startNanos) {
+        EndpointStats stats = report.getStats(endpoint);
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+            connection.setConnectTimeout(config.getRequestTimeoutMillis());
+            connection.setReadTimeout(config.getRequestTimeoutMillis());
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
+            if (token != null) {
+                connection.setRequestProperty(Constants.TOKEN_WEB, token);
+            }
+            try (OutputStream outputStream = connection.getOutputStream()) {
+                outputStream.write(encodeForm(params).getBytes(StandardCharsets.UTF_8));
+            }
+            int httpStatus = connection.getResponseCode();
+            byte[] body = readFully(httpStatus < 400 ? connection.getInputStream() : connection.getErrorStream());
+            long latency = System.nanoTime() - startNanos;
+            if (httpStatus != HttpURLConnection.HTTP_OK) {
+                stats.recordError();
+                return null;
+            }
+            Map<?, ?> responseVO = objectMapper.readValue(body, Map.class);
+            if (!Integer.valueOf(200).equals(responseVO.get("code"))) {
+                stats.recordError();
+                return null;
+            }
+            stats.recordSuccess(latency);
+            Object data = responseVO.get("data");
+            return data instanceof Map ? (Map<?, ?>) data : new LinkedHashMap<>();
+        } catch (Exception e) {
+            stats.recordError();
+            if (connection != null) {
+                connection.disconnect();
+            }
+            return null;
+        }
+    }
+
+    private static String encodeForm(Map<String, String> params) throws Exception {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, String> entry : params.entrySet()) {
+            if (builder.length() > 0) {
+                builder.append('&');
+            }
+            builder.append(entry.getKey()).append('=').append(URLEncoder.encode(entry.getValue(), "UTF-8"));
+        }
+        return builder.toString();
+    }
+
+    private static byte[] readFully(InputStream inputStream) throws Exception {
+        if (inputStream == null) {
+            return new byte[0];
+        }
+        try (InputStream in = inputStream) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream(512);
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+            }
+            return outputStream.toByteArray();
+        }
+    }
+
+    @Override
+    public void close() {
+        redisConnection.close();
+        redisClient.shutdown();
+    }
+}
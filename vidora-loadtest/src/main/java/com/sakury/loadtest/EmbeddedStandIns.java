@@ -0,0 +1,118 @@
+package com.sakury.loadtest;
+
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.embedded.Redis;
+import redis.embedded.RedisServer;
+import redis.embedded.RedisShardedCluster;
+import redis.embedded.core.RedisShardedClusterBuilder;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 内嵌的MySQL兼容数据库(MariaDB4j)与本地Redis，均为本机进程，无需联网
+ * <p>
+ * 指定 --redis-cluster=N 时以集群模式启动N个Redis进程并平均分配槽位，用于验证键的槽位布局与跨槽命令
+ * <p>
+ * 建库建表通过JDBC完成，不依赖mysql命令行客户端
+ */
+public class EmbeddedStandIns {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddedStandIns.class);
+
+    public static final String DATABASE = "vidora";
+
+    private static final String SCHEMA_FILE = "/schema/user_info.sql";
+
+    private final LoadTestConfig config;
+
+    private DB db;
+
+    private Redis redis;
+
+    public EmbeddedStandIns(LoadTestConfig config) {
+        this.config = config;
+    }
+
+    public void start() throws Exception {
+        if (config.isRedisCluster()) {
+            List<Integer> ports = new ArrayList<>();
+            for (int i = 0; i < config.getRedisClusterNodes(); i++) {
+                ports.add(config.getRedisPort() + i);
+            }
+            // 端口须在添加分片之前指定，分片按顺序取用端口；集群总线端口为 端口+10000
+            RedisShardedClusterBuilder builder = RedisShardedCluster.newRedisCluster().serverPorts(ports);
+            for (int i = 0; i < ports.size(); i++) {
+                builder.shard("node" + i, 0);
+            }
+            redis = builder.build();
+            redis.start();
+            logger.info("内嵌Redis集群已启动，节点:{}", config.getRedisClusterAddresses());
+        } else {
+            redis = RedisServer.newRedisServer().port(config.getRedisPort()).bind("127.0.0.1").build();
+            redis.start();
+            logger.info("内嵌Redis已启动，端口:{}", config.getRedisPort());
+        }
+
+        DBConfigurationBuilder builder = DBConfigurationBuilder.newBuilder();
+        builder.setPort(config.getDbPort());
+        // 以root运行时mysqld需要显式指定用户
+        if ("root".equals(System.getProperty("user.name"))) {
+            builder.addArg("--user=root");
+        }
+        db = DB.newEmbeddedDB(builder.build());
+        db.start();
+        createSchema();
+        logger.info("内嵌数据库已启动，端口:{}", config.getDbPort());
+    }
+
+    public String getJdbcUrl() {
+        return "jdbc:mysql://127.0.0.1:" + config.getDbPort() + "/" + DATABASE
+                + "?serverTimezone=GMT%2B8&useUnicode=true&characterEncoding=utf8&allowMultiQueries=true&useSSL=false";
+    }
+
+    private void createSchema() throws Exception {
+        String rootUrl = "jdbc:mysql://127.0.0.1:" + config.getDbPort() + "/?useSSL=false&serverTimezone=GMT%2B8";
+        try (Connection connection = DriverManager.getConnection(rootUrl, "root", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE DATABASE IF NOT EXISTS " + DATABASE + " DEFAULT CHARSET utf8mb4");
+            statement.execute("USE " + DATABASE);
+            statement.execute(readSchema());
+        }
+    }
+
+    private String readSchema() throws Exception {
+        try (InputStream inputStream = EmbeddedStandIns.class.getResourceAsStream(SCHEMA_FILE);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            return reader.lines().collect(Collectors.joining("\n"));
+        }
+    }
+
+    public void stop() {
+        try {
+            if (db != null) {
+                db.stop();
+            }
+        } catch (Exception e) {
+            logger.error("停止内嵌数据库失败", e);
+        }
+        try {
+            if (redis != null) {
+                redis.stop();
+            }
+        } catch (Exception e) {
+            logger.error("停止内嵌Redis失败", e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.sakury.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个接口的延迟直方图与计数，延迟以微秒记录
+ */
+public class EndpointStats {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final String name;
+
+    private volatile Histogram histogram = newHistogram();
+
+    private final LongAdder errorCount = new LongAdder();
+
+    public EndpointStats(String name) {
+        this.name = name;
+    }
+
+    private static Histogram newHistogram() {
+        return new ConcurrentHistogram(1, HIGHEST_TRACKABLE_MICROS, 3);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 记录一次成功请求
+     *
+     * @param latencyNanos 耗时(纳秒)
+     */
+    public void recordSuccess(long latencyNanos) {
+        histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+    }
+
+    public void recordError() {
+        errorCount.increment();
+    }
+
+    public Histogram getHistogram() {
+        return histogram;
+    }
+
+    public long getErrorCount() {
+        return errorCount.sum();
+    }
+
+    /**
+     * 预热结束后清空统计
+     */
+    public void reset() {
+        histogram = newHistogram();
+        errorCount.reset();
+    }
+}
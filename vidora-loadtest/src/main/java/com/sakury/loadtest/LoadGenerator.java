@@ -0,0 +1,101 @@
+package com.sakury.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 负载生成器
+ * <p>
+ * closed：固定并发数，每个工作线程完成一个流程后立即开始下一个
+ * <p>
+ * open：按固定到达速率发起流程，流程延迟从计划开始时间算起，服务变慢时排队时间也会体现在延迟中
+ */
+public class LoadGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private final LoadTestConfig config;
+
+    private final AccountFlowClient client;
+
+    private final LoadReport report;
+
+    public LoadGenerator(LoadTestConfig config, AccountFlowClient client, LoadReport report) {
+        this.config = config;
+        this.client = client;
+        this.report = report;
+    }
+
+    /**
+     * 先预热再正式压测，预热期间的统计会被丢弃
+     */
+    public void run() throws InterruptedException {
+        long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(config.getWarmupSeconds());
+        long measureEnd = warmupEnd + TimeUnit.SECONDS.toNanos(config.getDurationSeconds());
+        Thread measureSwitch = new Thread(() -> {
+            sleepUntil(warmupEnd);
+            report.startMeasure();
+            logger.info("预热结束，开始统计");
+        }, "loadtest-measure-switch");
+        measureSwitch.setDaemon(true);
+        measureSwitch.start();
+
+        if (LoadTestConfig.MODE_OPEN.equals(config.getMode())) {
+            runOpenLoop(measureEnd);
+        } else {
+            runClosedLoop(measureEnd);
+        }
+        report.endMeasure();
+    }
+
+    private void runClosedLoop(long endNanos) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(config.getConcurrency());
+        for (int i = 0; i < config.getConcurrency(); i++) {
+            executor.execute(() -> {
+                while (System.nanoTime() < endNanos) {
+                    client.runFlow(System.nanoTime());
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(config.getDurationSeconds() + config.getWarmupSeconds() + 60L, TimeUnit.SECONDS);
+    }
+
+    private void runOpenLoop(long endNanos) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(config.getMaxInFlight());
+        ExecutorService executor = Executors.newCachedThreadPool();
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / config.getRate());
+        long nextStart = System.nanoTime();
+        while (nextStart < endNanos) {
+            sleepUntil(nextStart);
+            final long intendedStart = nextStart;
+            if (inFlight.tryAcquire()) {
+                executor.execute(() -> {
+                    try {
+                        client.runFlow(intendedStart);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            } else {
+                report.recordDroppedFlow();
+            }
+            nextStart += intervalNanos;
+        }
+        executor.shutdown();
+        executor.awaitTermination(config.getRequestTimeoutMillis() * 10L, TimeUnit.MILLISECONDS);
+    }
+
+    private static void sleepUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.sakury.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 压测结果汇总：各接口吞吐量、错误数与延迟百分位，以及 vidora-web 启动至就绪的耗时
+ */
+public class LoadReport {
+
+    private static final List<String> ENDPOINT_ORDER = Arrays.asList(AccountFlowClient.CHECK_CODE, AccountFlowClient.REGISTER,
+            AccountFlowClient.LOGIN, AccountFlowClient.AUTO_LOGIN, AccountFlowClient.FLOW);
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Map<String, EndpointStats> statsMap = new ConcurrentHashMap<>();
+
+    private final LongAdder droppedFlows = new LongAdder();
+
+    private final List<Long> startupMillis = new ArrayList<>();
+
+    private long measureStartMillis;
+
+    private long measureEndMillis;
+
+    public EndpointStats getStats(String endpoint) {
+        return statsMap.computeIfAbsent(endpoint, EndpointStats::new);
+    }
+
+    /**
+     * 记录一次启动至就绪的耗时
+     */
+    public void recordStartup(long millis) {
+        startupMillis.add(millis);
+    }
+
+    public void recordDroppedFlow() {
+        droppedFlows.increment();
+    }
+
+    /**
+     * 预热结束，开始正式统计
+     */
+    public void startMeasure() {
+        statsMap.values().forEach(EndpointStats::reset);
+        droppedFlows.reset();
+        measureStartMillis = System.currentTimeMillis();
+    }
+
+    public void endMeasure() {
+        measureEndMillis = System.currentTimeMillis();
+    }
+
+    public Map<String, Object> toResult(LoadTestConfig config) {
+        double seconds = Math.max(1, measureEndMillis - measureStartMillis) / 1000.0;
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        for (String endpoint : ENDPOINT_ORDER) {
+            EndpointStats stats = statsMap.get(endpoint);
+            if (stats == null) {
+                continue;
+            }
+            Histogram histogram = stats.getHistogram();
+            Map<String, Object> item = new LinkedHashMap<>();
+            long count = histogram.getTotalCount();
+            item.put("count", count);
+            item.put("errors", stats.getErrorCount());
+            item.put("errorRate", count + stats.getErrorCount() == 0 ? 0.0 : (double) stats.getErrorCount() / (count + stats.getErrorCount()));
+            item.put("throughput", count / seconds);
+            for (double percentile : PERCENTILES) {
+                item.put("p" + formatPercentile(percentile) + "Ms", histogram.getValueAtPercentile(percentile) / 1000.0);
+            }
+            item.put("maxMs", histogram.getMaxValue() / 1000.0);
+            item.put("meanMs", histogram.getMean() / 1000.0);
+            endpoints.put(endpoint, item);
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("mode", config.getMode());
+        result.put("concurrency", config.getConcurrency());
+        result.put("rate", config.getRate());
+        result.put("durationSeconds", seconds);
+        result.put("droppedFlows", droppedFlows.sum());
+        result.put("endpoints", endpoints);
+        result.put("startup", toStartupResult());
+        return result;
+    }
+
+    private Map<String, Object> toStartupResult() {
+        List<Long> sorted = new ArrayList<>(startupMillis);
+        Collections.sort(sorted);
+        Map<String, Object> startup = new LinkedHashMap<>();
+        startup.put("runs", sorted.size());
+        startup.put("samplesMs", startupMillis);
+        if (!sorted.isEmpty()) {
+            startup.put("minMs", sorted.get(0));
+            startup.put("medianMs", sorted.get(sorted.size() / 2));
+            startup.put("maxMs", sorted.get(sorted.size() - 1));
+        }
+        return startup;
+    }
+
+    @SuppressWarnings("unchecked")
+    public String format(Map<String, Object> result) {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("%-12s %10s %8s %10s %10s %10s %10s %10s %10s%n",
+                "endpoint", "count", "errors", "req/s", "p50(ms)", "p90(ms)", "p99(ms)", "p99.9(ms)", "max(ms)"));
+        Map<String, Object> endpoints = (Map<String, Object>) result.get("endpoints");
+        for (Map.Entry<String, Object> entry : endpoints.entrySet()) {
+            Map<String, Object> item = (Map<String, Object>) entry.getValue();
+            builder.append(String.format("%-12s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f %10.2f%n",
+                    entry.getKey(), item.get("count"), item.get("errors"), item.get("throughput"),
+                    item.get("p50Ms"), item.get("p90Ms"), item.get("p99Ms"), item.get("p99.9Ms"), item.get("maxMs")));
+        }
+        builder.append("open模式丢弃流程数:").append(result.get("droppedFlows"));
+        Map<String, Object> startup = (Map<String, Object>) result.get("startup");
+        if (startup.containsKey("medianMs")) {
+            builder.append(String.format("%n启动至就绪(ms) 次数:%s min:%s median:%s max:%s",
+                    startup.get("runs"), startup.get("minMs"), startup.get("medianMs"), startup.get("maxMs")));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 校验发布门禁，返回未通过的原因，全部通过时返回空列表
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> checkGates(Map<String, Object> result, LoadTestConfig config) {
+        List<String> violations = new ArrayList<>();
+        Map<String, Object> endpoints = (Map<String, Object>) result.get("endpoints");
+        for (Map.Entry<String, Object> entry : endpoints.entrySet()) {
+            if (AccountFlowClient.FLOW.equals(entry.getKey())) {
+                continue;
+            }
+            Map<String, Object> item = (Map<String, Object>) entry.getValue();
+            double p99 = (Double) item.get("p99Ms");
+            double errorRate = (Double) item.get("errorRate");
+            if (config.getGateP99Millis() > 0 && p99 > config.getGateP99Millis()) {
+                violations.add(entry.getKey() + " p99 " + p99 + "ms 超过门限 " + config.getGateP99Millis() + "ms");
+            }
+            if (errorRate > config.getGateErrorRate()) {
+                violations.add(entry.getKey() + " 错误率 " + errorRate + " 超过门限 " + config.getGateErrorRate());
+            }
+        }
+        Map<String, Object> startup = (Map<String, Object>) result.get("startup");
+        Long startupMedian = (Long) startup.get("medianMs");
+        if (config.getGateStartupMillis() > 0 && startupMedian != null && startupMedian > config.getGateStartupMillis()) {
+            violations.add("启动至就绪 " + startupMedian + "ms 超过门限 " + config.getGateStartupMillis() + "ms");
+        }
+        return violations;
+    }
+
+    public void write(Map<String, Object> result, File file) throws Exception {
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, result);
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.floor(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+}
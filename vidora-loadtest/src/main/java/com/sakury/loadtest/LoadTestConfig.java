@@ -0,0 +1,199 @@
+package com.sakury.loadtest;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 压测配置，命令行参数格式为 --key=value
+ * <p>
+ * mode=closed 时按并发数循环执行完整流程；mode=open 时按固定到达速率发起流程，与响应快慢无关
+ */
+public class LoadTestConfig {
+
+    public static final String MODE_CLOSED = "closed";
+
+    public static final String MODE_OPEN = "open";
+
+    private final Map<String, String> args = new HashMap<>();
+
+    public LoadTestConfig(String[] argArray) {
+        for (String arg : argArray) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("参数格式错误，应为 --key=value : " + arg);
+            }
+            int index = arg.indexOf('=');
+            args.put(arg.substring(2, index), arg.substring(index + 1));
+        }
+    }
+
+    /**
+     * vidora-web 可执行jar路径
+     */
+    public String getWebJar() {
+        return getString("web-jar", "vidora-web/target/vidora-web-1.0.jar");
+    }
+
+    /**
+     * 启动 vidora-web 使用的java可执行文件，默认与压测进程相同
+     * <p>
+     * 图片验证码依赖Nashorn脚本引擎，JDK15及以上需指定JDK8/11运行 vidora-web，或使用 java21 构建配置打包（包含 nashorn-core）
+     */
+    public String getWebJava() {
+        return getString("web-java", System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+    }
+
+    /**
+     * vidora-web 进程的JVM参数，空格分隔
+     */
+    public String getWebJvmArgs() {
+        return getString("web-jvm-args", "-Xms512m -Xmx512m");
+    }
+
+    public int getWebPort() {
+        return getInt("web-port", 17071);
+    }
+
+    /**
+     * vidora-web 的 actuator 端口，就绪探测走该端口
+     */
+    public int getManagementPort() {
+        return getInt("management-port", 17081);
+    }
+
+    public int getDbPort() {
+        return getInt("db-port", 13306);
+    }
+
+    public int getRedisPort() {
+        return getInt("redis-port", 16379);
+    }
+
+    /**
+     * 大于0时以集群模式启动该数量的Redis主节点，端口从 redis-port 起连续分配，vidora-web 以 cluster profile 连接
+     */
+    public int getRedisClusterNodes() {
+        return getInt("redis-cluster", 0);
+    }
+
+    public boolean isRedisCluster() {
+        return getRedisClusterNodes() > 0;
+    }
+
+    /**
+     * Redis集群节点地址，host:port 逗号分隔
+     */
+    public String getRedisClusterAddresses() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < getRedisClusterNodes(); i++) {
+            builder.append(i == 0 ? "" : ",").append("127.0.0.1:").append(getRedisPort() + i);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 压测模式 closed / open
+     */
+    public String getMode() {
+        return getString("mode", MODE_CLOSED);
+    }
+
+    /**
+     * closed模式下的并发流程数
+     */
+    public int getConcurrency() {
+        return getInt("concurrency", 32);
+    }
+
+    /**
+     * open模式下每秒发起的流程数
+     */
+    public double getRate() {
+        return Double.parseDouble(getString("rate", "50"));
+    }
+
+    /**
+     * open模式下同时进行中的流程上限，超出后记为丢弃
+     */
+    public int getMaxInFlight() {
+        return getInt("max-in-flight", 2048);
+    }
+
+    /**
+     * 每个流程中autoLogin的调用次数
+     */
+    public int getAutoLoginPerFlow() {
+        return getInt("auto-login-per-flow", 3);
+    }
+
+    /**
+     * 启动 vidora-web 并测量启动至就绪耗时的次数，前 N-1 次测量后立即停止，最后一次启动的进程用于压测
+     */
+    public int getStartupRuns() {
+        return Math.max(1, getInt("startup-runs", 1));
+    }
+
+    public int getWarmupSeconds() {
+        return getInt("warmup", 10);
+    }
+
+    /**
+     * 压测持续时间(秒)，为0时只测量启动耗时
+     */
+    public int getDurationSeconds() {
+        return getInt("duration", 60);
+    }
+
+    public int getRequestTimeoutMillis() {
+        return getInt("request-timeout-ms", 10000);
+    }
+
+    /**
+     * 结果输出目录
+     */
+    public String getResultFolder() {
+        return getString("result-folder", "loadtest-results");
+    }
+
+    public String getTag() {
+        return getString("tag", null);
+    }
+
+    /**
+     * 发布门禁：任一接口p99超过该值(毫秒)时以非0状态退出，小于等于0表示不检查
+     */
+    public double getGateP99Millis() {
+        return Double.parseDouble(getString("gate-p99-ms", "0"));
+    }
+
+    /**
+     * 发布门禁：任一接口错误率超过该值时以非0状态退出
+     */
+    public double getGateErrorRate() {
+        return Double.parseDouble(getString("gate-error-rate", "0.01"));
+    }
+
+    /**
+     * 发布门禁：启动至就绪耗时的中位数超过该值(毫秒)时以非0状态退出，小于等于0表示不检查
+     */
+    public double getGateStartupMillis() {
+        return Double.parseDouble(getString("gate-startup-ms", "0"));
+    }
+
+    private String getString(String key, String defaultValue) {
+        String value = args.get(key);
+        return value == null || value.isEmpty() ? defaultValue : value;
+    }
+
+    private int getInt(String key, int defaultValue) {
+        String value = args.get(key);
+        return value == null || value.isEmpty() ? defaultValue : Integer.parseInt(value);
+    }
+
+    @Override
+    public String toString() {
+        return "mode:" + getMode() + "，并发:" + getConcurrency() + "，速率:" + getRate() + "/s，预热:" + getWarmupSeconds()
+                + "s，持续:" + getDurationSeconds() + "s，每流程autoLogin:" + getAutoLoginPerFlow()
+                + (isRedisCluster() ? "，Redis集群节点:" + getRedisClusterNodes() : "") + "，启动测量次数:" + getStartupRuns();
+    }
+}
@@ -0,0 +1,78 @@
+package com.sakury.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 账号流程端到端压测入口
+ * <p>
+ * 启动内嵌数据库与Redis，拉起 vidora-web 进程，执行 checkCode → register → login → autoLogin 流程，
+ * 输出各接口吞吐量与延迟百分位(HdrHistogram)，并按门禁参数决定退出码；
+ * 每次启动 vidora-web 记录从创建进程到 readiness 探针返回200（含预热）的耗时，startup-runs 大于1时重复启动多次取中位数
+ * <p>
+ * 用法：java -jar vidora-loadtest/target/loadtest.jar --mode=open --rate=100 --duration=60
+ * <p>
+ * 只测量启动耗时：java -jar vidora-loadtest/target/loadtest.jar --startup-runs=5 --duration=0
+ */
+public class LoadTestRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestRunner.class);
+
+    private static final int EXIT_GATE_FAILED = 2;
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = new LoadTestConfig(args);
+        File resultFolder = new File(config.getResultFolder());
+        if (!resultFolder.exists()) {
+            resultFolder.mkdirs();
+        }
+        String tag = config.getTag() == null ? new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) : config.getTag();
+
+        EmbeddedStandIns standIns = new EmbeddedStandIns(config);
+        WebApplicationProcess webProcess = new WebApplicationProcess(config, standIns);
+        int exitCode = 0;
+        try {
+            standIns.start();
+            LoadReport report = new LoadReport();
+            for (int i = 0; i < config.getStartupRuns(); i++) {
+                if (i > 0) {
+                    webProcess.stop();
+                }
+                webProcess.start(resultFolder);
+                report.recordStartup(webProcess.getReadyMillis());
+            }
+
+            if (config.getDurationSeconds() > 0) {
+                logger.info("开始压测，{}", config);
+                try (AccountFlowClient client = new AccountFlowClient(config, webProcess.getBaseUrl(), report)) {
+                    new LoadGenerator(config, client, report).run();
+                }
+            }
+
+            Map<String, Object> result = report.toResult(config);
+            File resultFile = new File(resultFolder, "loadtest-" + tag + ".json");
+            report.write(result, resultFile);
+            logger.info("压测结果:\n{}", report.format(result));
+            logger.info("结果已保存到:{}", resultFile.getAbsolutePath());
+
+            List<String> violations = report.checkGates(result, config);
+            if (!violations.isEmpty()) {
+                violations.forEach(violation -> logger.error("门禁未通过:{}", violation));
+                exitCode = EXIT_GATE_FAILED;
+            }
+        } catch (Exception e) {
+            logger.error("压测执行失败", e);
+            exitCode = 1;
+        } finally {
+            webProcess.stop();
+            standIns.stop();
+        }
+        System.exit(exitCode);
+    }
+}
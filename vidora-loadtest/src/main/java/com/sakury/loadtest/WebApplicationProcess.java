@@ -0,0 +1,122 @@
+package com.sakury.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 以独立JVM进程启动 vidora-web 可执行jar，连接内嵌数据库与Redis
+ */
+public class WebApplicationProcess {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebApplicationProcess.class);
+
+    private static final long STARTUP_TIMEOUT_MILLIS = 180000;
+
+    private static final long READY_POLL_MILLIS = 50;
+
+    private final LoadTestConfig config;
+
+    private final EmbeddedStandIns standIns;
+
+    private Process process;
+
+    private long readyMillis;
+
+    public WebApplicationProcess(LoadTestConfig config, EmbeddedStandIns standIns) {
+        this.config = config;
+        this.standIns = standIns;
+    }
+
+    /**
+     * 最近一次启动从创建进程到 readiness 探针返回200（含预热）的耗时(毫秒)
+     */
+    public long getReadyMillis() {
+        return readyMillis;
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + config.getWebPort() + "/web";
+    }
+
+    public void start(File resultFolder) throws Exception {
+        File webJar = new File(config.getWebJar());
+        if (!webJar.exists()) {
+            throw new IllegalStateException("未找到vidora-web可执行jar:" + webJar.getAbsolutePath() + "，请先执行 mvn package");
+        }
+        List<String> command = new ArrayList<>();
+        command.add(config.getWebJava());
+        command.addAll(Arrays.asList(config.getWebJvmArgs().trim().split("\\s+")));
+        command.add("-jar");
+        command.add(webJar.getAbsolutePath());
+        command.add("--server.port=" + config.getWebPort());
+        command.add("--management.server.port=" + config.getManagementPort());
+        command.add("--spring.datasource.url=" + standIns.getJdbcUrl());
+        command.add("--spring.datasource.username=root");
+        command.add("--spring.datasource.password=");
+        if (config.isRedisCluster()) {
+            command.add("--spring.profiles.active=cluster");
+            command.add("--spring.redis.cluster.nodes=" + config.getRedisClusterAddresses());
+        } else {
+            command.add("--spring.redis.host=127.0.0.1");
+            command.add("--spring.redis.port=" + config.getRedisPort());
+        }
+        command.add("--project.folder=" + resultFolder.getAbsolutePath());
+        command.add("--log.root.level=warn");
+
+        File logFile = new File(resultFolder, "vidora-web.out");
+        long start = System.currentTimeMillis();
+        process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logFile)
+                .start();
+        logger.info("vidora-web启动中，输出:{}", logFile.getAbsolutePath());
+        waitUntilReady(start);
+    }
+
+    private void waitUntilReady(long start) throws Exception {
+        while (System.currentTimeMillis() - start < STARTUP_TIMEOUT_MILLIS) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("vidora-web进程已退出，退出码:" + process.exitValue());
+            }
+            try {
+                HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + config.getManagementPort() + "/actuator/health/readiness").openConnection();
+                connection.setConnectTimeout(1000);
+                connection.setReadTimeout(30000);
+                if (connection.getResponseCode() == HttpURLConnection.HTTP_OK) {
+                    readyMillis = System.currentTimeMillis() - start;
+                    logger.info("vidora-web已就绪，耗时{}ms", readyMillis);
+                    return;
+                }
+            } catch (Exception e) {
+                // 尚未启动完成
+            }
+            Thread.sleep(READY_POLL_MILLIS);
+        }
+        throw new IllegalStateException("vidora-web在" + STARTUP_TIMEOUT_MILLIS + "ms内未就绪");
+    }
+
+    public void stop() {
+        if (process == null) {
+            return;
+        }
+        process.destroy();
+        try {
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                process.waitFor(30, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+        process = null;
+    }
+}
@@ -0,0 +1,21 @@
+CREATE TABLE IF NOT EXISTS `user_info` (
+  `user_id` varchar(10) NOT NULL COMMENT '用户id',
+  `nick_name` varchar(20) NOT NULL COMMENT '昵称',
+  `email` varchar(150) NOT NULL COMMENT '邮箱',
+  `password` varchar(50) NOT NULL COMMENT '密码',
+  `sex` tinyint(1) DEFAULT NULL COMMENT '0:女 1:男 2:未知',
+  `birthday` varchar(10) DEFAULT NULL COMMENT '出生日期',
+  `school` varchar(150) DEFAULT NULL COMMENT '学校',
+  `person_introduction` varchar(200) DEFAULT NULL COMMENT '个人简介',
+  `register_time` datetime NOT NULL COMMENT '注册时间',
+  `last_login_time` datetime DEFAULT NULL COMMENT '最后登录时间',
+  `last_login_ip` varchar(15) DEFAULT NULL COMMENT '最后登录ip',
+  `status` tinyint(1) NOT NULL DEFAULT '1' COMMENT '0:禁用 1:正常',
+  `notice_info` varchar(300) DEFAULT NULL COMMENT '空间公告',
+  `total_coin_count` int(11) NOT NULL COMMENT '硬币总数量',
+  `current_coin_count` int(11) NOT NULL COMMENT '当前硬币数',
+  `theme` tinyint(1) NOT NULL DEFAULT '1' COMMENT '主题',
+  PRIMARY KEY (`user_id`),
+  UNIQUE KEY `idx_key_email` (`email`),
+  UNIQUE KEY `idx_nick_name` (`nick_name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='用户信息表';
@@ -1,13 +1,16 @@
 package com.sakury.web;
 
-import org.mybatis.spring.annotation.MapperScan;
+import com.sakury.startup.StartupReporter;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication(scanBasePackages = "com.sakury")
-@MapperScan(basePackages = "com.sakury.mappers")
+@SpringBootApplication
+@EnableScheduling
 public class VidoraWebRunApplication {
     public static void main(String[] args) {
-        SpringApplication.run(VidoraWebRunApplication.class,args);
+        SpringApplication application = new SpringApplication(VidoraWebRunApplication.class);
+        StartupReporter.attach(application);
+        application.run(args);
     }
 }
@@ -1,19 +1,25 @@
 package com.sakury.web.controller;
 
-import com.sakury.component.RedisComponent;
 import com.sakury.entity.constants.Constants;
 import com.sakury.entity.dto.UserInfoTokenDto;
 import com.sakury.entity.enums.ResponseCodeEnum;
+import com.sakury.entity.enums.UserInfoFieldSetEnum;
 import com.sakury.entity.vo.ResponseVO;
 import com.sakury.exception.BusinessException;
+import com.sakury.token.TokenManager;
 import com.sakury.utils.StringTools;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import javax.annotation.Resource;
 import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.util.TreeMap;
 
 
 public class ABaseController {
@@ -23,7 +29,7 @@ public class ABaseController {
     protected static final String STATUC_ERROR = "error";
 
     @Resource
-    private RedisComponent redisComponent;
+    private TokenManager tokenManager;
 
     /**
      * 获取成功ResponseVO
@@ -41,6 +47,46 @@ public class ABaseController {
         return responseVO;
     }
 
+    /**
+     * 获取成功ResponseVO，data 按字段集对应的JSON视图序列化
+     *
+     * @param t
+     * @param fieldSet 字段集
+     * @param <T>
+     * @return
+     */
+    protected <T> MappingJacksonValue getSuccessResponseVO(T t, UserInfoFieldSetEnum fieldSet) {
+        MappingJacksonValue value = new MappingJacksonValue(getSuccessResponseVO(t));
+        value.setSerializationView(fieldSet.getView());
+        return value;
+    }
+
+    /**
+     * 条件请求校验，写入ETag与Cache-Control
+     * If-None-Match 与当前ETag一致时返回true，调用方直接返回null即响应304，不再查询与序列化数据
+     *
+     * @param request 当前请求
+     * @param eTag    由数据版本生成的ETag
+     * @return 是否未修改
+     */
+    protected boolean checkNotModified(ServletWebRequest request, String eTag) {
+        request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        return request.checkNotModified(eTag);
+    }
+
+    /**
+     * 请求参数摘要，参数按名称排序，与参数顺序无关
+     *
+     * @param request 当前请求
+     * @return 摘要
+     */
+    protected String getParamDigest(ServletWebRequest request) {
+        StringBuilder builder = new StringBuilder();
+        new TreeMap<>(request.getParameterMap()).forEach((name, values) -> builder.append(name).append('=')
+                .append(String.join(",", values)).append('&'));
+        return StringTools.encodeByMD5(builder.toString());
+    }
+
     /**
      * 获取业务错误ResponseVO
      *
@@ -135,7 +181,7 @@ public class ABaseController {
 
     /**
      * 获取用户信息令牌DTO
-     * 从当前HTTP请求中获取令牌，并通过Redis组件查询对应的用户信息
+     * 从当前HTTP请求中获取令牌，并通过令牌管理器校验获取对应的用户信息
      *
      * @return UserInfoTokenDto 用户信息令牌数据传输对象，包含用户相关信息
      */
@@ -144,8 +190,8 @@ public class ABaseController {
         HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.getRequestAttributes()).getRequest();
         // 从请求头中获取令牌信息
         String token = request.getHeader(Constants.TOKEN_WEB);
-        // 通过Redis组件根据令牌获取用户信息
-        return redisComponent.getTokenInfo(token);
+        // 根据令牌获取用户信息
+        return tokenManager.getTokenInfo(token);
     }
 
 
@@ -169,8 +215,8 @@ public class ABaseController {
         // 遍历所有Cookie，查找Token相关的Cookie
         for (Cookie cookie : cookies) {
             if (cookie.getName().equals(Constants.TOKEN_WEB)) {
-                // 从Redis中删除对应的Token信息
-                redisComponent.deleteTokenInfo(cookie.getValue());
+                // 注销对应的Token
+                tokenManager.deleteToken(cookie.getValue());
 
                 // 设置Cookie过期时间为0，路径为根目录，然后添加到响应中
                 cookie.setMaxAge(0);
@@ -182,26 +228,23 @@ public class ABaseController {
     }
 
     /**
-     * 清理旧的用户token信息
-     * 从请求中获取现有的token并从Redis中删除对应的信息
+     * 获取cookie中旧的用户token
+     * 登录成功时与新token的写入一并注销
+     *
+     * @return 旧token，不存在返回null
      */
-    protected void clearOldToken(HttpServletRequest request) {
+    protected String getOldToken(HttpServletRequest request) {
         Cookie[] cookies = request.getCookies();
         if (cookies == null) {
-            return; // 没有cookie则直接返回
+            return null; // 没有cookie则直接返回
         }
 
-        String token = null;
         for (Cookie cookie : cookies) {
             if (cookie != null && Constants.TOKEN_WEB.equals(cookie.getName())) {
-                token = cookie.getValue();
-                break; // 找到token后立即退出循环
+                return StringTools.isEmpty(cookie.getValue()) ? null : cookie.getValue();
             }
         }
-
-        if (!StringTools.isEmpty(token)) {
-            redisComponent.deleteTokenInfo(token);
-        }
+        return null;
     }
 
 }
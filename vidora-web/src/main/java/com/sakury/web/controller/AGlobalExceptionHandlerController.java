@@ -3,8 +3,9 @@ package com.sakury.web.controller;
 import com.sakury.entity.enums.ResponseCodeEnum;
 import com.sakury.entity.vo.ResponseVO;
 import com.sakury.exception.BusinessException;
-
-
+import com.sakury.metrics.EndpointMetricsFilter;
+import com.sakury.metrics.ExceptionMetrics;
+import com.sakury.utils.SampledLogger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DuplicateKeyException;
@@ -14,6 +15,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import org.springframework.web.servlet.NoHandlerFoundException;
 
+import javax.annotation.Resource;
 import javax.servlet.http.HttpServletRequest;
 import javax.validation.ConstraintViolationException;
 
@@ -22,9 +24,16 @@ public class AGlobalExceptionHandlerController extends ABaseController {
 
     private static final Logger logger = LoggerFactory.getLogger(AGlobalExceptionHandlerController.class);
 
+    /**
+     * 未知异常输出完整堆栈，故障时每秒最多输出10条，避免日志写满队列
+     */
+    private static final SampledLogger errorLogger = SampledLogger.of(logger, 10, 1000);
+
+    @Resource
+    private ExceptionMetrics exceptionMetrics;
+
     @ExceptionHandler(value = Exception.class)
     Object handleException(Exception e, HttpServletRequest request) {
-        logger.error("请求错误，请求地址{},错误信息:", request.getRequestURL(), e);
         ResponseVO ajaxResponse = new ResponseVO();
         //404
         if (e instanceof NoHandlerFoundException) {
@@ -55,6 +64,16 @@ public class AGlobalExceptionHandlerController extends ABaseController {
             ajaxResponse.setCode(ResponseCodeEnum.CODE_500.getCode());
             ajaxResponse.setInfo(ResponseCodeEnum.CODE_500.getMsg());
             ajaxResponse.setStatus(STATUC_ERROR);
+            EndpointMetricsFilter.markError(request, ajaxResponse.getCode());
+            exceptionMetrics.record(e, ajaxResponse.getCode(), false);
+            errorLogger.error("请求错误，请求地址{},错误信息:", request.getRequestURI(), e);
+            return ajaxResponse;
+        }
+        //业务异常、参数错误只计数，不输出堆栈
+        EndpointMetricsFilter.markError(request, ajaxResponse.getCode());
+        exceptionMetrics.record(e, ajaxResponse.getCode(), true);
+        if (logger.isDebugEnabled()) {
+            logger.debug("请求错误，请求地址{},code:{},错误信息:{}", request.getRequestURI(), ajaxResponse.getCode(), e.getMessage());
         }
         return ajaxResponse;
     }
@@ -1,23 +1,35 @@
 package com.sakury.web.controller;
 
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import com.sakury.component.RedisComponent;
 import com.sakury.entity.constants.Constants;
 import com.sakury.entity.dto.UserInfoTokenDto;
+import com.sakury.entity.enums.ImportFormatEnum;
+import com.sakury.entity.enums.UserInfoFieldSetEnum;
+import com.sakury.entity.enums.UserStatusEnum;
 import com.sakury.entity.query.UserInfoQuery;
 import com.sakury.entity.po.UserInfo;
 import com.sakury.entity.vo.ResponseVO;
 import com.sakury.exception.BusinessException;
+import com.sakury.service.ActiveUserService;
+import com.sakury.service.UserInfoImportService;
 import com.sakury.service.UserInfoService;
+import com.sakury.token.TokenManager;
 import com.sakury.utils.StringTools;
 import com.wf.captcha.ArithmeticCaptcha;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.validation.annotation.Validated;
-import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import javax.annotation.Resource;
 import javax.servlet.http.Cookie;
@@ -39,9 +51,21 @@ public class AccountController extends ABaseController {
     @Resource
     private UserInfoService userInfoService;
 
+    @Resource
+    private UserInfoImportService userInfoImportService;
+
     @Resource
     private RedisComponent redisComponent;
 
+    @Resource
+    private TokenManager tokenManager;
+
+    @Resource
+    private ActiveUserService activeUserService;
+
+    @Value("${user.lookup.max-size:500}")
+    private int lookupMaxSize;
+
 
     /**
      * 生成验证码并保存到Redis中，返回包含验证码图片和唯一标识的响应对象
@@ -83,18 +107,13 @@ public class AccountController extends ABaseController {
                                @NotEmpty @Pattern(regexp = Constants.REGEX_PASSWORD) String registerPassword,
                                @NotEmpty String checkCode,
                                @NotEmpty String checkCodeKey) {
-        // 验证图片验证码是否正确
-        try {
-            if (!checkCode.equalsIgnoreCase(redisComponent.getCheckCode(checkCodeKey))) {
-                throw new BusinessException("图片验证码错误");
-            }
-            // 执行用户注册逻辑
-            userInfoService.register(email, nickName, registerPassword);
-            return getSuccessResponseVO(null);
-        } finally {
-            // 无论注册成功与否，都需要删除Redis中的验证码记录
-            redisComponent.deleteCheckCode(checkCodeKey);
+        // 验证图片验证码是否正确，读取即删除，无论注册成功与否验证码都只能使用一次
+        if (!checkCode.equalsIgnoreCase(redisComponent.consumeCheckCode(checkCodeKey))) {
+            throw new BusinessException("图片验证码错误");
         }
+        // 执行用户注册逻辑
+        userInfoService.register(email, nickName, registerPassword);
+        return getSuccessResponseVO(null);
     }
 
     /**
@@ -116,27 +135,23 @@ public class AccountController extends ABaseController {
                             @NotEmpty String password,
                             @NotEmpty String checkCode,
                             @NotEmpty String checkCodeKey) {
-        // 验证图片验证码是否正确
-        try {
-            if (!checkCode.equalsIgnoreCase(redisComponent.getCheckCode(checkCodeKey))) {
-                throw new BusinessException("图片验证码错误");
-            }
-            String ip = getIpAddress();
-            // 先清理旧的token（如果存在）
-            clearOldToken(request);
-            UserInfoTokenDto userInfoTokenDto = userInfoService.login(email, password, ip);
-            saveToken2Cookie(response, userInfoTokenDto.getToken());
-            //TODO 设置粉丝数，关注数，硬币数
-            return getSuccessResponseVO(userInfoTokenDto);
-        } finally {
-            // 清理验证码缓存并删除旧的token信息
-            redisComponent.deleteCheckCode(checkCodeKey);
+        // 验证图片验证码是否正确，读取即删除，无论登录成功与否验证码都只能使用一次
+        if (!checkCode.equalsIgnoreCase(redisComponent.consumeCheckCode(checkCodeKey))) {
+            throw new BusinessException("图片验证码错误");
         }
+        String ip = getIpAddress();
+        // 登录成功后旧的token（如果存在）与新token的写入一并注销
+        UserInfoTokenDto userInfoTokenDto = userInfoService.login(email, password, ip, request.getHeader(HttpHeaders.USER_AGENT),
+                getOldToken(request));
+        saveToken2Cookie(response, userInfoTokenDto.getToken());
+        activeUserService.recordActive(userInfoTokenDto.getUserId());
+        //TODO 设置粉丝数，关注数，硬币数
+        return getSuccessResponseVO(userInfoTokenDto);
     }
 
     /**
      * 自动登录接口
-     * 根据用户信息token进行自动登录处理，如果token即将过期则重新保存到redis并更新cookie
+     * 根据用户信息token进行自动登录处理，如果token即将过期则续期并更新cookie
      *
      * @param response HttpServletResponse对象，用于向客户端设置cookie
      * @return ResponseVO 返回用户信息token数据的响应对象
@@ -148,13 +163,26 @@ public class AccountController extends ABaseController {
         if (userInfoTokenDto == null) {
             return getSuccessResponseVO(null);
         }
-        // 检查token是否即将过期（剩余时间小于一天），如果是则重新保存到redis并更新cookie
-        if (userInfoTokenDto.getExpireTime() - System.currentTimeMillis() < Constants.REDIS_KEY_EXPIRES_ONE_DAY) {
-            redisComponent.saveTokenInfo(userInfoTokenDto);
-            saveToken2Cookie(response, userInfoTokenDto.getToken());
+        // 检查token是否即将过期（剩余时间小于一天）
+        boolean renew = userInfoTokenDto.getExpireTime() - System.currentTimeMillis() < Constants.REDIS_KEY_EXPIRES_ONE_DAY;
+        // 签名token只携带userId，昵称与硬币数从用户缓存补全；续期前从用户缓存确认用户未被禁用，已禁用或不存在则注销当前token
+        if (userInfoTokenDto.getNickName() == null || renew) {
+            UserInfo userInfo = userInfoService.getUserInfoByUserId(userInfoTokenDto.getUserId(), UserInfoFieldSetEnum.DETAIL);
+            if (userInfo == null || UserStatusEnum.DISABLE.getStatus().equals(userInfo.getStatus())) {
+                tokenManager.deleteToken(userInfoTokenDto.getToken());
+                deleteCookie(response);
+                return getSuccessResponseVO(null);
+            }
+            userInfoTokenDto.setNickName(userInfo.getNickName());
+            userInfoTokenDto.setCurrentCoinCount(userInfo.getCurrentCoinCount());
+        }
+        // 续期：Redis token延长有效期，签名token签发新token并吊销旧token
+        if (renew) {
+            tokenManager.renewToken(userInfoTokenDto);
         }
         // 更新cookie中的token信息
         saveToken2Cookie(response, userInfoTokenDto.getToken());
+        activeUserService.recordActive(userInfoTokenDto.getUserId());
         return getSuccessResponseVO(userInfoTokenDto);
     }
 
@@ -173,10 +201,20 @@ public class AccountController extends ABaseController {
 
     /**
      * 根据条件分页查询
+     * fieldSet 可选 CARD/LIST/DETAIL，只查询并返回对应字段，默认 DETAIL
+     * 支持 If-None-Match，ETag 由用户表数据版本与查询参数组成，任一用户变更后失效；
+     * 登录只更新最后登录时间/IP，不改变数据版本，按这两列筛选或排序时不使用ETag
      */
     @RequestMapping("/loadDataList")
-    public ResponseVO loadDataList(UserInfoQuery query) {
-        return getSuccessResponseVO(userInfoService.findListByPage(query));
+    public MappingJacksonValue loadDataList(UserInfoQuery query, ServletWebRequest webRequest) {
+        if (!dependsOnLastLogin(query)
+                && checkNotModified(webRequest, userInfoService.getUserInfoTableVersion() + "-" + getParamDigest(webRequest))) {
+            return null;
+        }
+        if (query.getFieldSet() == null) {
+            query.setFieldSet(UserInfoFieldSetEnum.DETAIL);
+        }
+        return getSuccessResponseVO(userInfoService.findListByPage(query), query.getFieldSet());
     }
 
     /**
@@ -190,28 +228,49 @@ public class AccountController extends ABaseController {
 
     /**
      * 批量新增
+     * 请求体为 UserInfo 的JSON数组，流式读取并按批次提交，返回成功/失败行数及失败原因
      */
     @RequestMapping("/addBatch")
-    public ResponseVO addBatch(@RequestBody List<UserInfo> listBean) {
-        userInfoService.addBatch(listBean);
-        return getSuccessResponseVO(null);
+    public ResponseVO addBatch(HttpServletRequest request, Integer batchSize) throws IOException {
+        return getSuccessResponseVO(userInfoImportService.importUserInfo(request.getInputStream(), ImportFormatEnum.JSON, false, batchSize));
     }
 
     /**
      * 批量新增/修改
+     * 请求体为 UserInfo 的JSON数组，userId、nickName、email、password必填，已存在则更新，未传的字段保留原值
      */
     @RequestMapping("/addOrUpdateBatch")
-    public ResponseVO addOrUpdateBatch(@RequestBody List<UserInfo> listBean) {
-        userInfoService.addBatch(listBean);
-        return getSuccessResponseVO(null);
+    public ResponseVO addOrUpdateBatch(HttpServletRequest request, Integer batchSize) throws IOException {
+        return getSuccessResponseVO(userInfoImportService.importUserInfo(request.getInputStream(), ImportFormatEnum.JSON, true, batchSize));
     }
 
     /**
      * 根据UserId查询对象
+     * fieldSet 可选 CARD/LIST/DETAIL，只查询并返回对应字段，默认 DETAIL
+     * 支持 If-None-Match，ETag 由该用户的数据版本与字段集组成
      */
     @RequestMapping("/getUserInfoByUserId")
-    public ResponseVO getUserInfoByUserId(String userId) {
-        return getSuccessResponseVO(userInfoService.getUserInfoByUserId(userId));
+    public MappingJacksonValue getUserInfoByUserId(@NotEmpty String userId, UserInfoFieldSetEnum fieldSet, ServletWebRequest webRequest) {
+        fieldSet = fieldSet == null ? UserInfoFieldSetEnum.DETAIL : fieldSet;
+        if (checkNotModified(webRequest, userInfoService.getUserInfoVersion(userId) + "-" + fieldSet.name())) {
+            return null;
+        }
+        return getSuccessResponseVO(userInfoService.getUserInfoByUserId(userId, fieldSet), fieldSet);
+    }
+
+    /**
+     * 根据UserId批量查询对象
+     * userIds 逗号分隔，按传入顺序返回，不存在的忽略；fieldSet 默认 CARD
+     */
+    @RequestMapping("/getUserInfoByUserIds")
+    public MappingJacksonValue getUserInfoByUserIds(@NotEmpty String userIds, UserInfoFieldSetEnum fieldSet) {
+        List<String> userIdList = Arrays.stream(userIds.split(",")).map(String::trim).filter(userId -> !userId.isEmpty())
+                .collect(Collectors.toList());
+        if (userIdList.size() > lookupMaxSize) {
+            throw new BusinessException("单次最多查询" + lookupMaxSize + "个用户");
+        }
+        fieldSet = fieldSet == null ? UserInfoFieldSetEnum.CARD : fieldSet;
+        return getSuccessResponseVO(userInfoService.getUserInfoByUserIds(userIdList, fieldSet), fieldSet);
     }
 
     /**
@@ -234,10 +293,12 @@ public class AccountController extends ABaseController {
 
     /**
      * 根据Email查询对象
+     * fieldSet 可选 CARD/LIST/DETAIL，只查询并返回对应字段，默认 DETAIL
      */
     @RequestMapping("/getUserInfoByEmail")
-    public ResponseVO getUserInfoByEmail(String email) {
-        return getSuccessResponseVO(userInfoService.getUserInfoByEmail(email));
+    public MappingJacksonValue getUserInfoByEmail(String email, UserInfoFieldSetEnum fieldSet) {
+        fieldSet = fieldSet == null ? UserInfoFieldSetEnum.DETAIL : fieldSet;
+        return getSuccessResponseVO(userInfoService.getUserInfoByEmail(email, fieldSet), fieldSet);
     }
 
     /**
@@ -260,10 +321,12 @@ public class AccountController extends ABaseController {
 
     /**
      * 根据NickName查询对象
+     * fieldSet 可选 CARD/LIST/DETAIL，只查询并返回对应字段，默认 DETAIL
      */
     @RequestMapping("/getUserInfoByNickName")
-    public ResponseVO getUserInfoByNickName(String nickName) {
-        return getSuccessResponseVO(userInfoService.getUserInfoByNickName(nickName));
+    public MappingJacksonValue getUserInfoByNickName(String nickName, UserInfoFieldSetEnum fieldSet) {
+        fieldSet = fieldSet == null ? UserInfoFieldSetEnum.DETAIL : fieldSet;
+        return getSuccessResponseVO(userInfoService.getUserInfoByNickName(nickName, fieldSet), fieldSet);
     }
 
     /**
@@ -283,4 +346,11 @@ public class AccountController extends ABaseController {
         userInfoService.deleteUserInfoByNickName(nickName);
         return getSuccessResponseVO(null);
     }
-}
\ No newline at end of file
+
+    private static boolean dependsOnLastLogin(UserInfoQuery query) {
+        return !StringTools.isEmpty(query.getLastLoginTime()) || !StringTools.isEmpty(query.getLastLoginTimeStart())
+                || !StringTools.isEmpty(query.getLastLoginTimeEnd()) || !StringTools.isEmpty(query.getLastLoginIp())
+                || !StringTools.isEmpty(query.getLastLoginIpFuzzy())
+                || query.getOrderBy() != null && query.getOrderBy().contains("last_login");
+    }
+}